@@ -1,5 +1,6 @@
 package com.taskmanager.common.dto;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -23,5 +24,6 @@ public class NotificationDto {
     private String message;
     private String channel; // EMAIL, PUSH, SMS
     private boolean read;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
     private LocalDateTime createdAt;
 }
@@ -0,0 +1,54 @@
+package com.taskmanager.common.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Доменное событие задачи в топике task-events. Ключ сообщения — id задачи, поэтому события
+ * одной задачи попадают в одну партицию и читаются в порядке изменений.
+ * Вместо полного объекта передаются только изменённые поля.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskEvent {
+
+    /**
+     * Текущая версия схемы. Новые поля добавляются без смены версии, смена означает несовместимое изменение
+     */
+    public static final int SCHEMA_VERSION = 1;
+
+    @Builder.Default
+    private int schemaVersion = SCHEMA_VERSION;
+
+    private String eventId;
+    private TaskEventType type;
+    private Long taskId;
+    private Long projectId;
+
+    /**
+     * Версия задачи после изменения: у событий одной задачи строго растёт, поэтому событие с версией
+     * не больше уже применённой — повтор или устаревшее. Подряд версии не идут: служебные изменения
+     * (перенос в архив, отметка об уведомлении о просрочке) увеличивают версию без события,
+     * и пропуск в номерах не означает потерянного события
+     */
+    private Long taskVersion;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private LocalDateTime occurredAt;
+
+    /**
+     * Изменённые поля и их новые значения (null — поле очищено); для CREATED — начальные значения.
+     * Пустая карта (DELETED) не сериализуется
+     */
+    @JsonInclude(value = JsonInclude.Include.NON_EMPTY, content = JsonInclude.Include.ALWAYS)
+    private Map<String, Object> changes;
+}
@@ -0,0 +1,12 @@
+package com.taskmanager.common.dto;
+
+/**
+ * Тип доменного события задачи
+ */
+public enum TaskEventType {
+    CREATED,
+    UPDATED,
+    STATUS_CHANGED,
+    ASSIGNED,
+    DELETED
+}
@@ -4,6 +4,8 @@ import com.taskmanager.common.dto.ApiResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -58,6 +60,32 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(ex.getMessage(), 403, request.getRequestURI()));
     }
 
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ApiResponse<Void>> handlePreconditionFailed(
+            PreconditionFailedException ex, HttpServletRequest request) {
+        log.warn("Условие запроса не выполнено: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.PRECONDITION_FAILED)
+                .body(ApiResponse.error(ex.getMessage(), 412, request.getRequestURI()));
+    }
+
+    /**
+     * Версия записи сменилась между проверкой и сбросом изменений. Если клиент прислал If-Match,
+     * его условие не выполнено (412), как и при несовпадении версии до записи; без него — конфликт (409)
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Void>> handleOptimisticLock(
+            OptimisticLockingFailureException ex, HttpServletRequest request) {
+        log.warn("Конфликт версий: {}", ex.getMessage());
+        HttpStatus status = request.getHeader(HttpHeaders.IF_MATCH) != null
+                ? HttpStatus.PRECONDITION_FAILED
+                : HttpStatus.CONFLICT;
+        return ResponseEntity
+                .status(status)
+                .body(ApiResponse.error("Ресурс изменён параллельным запросом, повторите с актуальной версией",
+                        status.value(), request.getRequestURI()));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<Map<String, String>>> handleValidationErrors(
             MethodArgumentNotValidException ex, HttpServletRequest request) {
@@ -0,0 +1,11 @@
+package com.taskmanager.common.exception;
+
+/**
+ * Исключение для невыполненного условного запроса (If-Match не совпал с текущей версией)
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
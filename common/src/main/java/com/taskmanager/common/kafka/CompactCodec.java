@@ -0,0 +1,27 @@
+package com.taskmanager.common.kafka;
+
+/**
+ * Схема одного типа сообщения в компактном формате. Номера полей не меняются и не переиспользуются:
+ * новое поле получает новый номер, и версию схемы поднимать не нужно. Версия растёт только при
+ * несовместимом изменении, такие сообщения старый читатель отклоняет
+ */
+interface CompactCodec<T> {
+
+    /**
+     * Идентификатор типа в заголовке сообщения
+     */
+    int typeId();
+
+    Class<T> type();
+
+    /**
+     * Последняя версия схемы, которую понимает этот код
+     */
+    int supportedVersion();
+
+    int version(T value);
+
+    void write(T value, CompactWriter out);
+
+    T read(CompactReader in, int version);
+}
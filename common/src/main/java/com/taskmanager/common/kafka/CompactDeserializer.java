@@ -0,0 +1,43 @@
+package com.taskmanager.common.kafka;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+
+/**
+ * Десериализатор, читающий оба формата: компактный определяется по первому байту, остальное
+ * читает JsonDeserializer с настройками spring.json.* (тип по умолчанию, доверенные пакеты).
+ * Потребитель переключается на него раньше продюсера, и топик переходит на новый формат без простоя
+ */
+public class CompactDeserializer implements Deserializer<Object> {
+
+    private final JsonDeserializer<Object> json = new JsonDeserializer<>();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        if (CompactFormat.isCompact(data)) {
+            return CompactFormat.decode(data);
+        }
+        return json.deserialize(topic, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (CompactFormat.isCompact(data)) {
+            return CompactFormat.decode(data);
+        }
+        return json.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
@@ -0,0 +1,72 @@
+package com.taskmanager.common.kafka;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Компактный бинарный формат сообщений Kafka. Сообщение — заголовок из трёх байт
+ * (признак формата, тип, версия схемы) и поля в виде «номер поля и тип значения — значение».
+ * Числа пишутся переменной длиной, пустые поля не пишутся, неизвестные поля читатель пропускает.
+ * Признак формата не может начинать JSON, поэтому читатель различает оба формата по первому байту
+ */
+public final class CompactFormat {
+
+    public static final byte MAGIC = (byte) 0xCB;
+
+    private static final List<CompactCodec<?>> CODECS = List.of(new NotificationCodec(), new TaskEventCodec());
+    private static final Map<Class<?>, CompactCodec<?>> BY_TYPE = new HashMap<>();
+    private static final Map<Integer, CompactCodec<?>> BY_ID = new HashMap<>();
+
+    static {
+        for (CompactCodec<?> codec : CODECS) {
+            BY_TYPE.put(codec.type(), codec);
+            BY_ID.put(codec.typeId(), codec);
+        }
+    }
+
+    private CompactFormat() {
+    }
+
+    public static boolean supports(Class<?> type) {
+        return BY_TYPE.containsKey(type);
+    }
+
+    public static boolean isCompact(byte[] data) {
+        return data != null && data.length > 0 && data[0] == MAGIC;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static byte[] encode(Object value) {
+        CompactCodec<Object> codec = (CompactCodec<Object>) BY_TYPE.get(value.getClass());
+        if (codec == null) {
+            throw new SerializationException("Тип не поддерживается компактным форматом: " + value.getClass());
+        }
+        CompactWriter out = new CompactWriter();
+        out.writeRawByte(MAGIC);
+        out.writeRawByte(codec.typeId());
+        out.writeRawByte(codec.version(value));
+        codec.write(value, out);
+        return out.toByteArray();
+    }
+
+    public static Object decode(byte[] data) {
+        CompactReader in = new CompactReader(data, 0, data.length);
+        if ((byte) in.readRawByte() != MAGIC) {
+            throw new SerializationException("Сообщение не в компактном формате");
+        }
+        int typeId = in.readRawByte();
+        int version = in.readRawByte();
+        CompactCodec<?> codec = BY_ID.get(typeId);
+        if (codec == null) {
+            throw new SerializationException("Неизвестный тип сообщения: " + typeId);
+        }
+        if (version > codec.supportedVersion()) {
+            throw new SerializationException("Версия схемы " + version + " типа " + codec.type().getSimpleName()
+                    + " не поддерживается, последняя известная: " + codec.supportedVersion());
+        }
+        return codec.read(in, version);
+    }
+}
@@ -0,0 +1,155 @@
+package com.taskmanager.common.kafka;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Чтение полей компактного формата. Поля с неизвестным номером пропускаются по типу значения:
+ * так старый читатель понимает сообщения с новыми полями
+ */
+public final class CompactReader {
+
+    private final byte[] data;
+    private final int limit;
+    private int position;
+    private int wireType;
+
+    CompactReader(byte[] data, int offset, int limit) {
+        this.data = data;
+        this.position = offset;
+        this.limit = limit;
+    }
+
+    /**
+     * Номер следующего поля или 0, если поля кончились
+     */
+    public int nextField() {
+        if (position >= limit) {
+            return 0;
+        }
+        long key = readRawVarint();
+        wireType = (int) (key & 0x7);
+        return (int) (key >>> 3);
+    }
+
+    public String readString() {
+        expect(CompactWriter.LENGTH_DELIMITED);
+        return readRawString();
+    }
+
+    public long readLong() {
+        expect(CompactWriter.VARINT);
+        return unZigZag(readRawVarint());
+    }
+
+    public double readDouble() {
+        expect(CompactWriter.FIXED64);
+        return Double.longBitsToDouble(readRawFixed64());
+    }
+
+    public boolean readBoolean() {
+        expect(CompactWriter.VARINT);
+        return readRawVarint() != 0;
+    }
+
+    public <E extends Enum<E>> E readEnum(Class<E> type) {
+        String name = readString();
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            // Значение из более новой схемы: для старого читателя поле остаётся пустым
+            return null;
+        }
+    }
+
+    public LocalDateTime readTimestamp() {
+        CompactReader nested = readMessage();
+        long seconds = unZigZag(nested.readRawVarint());
+        int nanos = (int) nested.readRawVarint();
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    public CompactReader readMessage() {
+        expect(CompactWriter.LENGTH_DELIMITED);
+        int length = readLength();
+        CompactReader nested = new CompactReader(data, position, position + length);
+        position += length;
+        return nested;
+    }
+
+    /**
+     * Пропуск значения неизвестного поля
+     */
+    public void skip() {
+        switch (wireType) {
+            case CompactWriter.VARINT -> readRawVarint();
+            case CompactWriter.FIXED64 -> advance(8);
+            case CompactWriter.LENGTH_DELIMITED -> advance(readLength());
+            default -> throw new SerializationException("Неизвестный тип значения поля: " + wireType);
+        }
+    }
+
+    String readRawString() {
+        int length = readLength();
+        String value = new String(data, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    int readRawByte() {
+        advance(1);
+        return data[position - 1] & 0xFF;
+    }
+
+    long readRawVarint() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position >= limit) {
+                throw new SerializationException("Сообщение обрезано");
+            }
+            byte b = data[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("Некорректное число переменной длины");
+    }
+
+    long readRawFixed64() {
+        advance(8);
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value |= (data[position - 8 + i] & 0xFFL) << (8 * i);
+        }
+        return value;
+    }
+
+    private int readLength() {
+        long length = readRawVarint();
+        if (length < 0 || length > limit - position) {
+            throw new SerializationException("Некорректная длина поля: " + length);
+        }
+        return (int) length;
+    }
+
+    private void advance(int bytes) {
+        if (bytes > limit - position) {
+            throw new SerializationException("Сообщение обрезано");
+        }
+        position += bytes;
+    }
+
+    private void expect(int expected) {
+        if (wireType != expected) {
+            throw new SerializationException("Тип значения поля " + wireType + " вместо " + expected);
+        }
+    }
+
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,43 @@
+package com.taskmanager.common.kafka;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+
+/**
+ * Сериализатор значений в компактный формат. Типы без схемы (и любые значения, если формат
+ * не выбран для топика) пишутся JsonSerializer с теми же настройками spring.json.*.
+ * Формат выбирается по топику через DelegatingByTopicSerializer
+ */
+public class CompactSerializer implements Serializer<Object> {
+
+    private final JsonSerializer<Object> json = new JsonSerializer<>();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        if (data != null && CompactFormat.supports(data.getClass())) {
+            return CompactFormat.encode(data);
+        }
+        return json.serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (data != null && CompactFormat.supports(data.getClass())) {
+            return CompactFormat.encode(data);
+        }
+        return json.serialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
@@ -0,0 +1,148 @@
+package com.taskmanager.common.kafka;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Запись полей компактного формата. Поле — ключ (номер поля и тип значения) и значение;
+ * пустые (null) поля не пишутся вовсе
+ */
+public final class CompactWriter {
+
+    static final int VARINT = 0;
+    static final int FIXED64 = 1;
+    static final int LENGTH_DELIMITED = 2;
+
+    private byte[] buffer;
+    private int size;
+
+    public CompactWriter() {
+        this(64);
+    }
+
+    CompactWriter(int capacity) {
+        this.buffer = new byte[capacity];
+    }
+
+    public void writeString(int field, String value) {
+        if (value != null) {
+            writeKey(field, LENGTH_DELIMITED);
+            writeRawString(value);
+        }
+    }
+
+    public void writeLong(int field, Long value) {
+        if (value != null) {
+            writeKey(field, VARINT);
+            writeRawVarint(zigZag(value));
+        }
+    }
+
+    public void writeDouble(int field, Double value) {
+        if (value != null) {
+            writeKey(field, FIXED64);
+            writeRawFixed64(Double.doubleToLongBits(value));
+        }
+    }
+
+    /**
+     * false не пишется: отсутствующее поле читается как false
+     */
+    public void writeBoolean(int field, boolean value) {
+        if (value) {
+            writeKey(field, VARINT);
+            writeRawVarint(1);
+        }
+    }
+
+    public void writeEnum(int field, Enum<?> value) {
+        if (value != null) {
+            writeString(field, value.name());
+        }
+    }
+
+    /**
+     * Время без зоны: секунды от эпохи (как UTC) и наносекунды, точность не теряется
+     */
+    public void writeTimestamp(int field, LocalDateTime value) {
+        if (value != null) {
+            long seconds = value.toEpochSecond(ZoneOffset.UTC);
+            int nanos = value.getNano();
+            writeKey(field, LENGTH_DELIMITED);
+            writeRawVarint(varintSize(zigZag(seconds)) + varintSize(nanos));
+            writeRawVarint(zigZag(seconds));
+            writeRawVarint(nanos);
+        }
+    }
+
+    /**
+     * Вложенная структура: записывается отдельным буфером с длиной впереди
+     */
+    public void writeMessage(int field, CompactWriter nested) {
+        writeKey(field, LENGTH_DELIMITED);
+        writeRawVarint(nested.size);
+        writeRawBytes(nested.buffer, 0, nested.size);
+    }
+
+    void writeKey(int field, int wireType) {
+        writeRawVarint(((long) field << 3) | wireType);
+    }
+
+    void writeRawString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeRawVarint(bytes.length);
+        writeRawBytes(bytes, 0, bytes.length);
+    }
+
+    void writeRawByte(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+    }
+
+    void writeRawVarint(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    void writeRawFixed64(long value) {
+        ensureCapacity(8);
+        for (int i = 0; i < 8; i++) {
+            buffer[size++] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    void writeRawBytes(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buffer, size, length);
+        size += length;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static int varintSize(long value) {
+        int bytes = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            bytes++;
+        }
+        return bytes;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
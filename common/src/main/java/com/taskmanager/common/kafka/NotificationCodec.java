@@ -0,0 +1,72 @@
+package com.taskmanager.common.kafka;
+
+import com.taskmanager.common.dto.NotificationDto;
+
+/**
+ * Схема NotificationDto
+ */
+final class NotificationCodec implements CompactCodec<NotificationDto> {
+
+    static final int TYPE_ID = 1;
+    static final int VERSION = 1;
+
+    private static final int ID = 1;
+    private static final int USER_ID = 2;
+    private static final int TYPE = 3;
+    private static final int TITLE = 4;
+    private static final int MESSAGE = 5;
+    private static final int CHANNEL = 6;
+    private static final int READ = 7;
+    private static final int CREATED_AT = 8;
+
+    @Override
+    public int typeId() {
+        return TYPE_ID;
+    }
+
+    @Override
+    public Class<NotificationDto> type() {
+        return NotificationDto.class;
+    }
+
+    @Override
+    public int supportedVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public int version(NotificationDto value) {
+        return VERSION;
+    }
+
+    @Override
+    public void write(NotificationDto value, CompactWriter out) {
+        out.writeString(ID, value.getId());
+        out.writeLong(USER_ID, value.getUserId());
+        out.writeString(TYPE, value.getType());
+        out.writeString(TITLE, value.getTitle());
+        out.writeString(MESSAGE, value.getMessage());
+        out.writeString(CHANNEL, value.getChannel());
+        out.writeBoolean(READ, value.isRead());
+        out.writeTimestamp(CREATED_AT, value.getCreatedAt());
+    }
+
+    @Override
+    public NotificationDto read(CompactReader in, int version) {
+        NotificationDto value = new NotificationDto();
+        for (int field = in.nextField(); field != 0; field = in.nextField()) {
+            switch (field) {
+                case ID -> value.setId(in.readString());
+                case USER_ID -> value.setUserId(in.readLong());
+                case TYPE -> value.setType(in.readString());
+                case TITLE -> value.setTitle(in.readString());
+                case MESSAGE -> value.setMessage(in.readString());
+                case CHANNEL -> value.setChannel(in.readString());
+                case READ -> value.setRead(in.readBoolean());
+                case CREATED_AT -> value.setCreatedAt(in.readTimestamp());
+                default -> in.skip();
+            }
+        }
+        return value;
+    }
+}
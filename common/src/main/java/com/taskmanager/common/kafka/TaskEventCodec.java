@@ -0,0 +1,132 @@
+package com.taskmanager.common.kafka;
+
+import com.taskmanager.common.dto.TaskEvent;
+import com.taskmanager.common.dto.TaskEventType;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.math.BigDecimal;
+import java.time.temporal.TemporalAccessor;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Схема TaskEvent. Версия схемы события передаётся в заголовке сообщения.
+ * Значения карты изменений пишутся так же, как их видит JSON: перечисления и даты строками,
+ * целые числа читаются как Integer, если помещаются в него
+ */
+final class TaskEventCodec implements CompactCodec<TaskEvent> {
+
+    static final int TYPE_ID = 2;
+
+    private static final int EVENT_ID = 1;
+    private static final int TYPE = 2;
+    private static final int TASK_ID = 3;
+    private static final int PROJECT_ID = 4;
+    private static final int TASK_VERSION = 5;
+    private static final int OCCURRED_AT = 6;
+    private static final int CHANGE = 7;
+
+    // Поля одного изменения: имя и значение; номер поля значения задаёт его тип, пустое значение не пишется
+    private static final int CHANGE_NAME = 1;
+    private static final int CHANGE_STRING = 2;
+    private static final int CHANGE_INTEGER = 3;
+    private static final int CHANGE_DECIMAL = 4;
+    private static final int CHANGE_BOOLEAN = 5;
+
+    @Override
+    public int typeId() {
+        return TYPE_ID;
+    }
+
+    @Override
+    public Class<TaskEvent> type() {
+        return TaskEvent.class;
+    }
+
+    @Override
+    public int supportedVersion() {
+        return TaskEvent.SCHEMA_VERSION;
+    }
+
+    @Override
+    public int version(TaskEvent value) {
+        return value.getSchemaVersion();
+    }
+
+    @Override
+    public void write(TaskEvent value, CompactWriter out) {
+        out.writeString(EVENT_ID, value.getEventId());
+        out.writeEnum(TYPE, value.getType());
+        out.writeLong(TASK_ID, value.getTaskId());
+        out.writeLong(PROJECT_ID, value.getProjectId());
+        out.writeLong(TASK_VERSION, value.getTaskVersion());
+        out.writeTimestamp(OCCURRED_AT, value.getOccurredAt());
+        if (value.getChanges() != null) {
+            value.getChanges().forEach((name, changed) -> out.writeMessage(CHANGE, change(name, changed)));
+        }
+    }
+
+    @Override
+    public TaskEvent read(CompactReader in, int version) {
+        TaskEvent value = new TaskEvent();
+        value.setSchemaVersion(version);
+        Map<String, Object> changes = new LinkedHashMap<>();
+        for (int field = in.nextField(); field != 0; field = in.nextField()) {
+            switch (field) {
+                case EVENT_ID -> value.setEventId(in.readString());
+                case TYPE -> value.setType(in.readEnum(TaskEventType.class));
+                case TASK_ID -> value.setTaskId(in.readLong());
+                case PROJECT_ID -> value.setProjectId(in.readLong());
+                case TASK_VERSION -> value.setTaskVersion(in.readLong());
+                case OCCURRED_AT -> value.setOccurredAt(in.readTimestamp());
+                case CHANGE -> readChange(in.readMessage(), changes);
+                default -> in.skip();
+            }
+        }
+        value.setChanges(changes);
+        return value;
+    }
+
+    private static CompactWriter change(String name, Object value) {
+        CompactWriter out = new CompactWriter(32);
+        out.writeString(CHANGE_NAME, name);
+        if (value == null) {
+            return out;
+        }
+        if (value instanceof String || value instanceof Enum<?> || value instanceof TemporalAccessor) {
+            out.writeString(CHANGE_STRING, value.toString());
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            out.writeLong(CHANGE_INTEGER, ((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float || value instanceof BigDecimal) {
+            out.writeDouble(CHANGE_DECIMAL, ((Number) value).doubleValue());
+        } else if (value instanceof Boolean flag) {
+            // writeBoolean не пишет false, а отсутствующее значение читается как null
+            out.writeKey(CHANGE_BOOLEAN, CompactWriter.VARINT);
+            out.writeRawVarint(flag ? 1 : 0);
+        } else {
+            throw new SerializationException("Неподдерживаемый тип значения поля " + name + ": " + value.getClass());
+        }
+        return out;
+    }
+
+    private static void readChange(CompactReader in, Map<String, Object> changes) {
+        String name = null;
+        Object value = null;
+        for (int field = in.nextField(); field != 0; field = in.nextField()) {
+            switch (field) {
+                case CHANGE_NAME -> name = in.readString();
+                case CHANGE_STRING -> value = in.readString();
+                case CHANGE_INTEGER -> {
+                    long number = in.readLong();
+                    value = number == (int) number ? (Object) (int) number : (Object) number;
+                }
+                case CHANGE_DECIMAL -> value = in.readDouble();
+                case CHANGE_BOOLEAN -> value = in.readBoolean();
+                default -> in.skip();
+            }
+        }
+        if (name != null) {
+            changes.put(name, value);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.taskmanager.common.exception;
+
+import com.taskmanager.common.dto.ApiResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    @DisplayName("Конфликт версий при сбросе изменений запроса с If-Match отдаётся как 412")
+    void optimisticLock_WithIfMatch_PreconditionFailed() {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/tasks/1");
+        request.addHeader(HttpHeaders.IF_MATCH, "\"3\"");
+
+        ResponseEntity<ApiResponse<Void>> response = handler.handleOptimisticLock(
+                new OptimisticLockingFailureException("Row was updated"), request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        assertThat(response.getBody().getErrorCode()).isEqualTo(412);
+    }
+
+    @Test
+    @DisplayName("Конфликт версий без If-Match отдаётся как 409")
+    void optimisticLock_WithoutIfMatch_Conflict() {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/tasks/1");
+
+        ResponseEntity<ApiResponse<Void>> response = handler.handleOptimisticLock(
+                new OptimisticLockingFailureException("Row was updated"), request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody().getErrorCode()).isEqualTo(409);
+    }
+}
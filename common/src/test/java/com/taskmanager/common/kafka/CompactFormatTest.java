@@ -0,0 +1,145 @@
+package com.taskmanager.common.kafka;
+
+import com.taskmanager.common.dto.NotificationDto;
+import com.taskmanager.common.dto.TaskEvent;
+import com.taskmanager.common.dto.TaskEventType;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.DelegatingByTopicSerialization;
+import org.springframework.kafka.support.serializer.DelegatingByTopicSerializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Компактный формат: точный обмен в обе стороны, совместимость схем и чтение JSON тем же десериализатором
+ */
+class CompactFormatTest {
+
+    private static final String TOPIC = "notification-events";
+
+    @Test
+    @DisplayName("Уведомление проходит сериализацию без потерь и заметно меньше JSON")
+    void notification_RoundTrip() {
+        NotificationDto notification = notification();
+
+        byte[] compact = CompactFormat.encode(notification);
+
+        assertThat(CompactFormat.decode(compact)).isEqualTo(notification);
+        assertThat(compact.length).isLessThan(json(notification).length * 3 / 4);
+    }
+
+    @Test
+    @DisplayName("Событие задачи сохраняет типы значений изменений так же, как JSON")
+    void taskEvent_RoundTrip() {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("status", "DONE");
+        changes.put("assigneeId", null);
+        changes.put("estimatedHours", 12);
+        changes.put("taskCount", 5_000_000_000L);
+        changes.put("ratio", 0.25);
+        changes.put("flagged", false);
+        TaskEvent event = TaskEvent.builder()
+                .eventId("e-1")
+                .type(TaskEventType.UPDATED)
+                .taskId(42L)
+                .projectId(7L)
+                .taskVersion(3L)
+                .occurredAt(LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_456_789))
+                .changes(changes)
+                .build();
+
+        TaskEvent decoded = (TaskEvent) CompactFormat.decode(CompactFormat.encode(event));
+
+        assertThat(decoded).isEqualTo(event);
+        assertThat(decoded.getChanges()).containsExactlyEntriesOf(changes);
+        assertThat(decoded.getSchemaVersion()).isEqualTo(TaskEvent.SCHEMA_VERSION);
+    }
+
+    @Test
+    @DisplayName("Неизвестные поля новой схемы пропускаются, отсутствующие остаются пустыми")
+    void unknownAndMissingFields() {
+        CompactWriter out = new CompactWriter();
+        out.writeRawByte(CompactFormat.MAGIC);
+        out.writeRawByte(NotificationCodec.TYPE_ID);
+        out.writeRawByte(NotificationCodec.VERSION);
+        out.writeString(1, "n-1");
+        out.writeString(40, "поле из будущей схемы");
+        out.writeLong(41, 99L);
+        out.writeDouble(42, 1.5);
+        out.writeLong(2, 5L);
+
+        NotificationDto decoded = (NotificationDto) CompactFormat.decode(out.toByteArray());
+
+        assertThat(decoded.getId()).isEqualTo("n-1");
+        assertThat(decoded.getUserId()).isEqualTo(5L);
+        assertThat(decoded.getTitle()).isNull();
+        assertThat(decoded.isRead()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Сообщение несовместимой версии схемы отклоняется")
+    void newerSchemaVersion_Rejected() {
+        byte[] compact = CompactFormat.encode(TaskEvent.builder().taskId(1L).schemaVersion(TaskEvent.SCHEMA_VERSION + 1).build());
+
+        assertThatThrownBy(() -> CompactFormat.decode(compact)).isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    @DisplayName("Десериализатор читает и компактный формат, и прежний JSON")
+    void deserializer_DetectsFormat() {
+        NotificationDto notification = notification();
+        try (CompactDeserializer deserializer = new CompactDeserializer()) {
+            deserializer.configure(Map.of(
+                    JsonDeserializer.VALUE_DEFAULT_TYPE, NotificationDto.class.getName(),
+                    JsonDeserializer.TRUSTED_PACKAGES, "com.taskmanager.common.dto"), false);
+
+            assertThat(deserializer.deserialize(TOPIC, CompactFormat.encode(notification))).isEqualTo(notification);
+            assertThat(deserializer.deserialize(TOPIC, json(notification))).isEqualTo(notification);
+        }
+    }
+
+    @Test
+    @DisplayName("Формат выбирается по топику, остальные топики остаются в JSON")
+    void perTopicSelection() {
+        NotificationDto notification = notification();
+        try (DelegatingByTopicSerializer serializer = new DelegatingByTopicSerializer()) {
+            serializer.configure(Map.of(
+                    DelegatingByTopicSerialization.VALUE_SERIALIZATION_TOPIC_CONFIG,
+                    TOPIC + ":" + CompactSerializer.class.getName(),
+                    DelegatingByTopicSerialization.VALUE_SERIALIZATION_TOPIC_DEFAULT, JsonSerializer.class.getName(),
+                    JsonSerializer.ADD_TYPE_INFO_HEADERS, false), false);
+
+            assertThat(CompactFormat.isCompact(serializer.serialize(TOPIC, new RecordHeaders(), notification))).isTrue();
+            assertThat(new String(serializer.serialize("task-events", new RecordHeaders(), notification), StandardCharsets.UTF_8))
+                    .startsWith("{");
+        }
+    }
+
+    private static byte[] json(Object value) {
+        try (JsonSerializer<Object> serializer = new JsonSerializer<>()) {
+            return serializer.serialize(TOPIC, value);
+        }
+    }
+
+    static NotificationDto notification() {
+        return NotificationDto.builder()
+                .id("5f0c3a52-9d7e-4c1b-8a36-2b9e4f1d7c10")
+                .userId(1042L)
+                .type("TASK_ASSIGNED")
+                .title("Вам назначена задача")
+                .message("Вы назначены исполнителем задачи: Подготовить отчёт за квартал")
+                .channel("PUSH")
+                .createdAt(LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_000_000))
+                .build();
+    }
+}
@@ -0,0 +1,119 @@
+package com.taskmanager.common.kafka;
+
+import com.taskmanager.common.dto.NotificationDto;
+import com.taskmanager.common.dto.TaskEvent;
+import com.taskmanager.common.dto.TaskEventType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение текущего пути JSON (JsonSerializer / JsonDeserializer с типом по умолчанию, как
+ * в notification-service) и компактного формата: нс на операцию и размер сообщения в байтах.
+ * Запуск: mvn -pl common -Pbenchmark test-compile exec:exec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadSerializationBenchmark {
+
+    private static final String TOPIC = "benchmark";
+
+    @Param({"notification", "taskEvent"})
+    private String payload;
+
+    private Object value;
+    private JsonSerializer<Object> jsonSerializer;
+    private JsonDeserializer<Object> jsonDeserializer;
+    private CompactSerializer compactSerializer;
+    private CompactDeserializer compactDeserializer;
+    private byte[] json;
+    private byte[] compact;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        value = payload.equals("notification") ? CompactFormatTest.notification() : taskEvent();
+
+        Map<String, Object> configs = Map.of(
+                JsonSerializer.ADD_TYPE_INFO_HEADERS, false,
+                JsonDeserializer.VALUE_DEFAULT_TYPE, value.getClass().getName(),
+                JsonDeserializer.TRUSTED_PACKAGES, "*");
+        jsonSerializer = new JsonSerializer<>();
+        jsonSerializer.configure(configs, false);
+        jsonDeserializer = new JsonDeserializer<>();
+        jsonDeserializer.configure(configs, false);
+        compactSerializer = new CompactSerializer();
+        compactSerializer.configure(configs, false);
+        compactDeserializer = new CompactDeserializer();
+        compactDeserializer.configure(configs, false);
+
+        json = jsonSerializer.serialize(TOPIC, value);
+        compact = compactSerializer.serialize(TOPIC, value);
+        System.out.printf("%n%s: json=%d байт, compact=%d байт%n", payload, json.length, compact.length);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jsonSerializer.close();
+        jsonDeserializer.close();
+        compactSerializer.close();
+        compactDeserializer.close();
+    }
+
+    @Benchmark
+    public byte[] jsonSerialize() {
+        return jsonSerializer.serialize(TOPIC, value);
+    }
+
+    @Benchmark
+    public byte[] compactSerialize() {
+        return compactSerializer.serialize(TOPIC, value);
+    }
+
+    @Benchmark
+    public Object jsonDeserialize() {
+        return jsonDeserializer.deserialize(TOPIC, json);
+    }
+
+    @Benchmark
+    public Object compactDeserialize() {
+        return compactDeserializer.deserialize(TOPIC, compact);
+    }
+
+    private static TaskEvent taskEvent() {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("title", "Подготовить отчёт за квартал");
+        changes.put("status", "IN_PROGRESS");
+        changes.put("assigneeId", 1042);
+        changes.put("deadline", "2024-03-15T18:00:00");
+        return TaskEvent.builder()
+                .eventId("0b6e3f8a-41c2-4d5e-9f7a-8c1d2e3f4a5b")
+                .type(TaskEventType.UPDATED)
+                .taskId(987654L)
+                .projectId(321L)
+                .taskVersion(17L)
+                .occurredAt(LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_000_000))
+                .changes(changes)
+                .build();
+    }
+}
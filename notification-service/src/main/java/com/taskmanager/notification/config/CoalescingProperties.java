@@ -0,0 +1,46 @@
+package com.taskmanager.notification.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки объединения уведомлений в дайджесты
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "notification.coalescing")
+public class CoalescingProperties {
+
+    /**
+     * Включение объединения; без него каждое уведомление отправляется сразу
+     */
+    private boolean enabled = true;
+
+    /**
+     * Окно накопления: отсчитывается от первого уведомления в буфере пользователя
+     */
+    private Duration window = Duration.ofSeconds(30);
+
+    /**
+     * Период проверки истёкших окон
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * Число уведомлений, при котором буфер пользователя отправляется, не дожидаясь конца окна
+     */
+    private int maxPerUser = 50;
+
+    /**
+     * Предел уведомлений во всех буферах; сверх него уведомления отправляются сразу
+     */
+    private int maxBuffered = 10_000;
+
+    /**
+     * Число строк в тексте дайджеста, остальные уведомления только подсчитываются
+     */
+    private int maxDigestLines = 20;
+}
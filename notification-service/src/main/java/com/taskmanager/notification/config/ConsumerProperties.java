@@ -0,0 +1,19 @@
+package com.taskmanager.notification.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки обработки пачек уведомлений из Kafka
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "notification.consumer")
+public class ConsumerProperties {
+
+    /**
+     * Число обработчиков пачки; уведомления одного пользователя всегда идут в один обработчик
+     */
+    private int workers = 8;
+}
@@ -0,0 +1,67 @@
+package com.taskmanager.notification.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки отсева повторно полученных уведомлений по их id
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "notification.dedup")
+public class DeduplicationProperties {
+
+    /**
+     * Включение отсева; без него каждое полученное уведомление отправляется
+     */
+    private boolean enabled = true;
+
+    /**
+     * Сколько помнить отправленные id. Окно делится на buckets фильтров Блума, устаревший
+     * фильтр очищается целиком, поэтому id помнится не меньше window * (buckets - 1) / buckets
+     */
+    private Duration window = Duration.ofHours(24);
+
+    /**
+     * Число фильтров Блума в окне
+     */
+    private int buckets = 4;
+
+    /**
+     * Ожидаемое число уведомлений за окно: по нему рассчитывается размер фильтров.
+     * Сверх этого числа доля ложных срабатываний растёт
+     */
+    private long expectedIds = 5_000_000;
+
+    /**
+     * Допустимая доля ложных срабатываний фильтра Блума: с такой вероятностью новое уведомление,
+     * не найденное среди недавних, будет принято за повтор
+     */
+    private double falsePositiveRate = 0.001;
+
+    /**
+     * Число недавних id, которые хранятся точно (LRU)
+     */
+    private int recentIds = 50_000;
+
+    private Redis redis = new Redis();
+
+    @Getter
+    @Setter
+    public static class Redis {
+
+        /**
+         * Общий для реплик список отправленных id в Redis. Фильтр Блума остаётся запасным
+         * вариантом на случай недоступности Redis
+         */
+        private boolean enabled = false;
+
+        /**
+         * Префикс ключей; ключ живёт window
+         */
+        private String keyPrefix = "notification-service:dedup:";
+    }
+}
@@ -0,0 +1,72 @@
+package com.taskmanager.notification.config;
+
+import com.taskmanager.notification.service.NotificationRetryService;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Топики уведомлений. Число партиций основного топика задаёт и параллелизм слушателя
+ * (spring.kafka.listener.concurrency): по потребителю на партицию. Топики повтора и DLT
+ * создаются с тем же числом партиций, чтобы ключ пользователя попадал в ту же партицию.
+ */
+@Configuration
+@EnableConfigurationProperties({ConsumerProperties.class, RetryProperties.class, DeduplicationProperties.class})
+public class KafkaConsumerConfig {
+
+    @Bean
+    public NewTopic notificationEventsTopic(@Value("${kafka.topics.notification-events}") String name,
+                                            @Value("${kafka.topics.notification-partitions}") int partitions) {
+        return TopicBuilder.name(name).partitions(partitions).build();
+    }
+
+    @Bean
+    public KafkaAdmin.NewTopics notificationRetryTopics(NotificationRetryService retryService,
+                                                        @Value("${kafka.topics.notification-partitions}") int partitions) {
+        List<NewTopic> topics = new ArrayList<>();
+        for (String name : retryService.retryTopics()) {
+            topics.add(TopicBuilder.name(name).partitions(partitions).build());
+        }
+        topics.add(TopicBuilder.name(retryService.deadLetterTopic()).partitions(partitions).build());
+        return new KafkaAdmin.NewTopics(topics.toArray(NewTopic[]::new));
+    }
+
+    /**
+     * Ошибка пакетного слушателя означает, что уведомления не доставлены и не переданы на повтор:
+     * пачка читается снова после паузы без ограничения числа попыток, смещения не фиксируются
+     */
+    @Bean
+    public CommonErrorHandler notificationBatchErrorHandler(RetryProperties properties) {
+        return new DefaultErrorHandler(
+                new FixedBackOff(properties.getFailurePause().toMillis(), FixedBackOff.UNLIMITED_ATTEMPTS));
+    }
+
+    /**
+     * Фабрика потребителей топиков повтора: по записи, с ручным подтверждением — задержка
+     * уровня выдерживается через nack без блокировки потока
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> retryListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(false);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+}
@@ -0,0 +1,39 @@
+package com.taskmanager.notification.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Настройки повторной доставки уведомлений через топики повторов
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "notification.retry")
+public class RetryProperties {
+
+    /**
+     * Задержки уровней повтора: уровень N читается из топика {основной}-retry-N не раньше,
+     * чем через delays[N] после записи в него. После последнего уровня уведомление уходит в {основной}-dlt
+     */
+    private List<Duration> delays = List.of(Duration.ofSeconds(5), Duration.ofSeconds(30), Duration.ofMinutes(5));
+
+    /**
+     * Ожидание подтверждения Kafka при записи в топик повтора
+     */
+    private Duration sendTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Пауза перед повторной обработкой, если уведомление не удалось записать в топик повтора или DLT:
+     * запись уровня повтора и пачка основного топика не подтверждаются и читаются снова
+     */
+    private Duration failurePause = Duration.ofSeconds(5);
+
+    /**
+     * Предел числа сообщений DLT за один запрос повторной отправки
+     */
+    private int maxReplay = 10_000;
+}
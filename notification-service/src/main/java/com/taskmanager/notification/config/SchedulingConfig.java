@@ -0,0 +1,14 @@
+package com.taskmanager.notification.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Фоновые задачи сервиса: отправка накопленных дайджестов по истечении окна
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(CoalescingProperties.class)
+public class SchedulingConfig {
+}
@@ -0,0 +1,37 @@
+package com.taskmanager.notification.controller;
+
+import com.taskmanager.common.dto.ApiResponse;
+import com.taskmanager.notification.dto.DltReplayResponse;
+import com.taskmanager.notification.service.NotificationRetryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST контроллер для администрирования доставки уведомлений
+ */
+@RestController
+@RequestMapping("/api/v1/admin/notifications")
+@RequiredArgsConstructor
+public class NotificationAdminController {
+
+    private final NotificationRetryService retryService;
+
+    /**
+     * Возврат сообщений DLT в основной топик после устранения причины сбоя
+     */
+    @PostMapping("/dlt/replay")
+    public ResponseEntity<ApiResponse<DltReplayResponse>> replayDeadLetters(
+            @RequestParam(defaultValue = "1000") int limit) {
+        int replayed = retryService.replayDeadLetters(limit);
+        DltReplayResponse response = DltReplayResponse.builder()
+                .deadLetterTopic(retryService.deadLetterTopic())
+                .targetTopic(retryService.mainTopic())
+                .replayed(replayed)
+                .build();
+        return ResponseEntity.ok(ApiResponse.success(response, "Сообщения DLT отправлены повторно"));
+    }
+}
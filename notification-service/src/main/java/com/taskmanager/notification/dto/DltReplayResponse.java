@@ -0,0 +1,20 @@
+package com.taskmanager.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат повторной отправки сообщений из DLT
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DltReplayResponse {
+
+    private String deadLetterTopic;
+    private String targetTopic;
+    private int replayed;
+}
@@ -1,7 +1,9 @@
 package com.taskmanager.notification.service;
 
+import com.taskmanager.common.dto.NotificationDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
@@ -17,7 +19,17 @@ public class EmailService {
     private final JavaMailSender mailSender;
 
     /**
-     * Отправка простого email
+     * Email уведомление пользователю
+     */
+    public void sendNotification(NotificationDto notification) {
+        log.info("Отправка email уведомления пользователю: {}", notification.getUserId());
+        // В реальном приложении здесь был бы запрос к auth-service для получения email
+        // sendEmail(userEmail, notification.getTitle(), notification.getMessage());
+        log.info("Email уведомление отправлено (симуляция)");
+    }
+
+    /**
+     * Отправка простого email. Ошибка пробрасывается: уведомление уходит на повтор
      */
     public void sendEmail(String to, String subject, String text) {
         try {
@@ -28,8 +40,9 @@ public class EmailService {
             
             mailSender.send(message);
             log.info("Email отправлен на: {}", to);
-        } catch (Exception e) {
+        } catch (MailException e) {
             log.error("Ошибка отправки email на {}: {}", to, e.getMessage());
+            throw e;
         }
     }
 }
@@ -3,28 +3,75 @@ package com.taskmanager.notification.service;
 import com.taskmanager.common.dto.NotificationDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.context.event.EventListener;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.ConsumerSeekAware;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 /**
- * Сервис для получения сообщений из Kafka
+ * Сервис для получения сообщений из Kafka. Слушатель пакетный (spring.kafka.listener.type: batch)
+ * с ручной фиксацией смещений: после пачки и при простое фиксируется смещение самой старой записи,
+ * уведомление которой ещё лежит в буфере объединения, поэтому сбой сервиса не теряет накопленное
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class KafkaConsumerService {
+public class KafkaConsumerService implements ConsumerSeekAware {
+
+    static final String LISTENER_ID = "notification-events";
+
+    private final NotificationDispatcher notificationDispatcher;
+    private final NotificationOffsetTracker offsetTracker;
+
+    @KafkaListener(id = LISTENER_ID, topics = "${kafka.topics.notification-events}", groupId = "notification-service")
+    public void consumeNotifications(List<ConsumerRecord<String, NotificationDto>> records, Consumer<?, ?> consumer) {
+        log.debug("Получена пачка уведомлений из Kafka: {}", records.size());
+        notificationDispatcher.dispatch(records);
+        commit(consumer);
+    }
+
+    /**
+     * Буферы отправляются по таймеру и без новых записей: их смещения фиксируются при простое потребителя.
+     * Событие публикуется в потоке потребителя, поэтому обращаться к нему здесь безопасно
+     */
+    @EventListener
+    public void onIdle(ListenerContainerIdleEvent event) {
+        if (event.getListenerId().startsWith(LISTENER_ID)) {
+            commit(event.getConsumer());
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        offsetTracker.reset(assignments.keySet());
+    }
 
-    private final NotificationService notificationService;
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        offsetTracker.reset(partitions);
+    }
 
-    @KafkaListener(topics = "${kafka.topics.notification-events}", groupId = "notification-service")
-    public void consumeNotification(NotificationDto notification) {
-        log.info("Получено уведомление из Kafka: id={}, type={}, userId={}",
-                notification.getId(), notification.getType(), notification.getUserId());
-        
+    private void commit(Consumer<?, ?> consumer) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = offsetTracker.committable(consumer.assignment());
+        if (offsets.isEmpty()) {
+            return;
+        }
         try {
-            notificationService.processNotification(notification);
-        } catch (Exception e) {
-            log.error("Ошибка обработки уведомления: {}", e.getMessage(), e);
+            consumer.commitSync(offsets);
+            offsetTracker.committed(offsets);
+        } catch (KafkaException e) {
+            // Пачка обработана; смещения будут зафиксированы следующей попыткой
+            log.warn("Не удалось зафиксировать смещения {}: {}", offsets, e.getMessage());
         }
     }
 }
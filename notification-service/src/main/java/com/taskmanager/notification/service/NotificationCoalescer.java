@@ -0,0 +1,266 @@
+package com.taskmanager.notification.service;
+
+import com.taskmanager.common.dto.NotificationDto;
+import com.taskmanager.notification.config.CoalescingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Объединение всплесков уведомлений в дайджесты. Уведомления копятся в буфере пользователя
+ * (отдельно по каналу) в течение окна и уходят одним сообщением; буфер отправляется раньше,
+ * если набрал maxPerUser уведомлений. Общий объём буферов ограничен maxBuffered, сверх него
+ * уведомления отправляются сразу. При остановке сервиса накопленное отправляется.
+ * Неудачная отправка передаётся в топики повтора и не задерживает остальные уведомления.
+ * Если и запись в топик повтора не удалась, буфер возвращается на место: по таймеру он
+ * отправляется при следующем сборе, а при получении из Kafka ошибка пробрасывается, чтобы пачка
+ * не была подтверждена. О каждом уведомлении, которое отправлено, передано на повтор или отброшено
+ * как повтор, сообщает его обратный вызов: до этого смещение его записи не фиксируется.
+ * Повторы уже отправленных уведомлений и повторы внутри буфера в дайджест не попадают.
+ */
+@Slf4j
+@Component
+public class NotificationCoalescer {
+
+    static final String DIGEST_TYPE = "DIGEST";
+
+    private final NotificationService notificationService;
+    private final NotificationRetryService retryService;
+    private final NotificationDeduplicator deduplicator;
+    private final CoalescingProperties properties;
+
+    private final Map<BufferKey, Buffer> buffers = new ConcurrentHashMap<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+
+    private final Counter received;
+    private final Counter sent;
+    private final DistributionSummary flushSize;
+
+    public NotificationCoalescer(NotificationService notificationService,
+                                 NotificationRetryService retryService,
+                                 NotificationDeduplicator deduplicator,
+                                 CoalescingProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.notificationService = notificationService;
+        this.retryService = retryService;
+        this.deduplicator = deduplicator;
+        this.properties = properties;
+
+        this.received = Counter.builder("notification.coalescing.received")
+                .description("Уведомления, полученные из Kafka")
+                .register(meterRegistry);
+        this.sent = Counter.builder("notification.coalescing.sent")
+                .description("Отправленные сообщения: одиночные уведомления и дайджесты")
+                .register(meterRegistry);
+        this.flushSize = DistributionSummary.builder("notification.coalescing.flush.size")
+                .description("Число уведомлений в одном отправленном сообщении")
+                .register(meterRegistry);
+        Gauge.builder("notification.coalescing.merge.ratio", this, NotificationCoalescer::mergeRatio)
+                .description("Отношение полученных уведомлений к отправленным сообщениям")
+                .register(meterRegistry);
+        Gauge.builder("notification.coalescing.buffered", buffered, AtomicInteger::get)
+                .description("Уведомления, ожидающие отправки в буферах")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param done вызывается, когда уведомление отправлено, передано на повтор или отброшено как повтор
+     */
+    public void submit(NotificationDto notification, Runnable done) {
+        received.increment();
+        if (!properties.isEnabled() || notification.getUserId() == null) {
+            deliver(notification, 1);
+            done.run();
+            return;
+        }
+        if (buffered.incrementAndGet() > properties.getMaxBuffered()) {
+            buffered.decrementAndGet();
+            log.debug("Буферы уведомлений заполнены, уведомление {} отправляется сразу", notification.getId());
+            deliver(notification, 1);
+            done.run();
+            return;
+        }
+
+        // Изменение буфера и решение об отправке атомарны по ключу: сбор по таймеру не теряет добавленное
+        BufferKey bufferKey = new BufferKey(notification.getUserId(), notification.getChannel());
+        List<Buffer> full = new ArrayList<>(1);
+        buffers.compute(bufferKey, (key, buffer) -> {
+            Buffer current = buffer != null ? buffer : new Buffer(System.nanoTime());
+            current.items.add(new Entry(notification, done));
+            if (current.items.size() >= properties.getMaxPerUser()) {
+                full.add(current);
+                return null;
+            }
+            return current;
+        });
+        for (Buffer buffer : full) {
+            try {
+                flush(buffer.items);
+            } catch (RuntimeException e) {
+                restore(bufferKey, buffer);
+                throw e;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.coalescing.flush-interval:PT1S}")
+    public void flushExpired() {
+        flushDue(System.nanoTime());
+    }
+
+    /**
+     * Отправка буферов, окно которых истекло к моменту now (System.nanoTime)
+     */
+    void flushDue(long now) {
+        long window = properties.getWindow().toNanos();
+        flushWhere(buffer -> now - buffer.startedAt >= window);
+    }
+
+    /**
+     * Остановка: слушатели Kafka к этому моменту остановлены, новых уведомлений не будет
+     */
+    @PreDestroy
+    public void flushAll() {
+        int pending = buffered.get();
+        flushWhere(buffer -> true);
+        if (pending > 0) {
+            log.info("При остановке отправлены накопленные уведомления: {}", pending);
+        }
+    }
+
+    private void flushWhere(Predicate<Buffer> due) {
+        for (BufferKey key : buffers.keySet()) {
+            List<Buffer> taken = new ArrayList<>(1);
+            buffers.computeIfPresent(key, (k, buffer) -> {
+                if (due.test(buffer)) {
+                    taken.add(buffer);
+                    return null;
+                }
+                return buffer;
+            });
+            for (Buffer buffer : taken) {
+                try {
+                    flush(buffer.items);
+                } catch (RuntimeException e) {
+                    log.error("Уведомления пользователя {} не отправлены и не переданы на повтор, буфер сохранён: {}",
+                            key.userId(), e.getMessage());
+                    restore(key, buffer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Возврат буфера, который не удалось ни отправить, ни передать на повтор. Время начала
+     * сохраняется, поэтому буфер уходит при следующем сборе; добавленное за это время
+     * остаётся в нём же
+     */
+    private void restore(BufferKey key, Buffer failed) {
+        buffered.addAndGet(failed.items.size());
+        buffers.merge(key, failed, (current, restored) -> {
+            restored.items.addAll(current.items);
+            return restored;
+        });
+    }
+
+    /**
+     * @throws IllegalStateException если отправка не удалась и уведомления не переданы на повтор
+     */
+    private void flush(List<Entry> entries) {
+        buffered.addAndGet(-entries.size());
+        List<NotificationDto> items = entries.stream().map(Entry::notification).toList();
+        // Одиночное уведомление проверяется на повтор при отправке, id дайджеста новый — проверяются его части
+        List<NotificationDto> fresh = items.size() == 1 ? items : withoutDuplicates(items);
+        if (fresh.size() == 1) {
+            deliver(fresh.get(0), 1);
+        } else if (!fresh.isEmpty() && deliver(digest(fresh), fresh.size())) {
+            fresh.forEach(item -> deduplicator.markProcessed(item.getId()));
+        }
+        entries.forEach(entry -> entry.done().run());
+    }
+
+    private List<NotificationDto> withoutDuplicates(List<NotificationDto> items) {
+        Set<String> ids = new HashSet<>();
+        List<NotificationDto> fresh = new ArrayList<>(items.size());
+        for (NotificationDto item : items) {
+            if (item.getId() != null && !ids.add(item.getId())) {
+                deduplicator.countDuplicate(item.getId());
+            } else if (!deduplicator.isDuplicate(item.getId())) {
+                fresh.add(item);
+            }
+        }
+        return fresh;
+    }
+
+    private boolean deliver(NotificationDto notification, int merged) {
+        sent.increment();
+        flushSize.record(merged);
+        try {
+            notificationService.processNotification(notification);
+            return true;
+        } catch (Exception e) {
+            log.warn("Ошибка обработки уведомления {}, передаётся на повтор: {}", notification.getId(), e.getMessage());
+            retryService.onFailure(notification, e);
+            return false;
+        }
+    }
+
+    private NotificationDto digest(List<NotificationDto> items) {
+        NotificationDto first = items.get(0);
+        StringBuilder message = new StringBuilder();
+        int lines = Math.min(items.size(), properties.getMaxDigestLines());
+        for (int i = 0; i < lines; i++) {
+            NotificationDto item = items.get(i);
+            message.append("- ").append(item.getMessage() != null ? item.getMessage() : item.getTitle()).append('\n');
+        }
+        if (items.size() > lines) {
+            message.append("... и ещё ").append(items.size() - lines);
+        }
+
+        return NotificationDto.builder()
+                .id(UUID.randomUUID().toString())
+                .userId(first.getUserId())
+                .type(DIGEST_TYPE)
+                .title("Обновления по задачам: " + items.size())
+                .message(message.toString().stripTrailing())
+                .channel(first.getChannel())
+                .createdAt(items.get(items.size() - 1).getCreatedAt())
+                .build();
+    }
+
+    private double mergeRatio() {
+        double messages = sent.count();
+        return messages == 0 ? 0 : received.count() / messages;
+    }
+
+    private record BufferKey(Long userId, String channel) {
+    }
+
+    private record Entry(NotificationDto notification, Runnable done) {
+    }
+
+    private static final class Buffer {
+
+        private final long startedAt;
+        private final List<Entry> items = new ArrayList<>();
+
+        private Buffer(long startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+}
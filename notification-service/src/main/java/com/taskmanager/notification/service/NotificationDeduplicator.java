@@ -0,0 +1,146 @@
+package com.taskmanager.notification.service;
+
+import com.taskmanager.notification.config.DeduplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Отсев уведомлений, уже отправленных ранее: повторы приходят при перебалансировке потребителей
+ * и повторных отправках продюсера. Id отправленного уведомления запоминается после успешной
+ * доставки, поэтому неудачное уведомление из топика повтора не отсеивается.
+ * <p>
+ * Недавние id хранятся точно (LRU), более старые — в фильтре Блума со скользящим окном:
+ * память постоянна при любом потоке id, а новое уведомление ошибочно отсеивается с вероятностью
+ * не больше falsePositiveRate. С notification.dedup.redis.enabled решение принимает общий для
+ * реплик Redis, фильтр используется, только пока Redis недоступен.
+ */
+@Slf4j
+@Component
+public class NotificationDeduplicator {
+
+    private final DeduplicationProperties properties;
+    private final StringRedisTemplate redisTemplate;
+
+    private final Map<String, Boolean> recent;
+    private final RotatingBloomFilter bloomFilter;
+
+    private final Counter checked;
+    private final Counter duplicates;
+
+    public NotificationDeduplicator(DeduplicationProperties properties,
+                                    ObjectProvider<StringRedisTemplate> redisTemplate,
+                                    MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.redisTemplate = properties.getRedis().isEnabled() ? redisTemplate.getObject() : null;
+
+        int recentIds = properties.getRecentIds();
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > recentIds;
+            }
+        };
+        this.bloomFilter = new RotatingBloomFilter(properties.getWindow().toMillis(), properties.getBuckets(),
+                properties.getExpectedIds(), properties.getFalsePositiveRate());
+        log.info("Фильтр повторов уведомлений: {} КБ на окно {}",
+                bloomFilter.sizeInBytes() / 1024, properties.getWindow());
+
+        this.checked = Counter.builder("notification.dedup.checked")
+                .description("Уведомления, проверенные на повтор")
+                .register(meterRegistry);
+        this.duplicates = Counter.builder("notification.dedup.duplicates")
+                .description("Уведомления, отсеянные как повторы")
+                .register(meterRegistry);
+        Gauge.builder("notification.dedup.drop.ratio", this, NotificationDeduplicator::dropRatio)
+                .description("Доля отсеянных повторов среди проверенных уведомлений")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Уведомление с этим id уже отправлено
+     */
+    public boolean isDuplicate(String id) {
+        return isDuplicate(id, System.currentTimeMillis());
+    }
+
+    /**
+     * Запоминание id успешно отправленного уведомления
+     */
+    public void markProcessed(String id) {
+        markProcessed(id, System.currentTimeMillis());
+    }
+
+    /**
+     * Учёт повтора, найденного вызывающей стороной (например, внутри одного буфера дайджеста)
+     */
+    void countDuplicate(String id) {
+        checked.increment();
+        duplicates.increment();
+        log.debug("Уведомление {} получено повторно, повтор отброшен", id);
+    }
+
+    boolean isDuplicate(String id, long now) {
+        if (!properties.isEnabled() || id == null) {
+            return false;
+        }
+        checked.increment();
+        boolean duplicate = seen(id, now);
+        if (duplicate) {
+            duplicates.increment();
+            log.debug("Уведомление {} уже отправлено, повтор отброшен", id);
+        }
+        return duplicate;
+    }
+
+    void markProcessed(String id, long now) {
+        if (!properties.isEnabled() || id == null) {
+            return;
+        }
+        synchronized (this) {
+            recent.put(id, Boolean.TRUE);
+            bloomFilter.put(id, now);
+        }
+        if (redisTemplate != null) {
+            try {
+                redisTemplate.opsForValue().set(key(id), "1", properties.getWindow());
+            } catch (RuntimeException e) {
+                log.warn("Не удалось записать id уведомления {} в Redis: {}", id, e.getMessage());
+            }
+        }
+    }
+
+    private boolean seen(String id, long now) {
+        synchronized (this) {
+            if (recent.containsKey(id)) {
+                return true;
+            }
+        }
+        if (redisTemplate != null) {
+            try {
+                return Boolean.TRUE.equals(redisTemplate.hasKey(key(id)));
+            } catch (RuntimeException e) {
+                log.warn("Redis недоступен, повтор уведомления {} проверяется локально: {}", id, e.getMessage());
+            }
+        }
+        synchronized (this) {
+            return bloomFilter.mightContain(id, now);
+        }
+    }
+
+    private String key(String id) {
+        return properties.getRedis().getKeyPrefix() + id;
+    }
+
+    private double dropRatio() {
+        double total = checked.count();
+        return total == 0 ? 0 : duplicates.count() / total;
+    }
+}
@@ -0,0 +1,126 @@
+package com.taskmanager.notification.service;
+
+import com.taskmanager.common.dto.NotificationDto;
+import com.taskmanager.notification.config.ConsumerProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Параллельная обработка пачки уведомлений. Пачка делится по получателю между однопоточными
+ * обработчиками: уведомления одного пользователя обрабатываются по порядку, разные пользователи —
+ * параллельно. Обработчики общие для всех потребителей, поэтому порядок по пользователю
+ * сохраняется и между партициями. Метод возвращается после обработки всей пачки. Если уведомление
+ * не удалось ни отправить, ни передать на повтор, обработчик прекращает свою часть пачки,
+ * а ошибка пробрасывается слушателю: пачка не подтверждается и будет прочитана снова.
+ * Записи регистрируются в NotificationOffsetTracker до обработки и отмечаются, когда их уведомление
+ * покидает буфер объединения.
+ */
+@Slf4j
+@Component
+public class NotificationDispatcher {
+
+    private final NotificationCoalescer notificationCoalescer;
+    private final NotificationOffsetTracker offsetTracker;
+    private final ExecutorService[] workers;
+
+    private final DistributionSummary batchSize;
+    private final Timer batchDuration;
+
+    public NotificationDispatcher(NotificationCoalescer notificationCoalescer,
+                                  NotificationOffsetTracker offsetTracker,
+                                  ConsumerProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.notificationCoalescer = notificationCoalescer;
+        this.offsetTracker = offsetTracker;
+        this.workers = new ExecutorService[properties.getWorkers()];
+        AtomicInteger threads = new AtomicInteger();
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = Executors.newSingleThreadExecutor(
+                    runnable -> new Thread(runnable, "notification-worker-" + threads.incrementAndGet()));
+        }
+
+        this.batchSize = DistributionSummary.builder("notification.consumer.batch.size")
+                .description("Число уведомлений в пачке из Kafka")
+                .register(meterRegistry);
+        this.batchDuration = Timer.builder("notification.consumer.batch.duration")
+                .description("Длительность обработки пачки уведомлений")
+                .register(meterRegistry);
+    }
+
+    public void dispatch(List<ConsumerRecord<String, NotificationDto>> records) {
+        batchSize.record(records.size());
+        batchDuration.record(() -> {
+            List<List<ConsumerRecord<String, NotificationDto>>> stripes = new ArrayList<>(workers.length);
+            for (int i = 0; i < workers.length; i++) {
+                stripes.add(new ArrayList<>());
+            }
+            for (ConsumerRecord<String, NotificationDto> record : records) {
+                offsetTracker.register(partition(record), record.offset());
+                if (record.value() == null) {
+                    log.warn("Пропущена пустая запись {} в {}", record.offset(), partition(record));
+                    offsetTracker.complete(partition(record), record.offset());
+                } else {
+                    stripes.get(stripe(record.value())).add(record);
+                }
+            }
+
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < workers.length; i++) {
+                List<ConsumerRecord<String, NotificationDto>> stripe = stripes.get(i);
+                if (!stripe.isEmpty()) {
+                    futures.add(CompletableFuture.runAsync(() -> stripe.forEach(this::process), workers[i]));
+                }
+            }
+            try {
+                CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+            } catch (CompletionException e) {
+                log.error("Пачка уведомлений обработана не полностью: {}", e.getCause().getMessage());
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        });
+    }
+
+    private void process(ConsumerRecord<String, NotificationDto> record) {
+        TopicPartition partition = partition(record);
+        notificationCoalescer.submit(record.value(), () -> offsetTracker.complete(partition, record.offset()));
+    }
+
+    private static TopicPartition partition(ConsumerRecord<?, ?> record) {
+        return new TopicPartition(record.topic(), record.partition());
+    }
+
+    private int stripe(NotificationDto notification) {
+        Long userId = notification.getUserId();
+        return userId == null ? 0 : Math.floorMod(userId.hashCode(), workers.length);
+    }
+
+    /**
+     * Остановка после слушателей Kafka: начатые пачки дорабатываются
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (ExecutorService worker : workers) {
+            worker.shutdown();
+        }
+        for (ExecutorService worker : workers) {
+            if (!worker.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Обработчик уведомлений не завершился за отведённое время");
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.taskmanager.notification.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Смещения основного топика, которые можно фиксировать. Запись считается обработанной, когда её уведомление
+ * отправлено (одно или в дайджесте), передано на повтор или отброшено как повтор; до этого оно может лежать
+ * в буфере объединения. Для партиции фиксируется смещение самой старой необработанной записи, а если таких
+ * нет — следующее за последней полученной. Записи регистрируются и смещения читаются в потоке потребителя
+ * партиции, обработка отмечается из потоков обработчиков и сбора буферов.
+ */
+@Component
+public class NotificationOffsetTracker {
+
+    private final Map<TopicPartition, PartitionState> partitions = new ConcurrentHashMap<>();
+
+    public NotificationOffsetTracker(MeterRegistry meterRegistry) {
+        Gauge.builder("notification.consumer.uncommitted", this, NotificationOffsetTracker::pending)
+                .description("Полученные записи основного топика, уведомления которых ещё не отправлены")
+                .register(meterRegistry);
+    }
+
+    public void register(TopicPartition partition, long offset) {
+        PartitionState state = partitions.computeIfAbsent(partition, p -> new PartitionState());
+        state.pending.add(offset);
+        state.next = Math.max(state.next, offset + 1);
+    }
+
+    public void complete(TopicPartition partition, long offset) {
+        PartitionState state = partitions.get(partition);
+        if (state != null) {
+            state.pending.remove(offset);
+        }
+    }
+
+    /**
+     * Смещения назначенных партиций, продвинувшиеся после последней фиксации
+     */
+    public Map<TopicPartition, OffsetAndMetadata> committable(Collection<TopicPartition> assigned) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        for (TopicPartition partition : assigned) {
+            PartitionState state = partitions.get(partition);
+            if (state == null) {
+                continue;
+            }
+            long offset = state.next;
+            Long oldest = state.pending.ceiling(Long.MIN_VALUE);
+            if (oldest != null) {
+                offset = Math.min(offset, oldest);
+            }
+            if (offset > state.committed) {
+                offsets.put(partition, new OffsetAndMetadata(offset));
+            }
+        }
+        return offsets;
+    }
+
+    public void committed(Map<TopicPartition, OffsetAndMetadata> offsets) {
+        offsets.forEach((partition, offset) -> {
+            PartitionState state = partitions.get(partition);
+            if (state != null) {
+                state.committed = Math.max(state.committed, offset.offset());
+            }
+        });
+    }
+
+    /**
+     * Сброс при переназначении партиций: новый владелец читает их с зафиксированного смещения. Уведомления,
+     * ещё лежащие в буфере, всё равно отправляются; повтор у нового владельца отсеивает общий список
+     * отправленных (notification.dedup.redis)
+     */
+    public void reset(Collection<TopicPartition> partitions) {
+        partitions.forEach(this.partitions::remove);
+    }
+
+    int pending() {
+        return partitions.values().stream().mapToInt(state -> state.pending.size()).sum();
+    }
+
+    private static final class PartitionState {
+
+        private final NavigableSet<Long> pending = new ConcurrentSkipListSet<>();
+        private volatile long next = -1;
+        private long committed = -1;
+    }
+}
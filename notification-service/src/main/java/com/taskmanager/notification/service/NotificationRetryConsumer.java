@@ -0,0 +1,99 @@
+package com.taskmanager.notification.service;
+
+import com.taskmanager.common.dto.NotificationDto;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Потребители топиков повтора, по контейнеру на уровень. Запись читается не раньше, чем истечёт
+ * задержка уровня от момента записи в топик; до этого потребитель уровня приостанавливается
+ * через nack, поток не блокируется. Если уведомление не доставлено и не записано на следующий
+ * уровень, запись не подтверждается и читается снова после паузы. Число уровней задаётся настройками, поэтому контейнеры
+ * создаются программно, а не через @KafkaListener.
+ */
+@Slf4j
+@Component
+public class NotificationRetryConsumer implements SmartLifecycle {
+
+    static final String GROUP_ID = "notification-service-retry";
+
+    /**
+     * Наибольшая пауза потребителя за раз: длинные задержки выдерживаются несколькими паузами
+     */
+    static final Duration MAX_PAUSE = Duration.ofSeconds(30);
+
+    private final NotificationRetryService retryService;
+    private final List<ConcurrentMessageListenerContainer<Object, Object>> containers = new ArrayList<>();
+
+    public NotificationRetryConsumer(NotificationRetryService retryService,
+                                     @Qualifier("retryListenerContainerFactory")
+                                     ConcurrentKafkaListenerContainerFactory<Object, Object> containerFactory) {
+        this.retryService = retryService;
+        for (int tier = 0; tier < retryService.tiers(); tier++) {
+            int current = tier;
+            ConcurrentMessageListenerContainer<Object, Object> container =
+                    containerFactory.createContainer(retryService.retryTopic(tier));
+            container.getContainerProperties().setGroupId(GROUP_ID);
+            container.getContainerProperties().setMessageListener(
+                    (AcknowledgingMessageListener<Object, Object>) (record, ack) -> onMessage(record, ack, current));
+            container.setBeanName("notification-retry-" + tier);
+            container.setConcurrency(1);
+            containers.add(container);
+        }
+    }
+
+    void onMessage(ConsumerRecord<Object, Object> record, Acknowledgment ack, int tier) {
+        long wait = record.timestamp() + retryService.delay(tier).toMillis() - System.currentTimeMillis();
+        if (wait > 0) {
+            ack.nack(Duration.ofMillis(Math.min(wait, MAX_PAUSE.toMillis())));
+            return;
+        }
+        if (record.value() instanceof NotificationDto notification) {
+            try {
+                retryService.retry(notification, tier);
+            } catch (Exception e) {
+                log.error("Уведомление {} оставлено на уровне {}: {}", notification.getId(), tier, e.getMessage());
+                ack.nack(retryService.failurePause());
+                return;
+            }
+        } else {
+            log.warn("Пропущена запись {} в топике повтора: неизвестный тип {}", record.offset(), record.value());
+        }
+        ack.acknowledge();
+    }
+
+    @Override
+    public void start() {
+        containers.forEach(ConcurrentMessageListenerContainer::start);
+    }
+
+    @Override
+    public void stop() {
+        containers.forEach(ConcurrentMessageListenerContainer::stop);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return containers.stream().anyMatch(ConcurrentMessageListenerContainer::isRunning);
+    }
+
+    /**
+     * Тот же этап, что у контейнеров @KafkaListener: запуск и остановка вместе с основным слушателем
+     */
+    @Override
+    public int getPhase() {
+        return AbstractMessageListenerContainer.DEFAULT_PHASE;
+    }
+}
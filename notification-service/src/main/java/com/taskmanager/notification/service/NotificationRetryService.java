@@ -0,0 +1,230 @@
+package com.taskmanager.notification.service;
+
+import com.taskmanager.common.dto.NotificationDto;
+import com.taskmanager.common.exception.BusinessException;
+import com.taskmanager.notification.config.RetryProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Повторная доставка уведомлений без блокировки основного топика. Неудачное уведомление сразу
+ * записывается в топик первого уровня повтора и читается оттуда после задержки уровня; неудача
+ * на уровне переводит его на следующий, после последнего — в DLT. Сообщения DLT возвращаются
+ * в основной топик запросом администратора.
+ */
+@Slf4j
+@Service
+public class NotificationRetryService {
+
+    static final String REPLAY_GROUP = "notification-service-dlt-replay";
+
+    private static final Duration REPLAY_POLL_TIMEOUT = Duration.ofSeconds(1);
+
+    private final NotificationService notificationService;
+    private final KafkaTemplate<Object, Object> kafkaTemplate;
+    private final ConsumerFactory<Object, Object> consumerFactory;
+    private final RetryProperties properties;
+    private final String mainTopic;
+
+    private final List<Counter> scheduled = new ArrayList<>();
+    private final List<Counter> recovered = new ArrayList<>();
+    private final Counter deadLettered;
+    private final Counter replayed;
+
+    public NotificationRetryService(NotificationService notificationService,
+                                    KafkaTemplate<Object, Object> kafkaTemplate,
+                                    ConsumerFactory<Object, Object> consumerFactory,
+                                    RetryProperties properties,
+                                    @Value("${kafka.topics.notification-events}") String mainTopic,
+                                    MeterRegistry meterRegistry) {
+        this.notificationService = notificationService;
+        this.kafkaTemplate = kafkaTemplate;
+        this.consumerFactory = consumerFactory;
+        this.properties = properties;
+        this.mainTopic = mainTopic;
+
+        for (int tier = 0; tier < tiers(); tier++) {
+            String tag = "retry-" + tier;
+            scheduled.add(Counter.builder("notification.retry.scheduled")
+                    .description("Уведомления, отправленные на уровень повтора")
+                    .tag("tier", tag)
+                    .register(meterRegistry));
+            recovered.add(Counter.builder("notification.retry.recovered")
+                    .description("Уведомления, доставленные с уровня повтора")
+                    .tag("tier", tag)
+                    .register(meterRegistry));
+        }
+        this.deadLettered = Counter.builder("notification.retry.scheduled")
+                .description("Уведомления, отправленные на уровень повтора")
+                .tag("tier", "dlt")
+                .register(meterRegistry);
+        this.replayed = Counter.builder("notification.retry.replayed")
+                .description("Сообщения DLT, возвращённые в основной топик")
+                .register(meterRegistry);
+    }
+
+    public int tiers() {
+        return properties.getDelays().size();
+    }
+
+    public String mainTopic() {
+        return mainTopic;
+    }
+
+    public String retryTopic(int tier) {
+        return mainTopic + "-retry-" + tier;
+    }
+
+    public String deadLetterTopic() {
+        return mainTopic + "-dlt";
+    }
+
+    public List<String> retryTopics() {
+        return IntStream.range(0, tiers()).mapToObj(this::retryTopic).toList();
+    }
+
+    public Duration delay(int tier) {
+        return properties.getDelays().get(tier);
+    }
+
+    /**
+     * Пауза перед повторным чтением записи, которую не удалось передать дальше
+     */
+    public Duration failurePause() {
+        return properties.getFailurePause();
+    }
+
+    /**
+     * Неудача в основном потоке: уведомление уходит на первый уровень повтора
+     *
+     * @throws IllegalStateException если запись в топик повтора не удалась — уведомление
+     *                               не передано дальше, и его запись нельзя подтверждать
+     */
+    public void onFailure(NotificationDto notification, Exception error) {
+        forward(notification, 0, error);
+    }
+
+    /**
+     * Доставка с уровня tier; при неудаче — следующий уровень или DLT
+     *
+     * @throws IllegalStateException если доставка не удалась и запись на следующий уровень тоже
+     */
+    public void retry(NotificationDto notification, int tier) {
+        try {
+            notificationService.processNotification(notification);
+            recovered.get(tier).increment();
+        } catch (Exception e) {
+            log.warn("Повтор уведомления {} на уровне {} не удался: {}", notification.getId(), tier, e.getMessage());
+            forward(notification, tier + 1, e);
+        }
+    }
+
+    /**
+     * Возврат до limit сообщений DLT в основной топик. Смещения фиксируются после подтверждения
+     * записи, поэтому сбой посередине приводит к повторной отправке, а не к потере
+     */
+    public synchronized int replayDeadLetters(int limit) {
+        if (limit < 1) {
+            throw new BusinessException("Число сообщений для повторной отправки должно быть положительным");
+        }
+        int max = Math.min(limit, properties.getMaxReplay());
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(Math.min(max, 500)));
+        overrides.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+
+        int total = 0;
+        try (Consumer<Object, Object> consumer = consumerFactory.createConsumer(REPLAY_GROUP, null, null, overrides)) {
+            consumer.assign(consumer.partitionsFor(deadLetterTopic()).stream()
+                    .map(partition -> new TopicPartition(partition.topic(), partition.partition()))
+                    .toList());
+            while (total < max) {
+                List<ConsumerRecord<Object, Object>> records = new ArrayList<>();
+                consumer.poll(REPLAY_POLL_TIMEOUT).forEach(records::add);
+                if (records.isEmpty()) {
+                    break;
+                }
+                if (records.size() > max - total) {
+                    records = records.subList(0, max - total);
+                }
+
+                List<CompletableFuture<?>> sends = new ArrayList<>(records.size());
+                Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+                for (ConsumerRecord<Object, Object> record : records) {
+                    sends.add(kafkaTemplate.send(mainTopic, record.key(), record.value()));
+                    offsets.put(new TopicPartition(record.topic(), record.partition()),
+                            new OffsetAndMetadata(record.offset() + 1));
+                }
+                kafkaTemplate.flush();
+                CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                        .get(properties.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+                consumer.commitSync(offsets);
+                total += records.size();
+                // Остаток пачки сверх предела не подтверждён и будет прочитан следующим запросом
+                if (total >= max) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Повторная отправка DLT прервана", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Ошибка повторной отправки DLT: " + e.getMessage(), e);
+        }
+        replayed.increment(total);
+        log.info("Из DLT в {} возвращено сообщений: {}", mainTopic, total);
+        return total;
+    }
+
+    private void forward(NotificationDto notification, int tier, Exception error) {
+        boolean dead = tier >= tiers();
+        String topic = dead ? deadLetterTopic() : retryTopic(tier);
+        ProducerRecord<Object, Object> record = new ProducerRecord<>(topic, keyOf(notification), notification);
+        record.headers().add(KafkaHeaders.DLT_EXCEPTION_FQCN,
+                error.getClass().getName().getBytes(StandardCharsets.UTF_8));
+        if (error.getMessage() != null) {
+            record.headers().add(KafkaHeaders.DLT_EXCEPTION_MESSAGE, error.getMessage().getBytes(StandardCharsets.UTF_8));
+        }
+        try {
+            kafkaTemplate.send(record).get(properties.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Запись уведомления " + notification.getId() + " в " + topic + " прервана", e);
+        } catch (Exception e) {
+            throw new IllegalStateException(
+                    "Запись уведомления " + notification.getId() + " в " + topic + " не удалась: " + e.getMessage(), e);
+        }
+        if (dead) {
+            deadLettered.increment();
+            log.error("Уведомление {} отправлено в DLT после {} повторов: {}", notification.getId(), tiers(), error.getMessage());
+        } else {
+            scheduled.get(tier).increment();
+        }
+    }
+
+    private static String keyOf(NotificationDto notification) {
+        return notification.getUserId() == null ? null : String.valueOf(notification.getUserId());
+    }
+}
@@ -14,27 +14,26 @@ import org.springframework.stereotype.Service;
 public class NotificationService {
 
     private final EmailService emailService;
+    private final NotificationDeduplicator deduplicator;
 
     /**
-     * Обработка уведомления
+     * Обработка уведомления. Повторно полученное уведомление с тем же id не отправляется;
+     * ошибка отправки пробрасывается, и id не запоминается, чтобы повтор доставил уведомление
      */
     public void processNotification(NotificationDto notification) {
+        if (deduplicator.isDuplicate(notification.getId())) {
+            return;
+        }
         log.info("Обработка уведомления: {} для пользователя {}", 
                 notification.getType(), notification.getUserId());
 
         switch (notification.getChannel()) {
-            case "EMAIL" -> sendEmailNotification(notification);
+            case "EMAIL" -> emailService.sendNotification(notification);
             case "PUSH" -> sendPushNotification(notification);
             case "SMS" -> sendSmsNotification(notification);
             default -> log.warn("Неизвестный канал уведомления: {}", notification.getChannel());
         }
-    }
-
-    private void sendEmailNotification(NotificationDto notification) {
-        log.info("Отправка email уведомления пользователю: {}", notification.getUserId());
-        // В реальном приложении здесь был бы запрос к auth-service для получения email
-        // emailService.sendEmail(userEmail, notification.getTitle(), notification.getMessage());
-        log.info("Email уведомление отправлено (симуляция)");
+        deduplicator.markProcessed(notification.getId());
     }
 
     private void sendPushNotification(NotificationDto notification) {
@@ -0,0 +1,118 @@
+package com.taskmanager.notification.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Фильтр Блума со скользящим окном: окно поделено на корзины, каждая со своим фильтром.
+ * Запись идёт в корзину текущего интервала, проверка — по всем живым корзинам; корзина,
+ * вышедшая из окна, очищается и переиспользуется. Память постоянна и не зависит от потока id.
+ * Не потокобезопасен: синхронизация на вызывающей стороне.
+ */
+class RotatingBloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final long bucketMillis;
+    private final int bitsPerBucket;
+    private final int hashes;
+    private final long[][] bits;
+    private final long[] bucketEpochs;
+
+    /**
+     * @param expectedIds       ожидаемое число id за окно
+     * @param falsePositiveRate доля ложных срабатываний проверки по всем корзинам
+     */
+    RotatingBloomFilter(long windowMillis, int buckets, long expectedIds, double falsePositiveRate) {
+        if (buckets < 2) {
+            throw new IllegalArgumentException("Нужно не меньше двух корзин");
+        }
+        this.bucketMillis = Math.max(1, windowMillis / buckets);
+
+        // Проверка идёт по всем корзинам, поэтому каждой достаётся доля допустимых ложных срабатываний
+        long perBucket = Math.max(1, expectedIds / buckets);
+        double bucketRate = falsePositiveRate / buckets;
+        long optimalBits = (long) Math.ceil(-perBucket * Math.log(bucketRate) / (LN2 * LN2));
+        this.bitsPerBucket = (int) Math.min(Math.max(optimalBits, Long.SIZE), Integer.MAX_VALUE - Long.SIZE);
+        this.hashes = Math.max(1, (int) Math.round((double) bitsPerBucket / perBucket * LN2));
+
+        this.bits = new long[buckets][(bitsPerBucket + Long.SIZE - 1) / Long.SIZE];
+        this.bucketEpochs = new long[buckets];
+        Arrays.fill(bucketEpochs, Long.MIN_VALUE);
+    }
+
+    boolean mightContain(String id, long now) {
+        long epoch = now / bucketMillis;
+        long h1 = hash(id);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int b = 0; b < bits.length; b++) {
+            if (isLive(b, epoch) && contains(bits[b], h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void put(String id, long now) {
+        long epoch = now / bucketMillis;
+        int bucket = (int) Math.floorMod(epoch, (long) bits.length);
+        if (bucketEpochs[bucket] != epoch) {
+            Arrays.fill(bits[bucket], 0L);
+            bucketEpochs[bucket] = epoch;
+        }
+        long h1 = hash(id);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        long[] target = bits[bucket];
+        for (int i = 0; i < hashes; i++) {
+            int index = index(h1, h2, i);
+            target[index >>> 6] |= 1L << index;
+        }
+    }
+
+    long sizeInBytes() {
+        return (long) bits.length * bits[0].length * Long.BYTES;
+    }
+
+    private boolean isLive(int bucket, long epoch) {
+        long age = epoch - bucketEpochs[bucket];
+        return bucketEpochs[bucket] != Long.MIN_VALUE && age >= 0 && age < bits.length;
+    }
+
+    private boolean contains(long[] bucketBits, long h1, long h2) {
+        for (int i = 0; i < hashes; i++) {
+            int index = index(h1, h2, i);
+            if ((bucketBits[index >>> 6] & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Двойное хеширование: k индексов из двух 64-битных хешей
+     */
+    private int index(long h1, long h2, int i) {
+        return (int) Long.remainderUnsigned(h1 + i * h2, bitsPerBucket);
+    }
+
+    /**
+     * FNV-1a по байтам UTF-8 с финальным перемешиванием MurmurHash3
+     */
+    private static long hash(String id) {
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : id.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB93FE1A85EC3L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
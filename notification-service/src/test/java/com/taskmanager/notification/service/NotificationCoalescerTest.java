@@ -0,0 +1,243 @@
+package com.taskmanager.notification.service;
+
+import com.taskmanager.common.dto.NotificationDto;
+import com.taskmanager.notification.config.CoalescingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit тесты для NotificationCoalescer
+ */
+class NotificationCoalescerTest {
+
+    private final NotificationService notificationService = mock(NotificationService.class);
+    private final NotificationRetryService retryService = mock(NotificationRetryService.class);
+    private final NotificationDeduplicator deduplicator = mock(NotificationDeduplicator.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CoalescingProperties properties;
+    private NotificationCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CoalescingProperties();
+        properties.setWindow(Duration.ofSeconds(30));
+        properties.setMaxPerUser(100);
+        properties.setMaxDigestLines(3);
+        coalescer = new NotificationCoalescer(notificationService, retryService, deduplicator, properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Всплеск уведомлений пользователя уходит одним дайджестом после окна")
+    void burst_MergedIntoDigest() {
+        for (int i = 0; i < 30; i++) {
+            submit(notification(5L, "EMAIL", "Изменение " + i));
+        }
+        submit(notification(6L, "EMAIL", "Другой пользователь"));
+
+        coalescer.flushDue(System.nanoTime());
+        verifyNoInteractions(notificationService);
+
+        coalescer.flushDue(System.nanoTime() + properties.getWindow().toNanos());
+
+        ArgumentCaptor<NotificationDto> sent = ArgumentCaptor.forClass(NotificationDto.class);
+        verify(notificationService, times(2)).processNotification(sent.capture());
+        NotificationDto digest = sent.getAllValues().stream().filter(n -> n.getUserId() == 5L).findFirst().orElseThrow();
+        assertThat(digest.getType()).isEqualTo(NotificationCoalescer.DIGEST_TYPE);
+        assertThat(digest.getChannel()).isEqualTo("EMAIL");
+        assertThat(digest.getTitle()).endsWith("30");
+        assertThat(digest.getMessage().lines()).containsExactly(
+                "- Изменение 0", "- Изменение 1", "- Изменение 2", "... и ещё 27");
+        assertThat(sent.getAllValues()).filteredOn(n -> n.getUserId() == 6L)
+                .extracting(NotificationDto::getMessage).containsExactly("Другой пользователь");
+        assertThat(meterRegistry.get("notification.coalescing.merge.ratio").gauge().value()).isEqualTo(15.5);
+        assertThat(meterRegistry.get("notification.coalescing.buffered").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Буфер, набравший предел, отправляется до конца окна")
+    void fullBuffer_FlushedImmediately() {
+        properties.setMaxPerUser(3);
+
+        for (int i = 0; i < 7; i++) {
+            submit(notification(5L, "EMAIL", "Изменение " + i));
+        }
+
+        verify(notificationService, times(2)).processNotification(
+                argThat(n -> n.getType().equals(NotificationCoalescer.DIGEST_TYPE)));
+        assertThat(meterRegistry.get("notification.coalescing.buffered").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Сверх общего предела буферов уведомления отправляются сразу")
+    void maxBuffered_Bypassed() {
+        properties.setMaxBuffered(2);
+
+        submit(notification(1L, "EMAIL", "Первое"));
+        submit(notification(2L, "EMAIL", "Второе"));
+        submit(notification(3L, "EMAIL", "Третье"));
+
+        verify(notificationService).processNotification(argThat(n -> n.getMessage().equals("Третье")));
+        verifyNoMoreInteractions(notificationService);
+    }
+
+    @Test
+    @DisplayName("При остановке накопленное отправляется, одиночное уведомление - без изменений")
+    void shutdown_FlushesEverything() {
+        NotificationDto single = notification(1L, "PUSH", "Одно");
+        submit(single);
+        submit(notification(2L, "EMAIL", "Раз"));
+        submit(notification(2L, "EMAIL", "Два"));
+        submit(notification(2L, "PUSH", "Другой канал"));
+
+        coalescer.flushAll();
+
+        verify(notificationService).processNotification(single);
+        verify(notificationService, times(3)).processNotification(any());
+        assertThat(meterRegistry.get("notification.coalescing.buffered").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Неудачная отправка передаётся на повтор, остальные уведомления не задерживаются")
+    void deliveryFailure_HandedToRetry() {
+        properties.setEnabled(false);
+        NotificationDto failing = notification(1L, "EMAIL", "Сбой");
+        RuntimeException error = new RuntimeException("SMTP недоступен");
+        doThrow(error).when(notificationService).processNotification(failing);
+
+        submit(failing);
+        submit(notification(2L, "EMAIL", "Успех"));
+
+        verify(retryService).onFailure(failing, error);
+        verify(notificationService, times(2)).processNotification(any());
+        verifyNoMoreInteractions(retryService);
+    }
+
+    @Test
+    @DisplayName("Если и запись на повтор не удалась, ошибка доходит до слушателя")
+    void retryFailure_Propagated() {
+        properties.setEnabled(false);
+        NotificationDto failing = notification(1L, "EMAIL", "Сбой");
+        doThrow(new RuntimeException("SMTP недоступен")).when(notificationService).processNotification(failing);
+        doThrow(new IllegalStateException("Kafka недоступна")).when(retryService).onFailure(eq(failing), any());
+
+        assertThatThrownBy(() -> submit(failing)).hasMessage("Kafka недоступна");
+    }
+
+    @Test
+    @DisplayName("Заполненный буфер, не переданный на повтор, сохраняется и ошибка пробрасывается")
+    void fullBufferRetryFailure_BufferKept() {
+        properties.setMaxPerUser(2);
+        doThrow(new RuntimeException("SMTP недоступен")).doNothing().when(notificationService).processNotification(any());
+        doThrow(new IllegalStateException("Kafka недоступна")).when(retryService).onFailure(any(), any());
+
+        submit(notification(5L, "EMAIL", "Раз"));
+        assertThatThrownBy(() -> submit(notification(5L, "EMAIL", "Два")))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(meterRegistry.get("notification.coalescing.buffered").gauge().value()).isEqualTo(2);
+
+        coalescer.flushAll();
+
+        ArgumentCaptor<NotificationDto> sent = ArgumentCaptor.forClass(NotificationDto.class);
+        verify(notificationService, times(2)).processNotification(sent.capture());
+        assertThat(sent.getValue().getMessage().lines()).containsExactly("- Раз", "- Два");
+        assertThat(meterRegistry.get("notification.coalescing.buffered").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Буфер, не отправленный по таймеру и не переданный на повтор, уходит при следующем сборе")
+    void expiredBufferRetryFailure_FlushedNextTime() {
+        doThrow(new RuntimeException("SMTP недоступен")).doNothing().when(notificationService).processNotification(any());
+        doThrow(new IllegalStateException("Kafka недоступна")).when(retryService).onFailure(any(), any());
+        submit(notification(5L, "EMAIL", "Раз"));
+        submit(notification(5L, "EMAIL", "Два"));
+        long expired = System.nanoTime() + properties.getWindow().toNanos();
+
+        coalescer.flushDue(expired);
+        submit(notification(5L, "EMAIL", "Три"));
+        coalescer.flushDue(expired);
+
+        ArgumentCaptor<NotificationDto> sent = ArgumentCaptor.forClass(NotificationDto.class);
+        verify(notificationService, times(2)).processNotification(sent.capture());
+        assertThat(sent.getValue().getMessage().lines()).containsExactly("- Раз", "- Два", "- Три");
+        assertThat(meterRegistry.get("notification.coalescing.buffered").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Обработка уведомления отмечается только после отправки его буфера")
+    void done_AfterFlush() {
+        List<String> done = new ArrayList<>();
+        coalescer.submit(notification(5L, "EMAIL", "Раз"), () -> done.add("Раз"));
+        coalescer.submit(notification(5L, "EMAIL", "Два"), () -> done.add("Два"));
+        assertThat(done).isEmpty();
+
+        coalescer.flushAll();
+
+        assertThat(done).containsExactly("Раз", "Два");
+    }
+
+    @Test
+    @DisplayName("Буфер, не переданный на повтор, обработанным не отмечается")
+    void done_NotCalledWhenRetryFails() {
+        List<String> done = new ArrayList<>();
+        doThrow(new RuntimeException("SMTP недоступен")).when(notificationService).processNotification(any());
+        doThrow(new IllegalStateException("Kafka недоступна")).when(retryService).onFailure(any(), any());
+        coalescer.submit(notification(5L, "EMAIL", "Раз"), () -> done.add("Раз"));
+
+        coalescer.flushAll();
+
+        assertThat(done).isEmpty();
+        assertThat(meterRegistry.get("notification.coalescing.buffered").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Повторы внутри буфера и уже отправленные уведомления в дайджест не попадают")
+    void digest_SkipsDuplicates() {
+        NotificationDto first = notification(5L, "EMAIL", "Первое");
+        NotificationDto delivered = notification(5L, "EMAIL", "Уже отправлено");
+        when(deduplicator.isDuplicate(delivered.getId())).thenReturn(true);
+
+        submit(first);
+        submit(first);
+        submit(delivered);
+        submit(notification(5L, "EMAIL", "Второе"));
+        coalescer.flushAll();
+
+        ArgumentCaptor<NotificationDto> sent = ArgumentCaptor.forClass(NotificationDto.class);
+        verify(notificationService).processNotification(sent.capture());
+        assertThat(sent.getValue().getMessage().lines()).containsExactly("- Первое", "- Второе");
+        verify(deduplicator).countDuplicate(first.getId());
+        verify(deduplicator).markProcessed(first.getId());
+        verify(deduplicator).markProcessed("5-Второе");
+        verify(deduplicator, never()).markProcessed(delivered.getId());
+    }
+
+    private void submit(NotificationDto notification) {
+        coalescer.submit(notification, () -> { });
+    }
+
+    private static NotificationDto notification(Long userId, String channel, String message) {
+        return NotificationDto.builder()
+                .id(userId + "-" + message)
+                .userId(userId)
+                .type("TASK_STATUS_CHANGED")
+                .title("Статус задачи изменён")
+                .message(message)
+                .channel(channel)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
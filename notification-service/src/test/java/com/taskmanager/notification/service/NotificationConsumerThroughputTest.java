@@ -0,0 +1,119 @@
+package com.taskmanager.notification.service;
+
+import com.taskmanager.common.dto.NotificationDto;
+import com.taskmanager.common.kafka.CompactSerializer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Пакетное потребление на встроенной Kafka: пользователи обрабатываются параллельно,
+ * уведомления одного пользователя — в порядке отправки. Достигнутая скорость пишется в лог
+ * для сравнения с последовательной обработкой; на время выполнения тест не опирается.
+ */
+@Slf4j
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "kafka.topics.notification-partitions=4",
+        "notification.coalescing.enabled=false"
+})
+@EmbeddedKafka(partitions = 4, topics = "notification-events")
+class NotificationConsumerThroughputTest {
+
+    private static final int USERS = 50;
+    private static final int PER_USER = 20;
+    private static final long HANDLING_MILLIS = 2;
+
+    @MockBean
+    private NotificationService notificationService;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Value("${kafka.topics.notification-events}")
+    private String topic;
+
+    @Test
+    @DisplayName("1000 уведомлений 50 пользователей: параллельно и в порядке по пользователю")
+    void batchConsumption_ParallelAndOrderedPerUser() throws Exception {
+        int total = USERS * PER_USER;
+        CountDownLatch processed = new CountDownLatch(total);
+        Map<Long, List<Integer>> sequences = new ConcurrentHashMap<>();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        AtomicLong started = new AtomicLong();
+
+        // Обработка имитирует обращение к внешнему каналу доставки
+        doAnswer(invocation -> {
+            NotificationDto notification = invocation.getArgument(0);
+            started.compareAndSet(0, System.nanoTime());
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(HANDLING_MILLIS);
+            sequences.computeIfAbsent(notification.getUserId(), id -> new ArrayList<>())
+                    .add(Integer.valueOf(notification.getMessage()));
+            inFlight.decrementAndGet();
+            processed.countDown();
+            return null;
+        }).when(notificationService).processNotification(any());
+
+        Map<String, Object> props = KafkaTestUtils.producerProps(broker);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, CompactSerializer.class);
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(props));
+        for (int seq = 0; seq < PER_USER; seq++) {
+            for (long userId = 1; userId <= USERS; userId++) {
+                template.send(topic, String.valueOf(userId), notification(userId, seq));
+            }
+        }
+        template.flush();
+
+        assertThat(processed.await(60, TimeUnit.SECONDS)).isTrue();
+        // От первого обработанного уведомления: запуск потребителей и назначение партиций не учитываются
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started.get()));
+        log.info("Обработано {} уведомлений за {} мс: {} в секунду, одновременно до {}; последовательно заняло бы не меньше {} мс",
+                total, elapsedMillis, total * 1000 / elapsedMillis, maxInFlight.get(), total * HANDLING_MILLIS);
+
+        assertThat(sequences).hasSize(USERS);
+        sequences.values().forEach(received ->
+                assertThat(received).containsExactlyElementsOf(IntStream.range(0, PER_USER).boxed().toList()));
+        assertThat(maxInFlight.get()).isGreaterThan(1);
+    }
+
+    private static NotificationDto notification(long userId, int seq) {
+        return NotificationDto.builder()
+                .id(userId + "-" + seq)
+                .userId(userId)
+                .type("TASK_STATUS_CHANGED")
+                .title("Статус задачи изменён")
+                .message(String.valueOf(seq))
+                .channel("PUSH")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.taskmanager.notification.service;
+
+import com.taskmanager.notification.config.DeduplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit тесты для NotificationDeduplicator
+ */
+class NotificationDeduplicatorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<StringRedisTemplate> redisProvider = mock(ObjectProvider.class);
+    private DeduplicationProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new DeduplicationProperties();
+        properties.setWindow(Duration.ofMinutes(4));
+        properties.setExpectedIds(10_000);
+        properties.setRecentIds(2);
+        when(redisProvider.getObject()).thenReturn(redisTemplate);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    @DisplayName("Отправленное уведомление отсеивается до конца окна, в том числе после вытеснения из LRU")
+    void processedId_DuplicateWithinWindow() {
+        NotificationDeduplicator deduplicator = new NotificationDeduplicator(properties, redisProvider, meterRegistry);
+
+        assertThat(deduplicator.isDuplicate("n-1", 0)).isFalse();
+        deduplicator.markProcessed("n-1", 0);
+        deduplicator.markProcessed("n-2", 0);
+        deduplicator.markProcessed("n-3", 0);
+
+        assertThat(deduplicator.isDuplicate("n-1", 1_000)).isTrue();
+        assertThat(deduplicator.isDuplicate("n-4", 1_000)).isFalse();
+        assertThat(deduplicator.isDuplicate("n-1", Duration.ofMinutes(5).toMillis())).isFalse();
+        assertThat(meterRegistry.get("notification.dedup.drop.ratio").gauge().value()).isEqualTo(0.25);
+        verifyNoInteractions(redisProvider);
+    }
+
+    @Test
+    @DisplayName("Непомеченное (неудачное) уведомление повтором не считается")
+    void unprocessedId_NotDuplicate() {
+        NotificationDeduplicator deduplicator = new NotificationDeduplicator(properties, redisProvider, meterRegistry);
+
+        assertThat(deduplicator.isDuplicate("n-1", 0)).isFalse();
+        assertThat(deduplicator.isDuplicate("n-1", 0)).isFalse();
+        assertThat(meterRegistry.get("notification.dedup.duplicates").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("С Redis решение общее для реплик; при недоступности Redis используется локальный фильтр")
+    void redis_SharedAndFallback() {
+        properties.getRedis().setEnabled(true);
+        NotificationDeduplicator deduplicator = new NotificationDeduplicator(properties, redisProvider, meterRegistry);
+
+        when(redisTemplate.hasKey("notification-service:dedup:n-other")).thenReturn(true);
+        assertThat(deduplicator.isDuplicate("n-other", 0)).isTrue();
+
+        deduplicator.markProcessed("n-1", 0);
+        verify(valueOperations).set("notification-service:dedup:n-1", "1", Duration.ofMinutes(4));
+
+        deduplicator.markProcessed("n-2", 0);
+        deduplicator.markProcessed("n-3", 0);
+        when(redisTemplate.hasKey(anyString())).thenThrow(new RedisConnectionFailureException("недоступен"));
+        assertThat(deduplicator.isDuplicate("n-1", 0)).isTrue();
+        assertThat(deduplicator.isDuplicate("n-4", 0)).isFalse();
+    }
+}
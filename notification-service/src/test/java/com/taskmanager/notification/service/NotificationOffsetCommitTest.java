@@ -0,0 +1,117 @@
+package com.taskmanager.notification.service;
+
+import com.taskmanager.common.dto.NotificationDto;
+import com.taskmanager.common.kafka.CompactSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Фиксация смещений на встроенной Kafka: пока уведомления лежат в буфере объединения, их записи
+ * не подтверждаются; после отправки буфера смещение фиксируется при простое потребителя
+ */
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "kafka.topics.notification-partitions=1",
+        "notification.coalescing.window=PT1H",
+        "spring.kafka.listener.idle-event-interval=PT0.2S"
+})
+@EmbeddedKafka(partitions = 1)
+class NotificationOffsetCommitTest {
+
+    private static final String GROUP = "notification-service";
+
+    @MockBean
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationCoalescer coalescer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Value("${kafka.topics.notification-events}")
+    private String topic;
+
+    @Test
+    @DisplayName("Записи в буфере объединения не подтверждаются до его отправки")
+    void bufferedRecords_CommittedAfterFlush() throws Exception {
+        Map<String, Object> props = KafkaTestUtils.producerProps(broker);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, CompactSerializer.class);
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(props));
+        for (int i = 0; i < 3; i++) {
+            template.send(topic, "5", notification("n-" + i));
+        }
+        template.flush();
+
+        awaitReceived(3);
+        // Несколько интервалов простоя: фиксировать нечего, всё в буфере
+        Thread.sleep(1_000);
+        verify(notificationService, never()).processNotification(any());
+        assertThat(committedOffset()).isZero();
+        assertThat(meterRegistry.get("notification.consumer.uncommitted").gauge().value()).isEqualTo(3);
+
+        coalescer.flushAll();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (committedOffset() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        assertThat(committedOffset()).isEqualTo(3);
+        assertThat(meterRegistry.get("notification.consumer.uncommitted").gauge().value()).isZero();
+    }
+
+    private void awaitReceived(double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(received()).isEqualTo(expected);
+    }
+
+    private double received() {
+        return meterRegistry.get("notification.coalescing.received").counter().count();
+    }
+
+    private long committedOffset() throws Exception {
+        OffsetAndMetadata committed = KafkaTestUtils.getCurrentOffset(broker.getBrokersAsString(), GROUP, topic, 0);
+        return committed == null ? 0 : committed.offset();
+    }
+
+    private static NotificationDto notification(String id) {
+        return NotificationDto.builder()
+                .id(id)
+                .userId(5L)
+                .type("TASK_STATUS_CHANGED")
+                .title("Статус задачи изменён")
+                .message("Задача " + id)
+                .channel("EMAIL")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
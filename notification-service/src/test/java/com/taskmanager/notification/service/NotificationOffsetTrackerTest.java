@@ -0,0 +1,71 @@
+package com.taskmanager.notification.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit тесты для NotificationOffsetTracker
+ */
+class NotificationOffsetTrackerTest {
+
+    private static final TopicPartition FIRST = new TopicPartition("notification-events", 0);
+    private static final TopicPartition SECOND = new TopicPartition("notification-events", 1);
+
+    private final NotificationOffsetTracker tracker = new NotificationOffsetTracker(new SimpleMeterRegistry());
+
+    @Test
+    @DisplayName("Фиксируется смещение самой старой необработанной записи, после обработки всех — следующее за последней")
+    void committable_StopsAtOldestPending() {
+        for (long offset = 10; offset < 15; offset++) {
+            tracker.register(FIRST, offset);
+        }
+        tracker.complete(FIRST, 10);
+        tracker.complete(FIRST, 12);
+        tracker.complete(FIRST, 13);
+
+        assertThat(tracker.committable(List.of(FIRST))).containsEntry(FIRST, new OffsetAndMetadata(11));
+
+        tracker.complete(FIRST, 11);
+        tracker.complete(FIRST, 14);
+
+        assertThat(tracker.committable(List.of(FIRST))).containsEntry(FIRST, new OffsetAndMetadata(15));
+        assertThat(tracker.pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("Зафиксированное смещение повторно не возвращается, чужие партиции не фиксируются")
+    void committable_OnlyAdvancedAndAssigned() {
+        tracker.register(FIRST, 0);
+        tracker.register(SECOND, 5);
+        tracker.complete(FIRST, 0);
+
+        Map<TopicPartition, OffsetAndMetadata> offsets = tracker.committable(List.of(FIRST));
+        assertThat(offsets).containsOnlyKeys(FIRST);
+        tracker.committed(offsets);
+
+        assertThat(tracker.committable(List.of(FIRST))).isEmpty();
+        assertThat(tracker.committable(List.of(SECOND))).containsEntry(SECOND, new OffsetAndMetadata(5));
+    }
+
+    @Test
+    @DisplayName("После переназначения партиции старые записи не задерживают фиксацию")
+    void reset_ForgetsPartition() {
+        tracker.register(FIRST, 3);
+        tracker.reset(List.of(FIRST));
+
+        assertThat(tracker.committable(List.of(FIRST))).isEmpty();
+
+        tracker.register(FIRST, 8);
+        tracker.complete(FIRST, 3);
+        tracker.complete(FIRST, 8);
+        assertThat(tracker.committable(List.of(FIRST))).containsEntry(FIRST, new OffsetAndMetadata(9));
+    }
+}
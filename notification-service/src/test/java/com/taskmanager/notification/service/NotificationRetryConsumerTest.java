@@ -0,0 +1,89 @@
+package com.taskmanager.notification.service;
+
+import com.taskmanager.common.dto.NotificationDto;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit тесты для NotificationRetryConsumer
+ */
+class NotificationRetryConsumerTest {
+
+    private final NotificationRetryService retryService = mock(NotificationRetryService.class);
+    private final Acknowledgment ack = mock(Acknowledgment.class);
+    private NotificationRetryConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        when(retryService.delay(0)).thenReturn(Duration.ofSeconds(5));
+        when(retryService.delay(1)).thenReturn(Duration.ofMinutes(5));
+        consumer = new NotificationRetryConsumer(retryService, new ConcurrentKafkaListenerContainerFactory<>());
+    }
+
+    @Test
+    @DisplayName("Запись до истечения задержки уровня не обрабатывается, потребитель приостанавливается")
+    void recordNotDue_Nacked() {
+        consumer.onMessage(record(System.currentTimeMillis()), ack, 0);
+
+        ArgumentCaptor<Duration> pause = ArgumentCaptor.forClass(Duration.class);
+        verify(ack).nack(pause.capture());
+        assertThat(pause.getValue()).isPositive().isLessThanOrEqualTo(Duration.ofSeconds(5));
+        verify(retryService, never()).retry(any(), anyInt());
+        verify(ack, never()).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Длинная задержка выдерживается паузами не длиннее предела")
+    void longDelay_PauseCapped() {
+        consumer.onMessage(record(System.currentTimeMillis()), ack, 1);
+
+        verify(ack).nack(NotificationRetryConsumer.MAX_PAUSE);
+    }
+
+    @Test
+    @DisplayName("Запись после задержки доставляется и подтверждается")
+    void recordDue_RetriedAndAcknowledged() {
+        ConsumerRecord<Object, Object> record = record(System.currentTimeMillis() - 6_000);
+
+        consumer.onMessage(record, ack, 0);
+
+        verify(retryService).retry((NotificationDto) record.value(), 0);
+        verify(ack).acknowledge();
+        verify(ack, never()).nack(any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("Запись, которую не удалось передать на следующий уровень, не подтверждается")
+    void forwardFailure_Nacked() {
+        ConsumerRecord<Object, Object> record = record(System.currentTimeMillis() - 6_000);
+        when(retryService.failurePause()).thenReturn(Duration.ofSeconds(5));
+        doThrow(new IllegalStateException("Kafka недоступна"))
+                .when(retryService).retry((NotificationDto) record.value(), 0);
+
+        consumer.onMessage(record, ack, 0);
+
+        verify(ack).nack(Duration.ofSeconds(5));
+        verify(ack, never()).acknowledge();
+    }
+
+    private static ConsumerRecord<Object, Object> record(long timestamp) {
+        NotificationDto notification = NotificationDto.builder().id("n-1").userId(1L).channel("EMAIL").build();
+        return new ConsumerRecord<>("notification-events-retry-0", 0, 0, timestamp, TimestampType.CREATE_TIME,
+                -1, -1, "1", notification, new RecordHeaders(), Optional.empty());
+    }
+}
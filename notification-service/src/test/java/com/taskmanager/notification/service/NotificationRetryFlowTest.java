@@ -0,0 +1,131 @@
+package com.taskmanager.notification.service;
+
+import com.taskmanager.common.dto.NotificationDto;
+import com.taskmanager.common.kafka.CompactSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Повтор на встроенной Kafka: неудачное уведомление проходит уровни повтора, попадает в DLT
+ * и возвращается в основной топик запросом повторной отправки
+ */
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "kafka.topics.notification-partitions=2",
+        "notification.coalescing.enabled=false",
+        "notification.retry.delays=PT0.3S,PT0.6S"
+})
+@EmbeddedKafka(partitions = 2)
+class NotificationRetryFlowTest {
+
+    @MockBean
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRetryService retryService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Value("${kafka.topics.notification-events}")
+    private String topic;
+
+    @Test
+    @DisplayName("Сбой не задерживает остальные уведомления, после всех уровней запись уходит в DLT и возвращается оттуда")
+    void failingNotification_ThroughTiersToDltAndReplayed() throws Exception {
+        AtomicBoolean channelDown = new AtomicBoolean(true);
+        Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        CountDownLatch healthyDelivered = new CountDownLatch(1);
+        CountDownLatch failingDelivered = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            NotificationDto notification = invocation.getArgument(0);
+            attempts.computeIfAbsent(notification.getId(), id -> new AtomicInteger()).incrementAndGet();
+            if (notification.getId().equals("failing")) {
+                if (channelDown.get()) {
+                    throw new IllegalStateException("Канал доставки недоступен");
+                }
+                failingDelivered.countDown();
+            } else {
+                healthyDelivered.countDown();
+            }
+            return null;
+        }).when(notificationService).processNotification(any());
+
+        Map<String, Object> props = KafkaTestUtils.producerProps(broker);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, CompactSerializer.class);
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(props));
+        template.send(topic, "1", notification("failing", 1L));
+        template.send(topic, "1", notification("healthy", 1L));
+        template.flush();
+
+        assertThat(healthyDelivered.await(30, TimeUnit.SECONDS)).isTrue();
+        awaitCount("notification.retry.scheduled", "dlt", 1);
+
+        // Основная попытка и по одной на каждом из двух уровней
+        assertThat(attempts.get("failing").get()).isEqualTo(3);
+        assertThat(counter("notification.retry.scheduled", "retry-0")).isEqualTo(1);
+        assertThat(counter("notification.retry.scheduled", "retry-1")).isEqualTo(1);
+        assertThat(counter("notification.retry.recovered", "retry-0")).isZero();
+
+        channelDown.set(false);
+        assertThat(retryService.replayDeadLetters(100)).isEqualTo(1);
+        assertThat(failingDelivered.await(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(attempts.get("failing").get()).isEqualTo(4);
+
+        // Подтверждённые сообщения DLT повторно не отправляются
+        assertThat(retryService.replayDeadLetters(100)).isZero();
+        assertThat(meterRegistry.get("notification.retry.replayed").counter().count()).isEqualTo(1);
+    }
+
+    private void awaitCount(String name, String tier, double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (counter(name, tier) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(counter(name, tier)).isEqualTo(expected);
+    }
+
+    private double counter(String name, String tier) {
+        return meterRegistry.get(name).tag("tier", tier).counter().count();
+    }
+
+    private static NotificationDto notification(String id, Long userId) {
+        return NotificationDto.builder()
+                .id(id)
+                .userId(userId)
+                .type("TASK_STATUS_CHANGED")
+                .title("Статус задачи изменён")
+                .message("Задача переведена в работу")
+                .channel("EMAIL")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
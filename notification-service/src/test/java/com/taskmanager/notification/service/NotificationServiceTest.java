@@ -0,0 +1,67 @@
+package com.taskmanager.notification.service;
+
+import com.taskmanager.common.dto.NotificationDto;
+import com.taskmanager.notification.config.DeduplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mail.MailSendException;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit тесты для NotificationService: повторы не отправляются, неудачная отправка доставляется повтором
+ */
+class NotificationServiceTest {
+
+    private final EmailService emailService = mock(EmailService.class);
+    private NotificationService notificationService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        DeduplicationProperties properties = new DeduplicationProperties();
+        properties.setExpectedIds(10_000);
+        NotificationDeduplicator deduplicator = new NotificationDeduplicator(
+                properties, mock(ObjectProvider.class), new SimpleMeterRegistry());
+        notificationService = new NotificationService(emailService, deduplicator);
+    }
+
+    @Test
+    @DisplayName("Повторное уведомление с тем же id не доходит до EmailService")
+    void duplicate_NotSentTwice() {
+        notificationService.processNotification(email("n-1"));
+        notificationService.processNotification(email("n-1"));
+        notificationService.processNotification(email("n-2"));
+
+        verify(emailService, times(2)).sendNotification(any());
+    }
+
+    @Test
+    @DisplayName("Неудачная отправка не запоминается, повтор доставляет уведомление")
+    void failedSend_DeliveredOnRetry() {
+        doThrow(new MailSendException("SMTP недоступен"))
+                .doNothing()
+                .when(emailService).sendNotification(any());
+
+        assertThatThrownBy(() -> notificationService.processNotification(email("n-1")))
+                .isInstanceOf(MailSendException.class);
+        notificationService.processNotification(email("n-1"));
+        notificationService.processNotification(email("n-1"));
+
+        verify(emailService, times(2)).sendNotification(any());
+    }
+
+    private static NotificationDto email(String id) {
+        return NotificationDto.builder()
+                .id(id)
+                .userId(1L)
+                .type("TASK_ASSIGNED")
+                .channel("EMAIL")
+                .build();
+    }
+}
@@ -0,0 +1,55 @@
+package com.taskmanager.notification.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit тесты для RotatingBloomFilter
+ */
+class RotatingBloomFilterTest {
+
+    private static final long WINDOW = 4_000;
+
+    @Test
+    @DisplayName("Добавленные id находятся, доля ложных срабатываний в пределах заданной")
+    void falsePositiveRate_WithinConfigured() {
+        int expected = 100_000;
+        RotatingBloomFilter filter = new RotatingBloomFilter(WINDOW, 4, expected, 0.01);
+        for (int i = 0; i < expected; i++) {
+            filter.put(UUID.randomUUID().toString(), i % WINDOW);
+        }
+        String known = UUID.randomUUID().toString();
+        filter.put(known, 0);
+        assertThat(filter.mightContain(known, WINDOW - 1)).isTrue();
+
+        int probes = 100_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString(), WINDOW - 1)) {
+                falsePositives++;
+            }
+        }
+        assertThat((double) falsePositives / probes).isLessThan(0.015);
+    }
+
+    @Test
+    @DisplayName("Корзина, вышедшая из окна, забывается, память не растёт")
+    void expiredBucket_Forgotten() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(WINDOW, 4, 1_000, 0.01);
+        long size = filter.sizeInBytes();
+
+        filter.put("n-1", 0);
+        assertThat(filter.mightContain("n-1", WINDOW - 1)).isTrue();
+        assertThat(filter.mightContain("n-1", WINDOW)).isFalse();
+
+        for (long now = 0; now < 10 * WINDOW; now += 10) {
+            filter.put("n-" + now, now);
+        }
+        assertThat(filter.mightContain("n-" + (10 * WINDOW - 10), 10 * WINDOW)).isTrue();
+        assertThat(filter.sizeInBytes()).isEqualTo(size);
+    }
+}
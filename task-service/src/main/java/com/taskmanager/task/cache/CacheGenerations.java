@@ -0,0 +1,75 @@
+package com.taskmanager.task.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.OptionalLong;
+
+/**
+ * Счётчики поколений для версионирования ключей кэшированных списков.
+ * Поколение входит в ключ записи, поэтому увеличение счётчика делает недоступными
+ * только списки одного проекта или исполнителя, не трогая остальные записи.
+ * Счётчики хранятся в Redis и общие для всех реплик.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheGenerations {
+
+    public static final String PROJECT = "project";
+    public static final String ASSIGNEE = "assignee";
+
+    private static final String KEY_PREFIX = "task-service:cache-gen:";
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * Текущее поколение; пусто, если Redis недоступен и кэш нужно обойти
+     */
+    public OptionalLong current(String scope, Object id) {
+        try {
+            String value = redisTemplate.opsForValue().get(key(scope, id));
+            return OptionalLong.of(value != null ? Long.parseLong(value) : 0L);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось прочитать поколение кэша {}:{}: {}", scope, id, e.getMessage());
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * Увеличение поколения после коммита текущей транзакции (или сразу, если транзакции нет).
+     * До коммита читатели ещё видят старые данные и не должны кэшировать их под новым поколением.
+     */
+    public void bumpAfterCommit(String scope, Object id) {
+        if (id == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(scope, id);
+                }
+            });
+        } else {
+            bump(scope, id);
+        }
+    }
+
+    private void bump(String scope, Object id) {
+        try {
+            redisTemplate.opsForValue().increment(key(scope, id));
+        } catch (RuntimeException e) {
+            // Устаревшие списки будут вытеснены по TTL
+            log.error("Не удалось увеличить поколение кэша {}:{}: {}", scope, id, e.getMessage());
+        }
+    }
+
+    private static String key(String scope, Object id) {
+        return KEY_PREFIX + scope + ":" + id;
+    }
+}
@@ -0,0 +1,56 @@
+package com.taskmanager.task.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.io.IOException;
+
+/**
+ * Получение инвалидаций от других реплик и сброс соответствующих записей L1
+ * и кэша второго уровня Hibernate
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class CacheInvalidationListener implements MessageListener {
+
+    private final TwoLevelCacheManager cacheManager;
+    private final ProjectEntityCache projectEntityCache;
+    private final ObjectMapper objectMapper;
+    private final String instanceId;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidationMessage invalidation;
+        try {
+            invalidation = objectMapper.readValue(message.getBody(), CacheInvalidationMessage.class);
+        } catch (IOException e) {
+            log.warn("Некорректное сообщение инвалидации кэша: {}", e.getMessage());
+            return;
+        }
+
+        if (instanceId.equals(invalidation.getOrigin())) {
+            return;
+        }
+
+        log.debug("Инвалидация L1 от реплики {}: cache={}, key={}",
+                invalidation.getOrigin(), invalidation.getCacheName(), invalidation.getKey());
+        if (ProjectEntityCache.INVALIDATION_NAME.equals(invalidation.getCacheName())) {
+            evictProject(invalidation.getKey());
+        } else if (invalidation.getKey() == null) {
+            cacheManager.clearLocal(invalidation.getCacheName());
+        } else {
+            cacheManager.evictLocal(invalidation.getCacheName(), invalidation.getKey());
+        }
+    }
+
+    private void evictProject(String key) {
+        try {
+            projectEntityCache.evictLocal(Long.valueOf(key));
+        } catch (NumberFormatException e) {
+            log.warn("Некорректный ключ инвалидации проекта: {}", key);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.taskmanager.task.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Сообщение об инвалидации L1 кэша, рассылаемое через Redis pub/sub
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidationMessage {
+
+    /**
+     * Идентификатор реплики-отправителя, свои сообщения игнорируются
+     */
+    private String origin;
+
+    private String cacheName;
+
+    /**
+     * Ключ записи; null означает очистку всего кэша
+     */
+    private String key;
+}
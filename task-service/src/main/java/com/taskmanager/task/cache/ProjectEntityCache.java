@@ -0,0 +1,65 @@
+package com.taskmanager.task.cache;
+
+import com.taskmanager.task.entity.Project;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Сброс проекта и его участников из кэша второго уровня Hibernate.
+ * Кэш локален для реплики: READ_WRITE обновляет запись только там, где прошла транзакция,
+ * поэтому остальным репликам изменение рассылается через тот же канал инвалидаций, что и для L1.
+ * Мягкое удаление кэш не видит (@SQLRestriction применяется только к SQL), его запись сбрасывается явно.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProjectEntityCache {
+
+    /**
+     * Имя "кэша" в сообщениях инвалидации, по которому реплики отличают записи Hibernate от Spring кэшей
+     */
+    public static final String INVALIDATION_NAME = "hibernate:project";
+
+    private static final String MEMBERS_ROLE = Project.class.getName() + ".memberIds";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectProvider<CacheInvalidationPublisher> publisher;
+
+    /**
+     * Сброс после коммита: до него другая транзакция успела бы снова положить в кэш старую строку
+     */
+    public void evictAfterCommit(Long projectId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(projectId);
+                }
+            });
+        } else {
+            evict(projectId);
+        }
+    }
+
+    /**
+     * Сброс только на этой реплике, по сообщению от другой
+     */
+    public void evictLocal(Long projectId) {
+        org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(Project.class, projectId);
+        cache.evictCollectionData(MEMBERS_ROLE, projectId);
+        log.debug("Проект {} сброшен из кэша второго уровня", projectId);
+    }
+
+    private void evict(Long projectId) {
+        evictLocal(projectId);
+        // Без Redis (например, в срезах JPA тестов) сообщать некому
+        publisher.ifAvailable(p -> p.publishEvict(INVALIDATION_NAME, projectId.toString()));
+    }
+}
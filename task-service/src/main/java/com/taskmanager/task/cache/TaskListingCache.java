@@ -0,0 +1,108 @@
+package com.taskmanager.task.cache;
+
+import com.taskmanager.task.dto.TaskFilterCriteria;
+import com.taskmanager.task.dto.TaskResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.OptionalLong;
+import java.util.function.Supplier;
+
+/**
+ * Кэш списков задач, помеченных проектом или исполнителем.
+ * Ключ содержит поколение тега, поэтому изменение задачи инвалидирует
+ * только списки её проекта и её исполнителей.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskListingCache {
+
+    private final CacheManager cacheManager;
+    private final CacheGenerations generations;
+
+    public Page<TaskResponse> byProject(Long projectId, Pageable pageable, Supplier<Page<TaskResponse>> loader) {
+        return get(CacheGenerations.PROJECT, projectId, pageable, loader);
+    }
+
+    public Page<TaskResponse> byAssignee(Long assigneeId, Pageable pageable, Supplier<Page<TaskResponse>> loader) {
+        return get(CacheGenerations.ASSIGNEE, assigneeId, pageable, loader);
+    }
+
+    /**
+     * Результат фильтра кэшируется, только если в нём есть проект или исполнитель: их поколения входят в ключ,
+     * поэтому изменение любой подходящей задачи меняет ключ. Фильтры только по статусу, приоритету
+     * или дедлайну нечем точечно инвалидировать, они читаются из БД.
+     */
+    public Page<TaskResponse> byFilter(TaskFilterCriteria criteria, Pageable pageable,
+                                       Supplier<Page<TaskResponse>> loader) {
+        if (criteria.getProjectId() == null && criteria.getAssigneeId() == null) {
+            return loader.get();
+        }
+        StringBuilder tags = new StringBuilder();
+        if (criteria.getProjectId() != null) {
+            OptionalLong generation = generations.current(CacheGenerations.PROJECT, criteria.getProjectId());
+            if (generation.isEmpty()) {
+                return loader.get();
+            }
+            tags.append(":gp").append(generation.getAsLong());
+        }
+        if (criteria.getAssigneeId() != null) {
+            OptionalLong generation = generations.current(CacheGenerations.ASSIGNEE, criteria.getAssigneeId());
+            if (generation.isEmpty()) {
+                return loader.get();
+            }
+            tags.append(":ga").append(generation.getAsLong());
+        }
+        return cached("filter:" + criteria.cacheKey() + tags, pageable, loader);
+    }
+
+    public void invalidateProject(Long projectId) {
+        generations.bumpAfterCommit(CacheGenerations.PROJECT, projectId);
+    }
+
+    public void invalidateAssignee(Long assigneeId) {
+        generations.bumpAfterCommit(CacheGenerations.ASSIGNEE, assigneeId);
+    }
+
+    public void evictTaskEntry(Long taskId) {
+        Cache cache = cacheManager.getCache(TwoLevelCacheManager.TASKS);
+        if (cache != null) {
+            cache.evict(taskId);
+        }
+    }
+
+    /**
+     * Запись проекта содержит счётчик задач и устаревает при удалении задачи
+     */
+    public void evictProjectEntry(Long projectId) {
+        Cache cache = cacheManager.getCache(TwoLevelCacheManager.PROJECTS);
+        if (cache != null) {
+            cache.evict(projectId);
+        }
+    }
+
+    private Page<TaskResponse> get(String scope, Long id, Pageable pageable, Supplier<Page<TaskResponse>> loader) {
+        OptionalLong generation = generations.current(scope, id);
+        if (generation.isEmpty()) {
+            return loader.get();
+        }
+        return cached(scope + ":" + id + ":g" + generation.getAsLong(), pageable, loader);
+    }
+
+    private Page<TaskResponse> cached(String prefix, Pageable pageable, Supplier<Page<TaskResponse>> loader) {
+        Cache cache = cacheManager.getCache(TwoLevelCacheManager.TASK_LISTS);
+        if (cache == null) {
+            return loader.get();
+        }
+
+        String key = prefix
+                + ":" + pageable.getPageNumber() + ":" + pageable.getPageSize()
+                + ":" + pageable.getSort().toString().replace(" ", "");
+        CachedPage<TaskResponse> page = cache.get(key, () -> CachedPage.of(loader.get()));
+        return page.toPage(pageable);
+    }
+}
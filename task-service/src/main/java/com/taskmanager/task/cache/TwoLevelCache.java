@@ -0,0 +1,202 @@
+package com.taskmanager.task.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Двухуровневый кэш: локальный Caffeine (L1) поверх общего Redis (L2).
+ * Любое изменение записи рассылается остальным репликам, чтобы они сбросили свой L1.
+ * Недоступность Redis не ломает запрос: кэш деградирует до L1 и загрузки из БД.
+ */
+@Slf4j
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final Cache remote;
+    private final CacheInvalidationPublisher publisher;
+
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final Counter localEvictions;
+    private final Counter remoteEvictions;
+
+    public TwoLevelCache(String name,
+                         com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+                         Cache remote,
+                         CacheInvalidationPublisher publisher,
+                         MeterRegistry meterRegistry) {
+        super(false);
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.publisher = publisher;
+
+        this.localHits = gets(meterRegistry, "l1", "hit");
+        this.localMisses = gets(meterRegistry, "l1", "miss");
+        this.remoteHits = gets(meterRegistry, "l2", "hit");
+        this.remoteMisses = gets(meterRegistry, "l2", "miss");
+        this.localEvictions = evictions(meterRegistry, "local");
+        this.remoteEvictions = evictions(meterRegistry, "remote");
+        Gauge.builder("cache.size", local, com.github.benmanes.caffeine.cache.Cache::estimatedSize)
+                .tag("name", name)
+                .tag("level", "l1")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            localHits.increment();
+            return value;
+        }
+        localMisses.increment();
+
+        value = remoteGet(key);
+        if (value != null) {
+            local.put(localKey, value);
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        Object cached = local.getIfPresent(localKey);
+        if (cached != null) {
+            localHits.increment();
+            return (T) cached;
+        }
+        localMisses.increment();
+
+        // Caffeine гарантирует одну загрузку на ключ в пределах реплики
+        return (T) local.get(localKey, k -> {
+            Object value = remoteGet(key);
+            if (value != null) {
+                return value;
+            }
+            try {
+                value = valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+            if (value != null) {
+                remotePut(key, value);
+            }
+            return value;
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+            return;
+        }
+        remotePut(key, value);
+        local.put(localKey(key), value);
+        publisher.publishEvict(name, localKey(key));
+    }
+
+    @Override
+    public void evict(Object key) {
+        try {
+            remote.evict(key);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось удалить ключ {} из Redis кэша {}: {}", key, name, e.getMessage());
+        }
+        local.invalidate(localKey(key));
+        localEvictions.increment();
+        publisher.publishEvict(name, localKey(key));
+    }
+
+    @Override
+    public void clear() {
+        try {
+            remote.clear();
+        } catch (RuntimeException e) {
+            log.warn("Не удалось очистить Redis кэш {}: {}", name, e.getMessage());
+        }
+        local.invalidateAll();
+        localEvictions.increment();
+        publisher.publishClear(name);
+    }
+
+    /**
+     * Сброс записи только в L1 - по сообщению от другой реплики
+     */
+    void evictLocal(String key) {
+        local.invalidate(key);
+        remoteEvictions.increment();
+    }
+
+    /**
+     * Полная очистка L1 - по сообщению от другой реплики
+     */
+    void clearLocal() {
+        local.invalidateAll();
+        remoteEvictions.increment();
+    }
+
+    private Object remoteGet(Object key) {
+        try {
+            ValueWrapper wrapper = remote.get(key);
+            if (wrapper != null && wrapper.get() != null) {
+                remoteHits.increment();
+                return wrapper.get();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Ошибка чтения из Redis кэша {}: {}", name, e.getMessage());
+        }
+        remoteMisses.increment();
+        return null;
+    }
+
+    private void remotePut(Object key, Object value) {
+        try {
+            remote.put(key, value);
+        } catch (RuntimeException e) {
+            log.warn("Ошибка записи в Redis кэш {}: {}", name, e.getMessage());
+        }
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    private Counter gets(MeterRegistry registry, String level, String result) {
+        return Counter.builder("cache.gets")
+                .tag("name", name)
+                .tag("level", level)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private Counter evictions(MeterRegistry registry, String source) {
+        return Counter.builder("cache.evictions")
+                .tag("name", name)
+                .tag("source", source)
+                .register(registry);
+    }
+}
@@ -0,0 +1,85 @@
+package com.taskmanager.task.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.taskmanager.task.config.CacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Менеджер двухуровневых кэшей. L2 берётся из Redis менеджера, L1 создаётся по настройкам кэша.
+ * Записи и инвалидации выполняются после коммита транзакции.
+ */
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager {
+
+    public static final String TASKS = "tasks";
+    public static final String PROJECTS = "projects";
+    public static final String TASK_LISTS = "taskLists";
+
+    private final CacheManager remoteCacheManager;
+    private final CacheProperties properties;
+    private final CacheInvalidationPublisher publisher;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, TwoLevelCache> twoLevelCaches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager,
+                                CacheProperties properties,
+                                CacheInvalidationPublisher publisher,
+                                MeterRegistry meterRegistry) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.properties = properties;
+        this.publisher = publisher;
+        this.meterRegistry = meterRegistry;
+        setTransactionAware(true);
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return List.of(createCache(TASKS), createCache(PROJECTS), createCache(TASK_LISTS));
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        return createCache(name);
+    }
+
+    void evictLocal(String cacheName, String key) {
+        TwoLevelCache cache = twoLevelCaches.get(cacheName);
+        if (cache != null) {
+            cache.evictLocal(key);
+        }
+    }
+
+    void clearLocal(String cacheName) {
+        TwoLevelCache cache = twoLevelCaches.get(cacheName);
+        if (cache != null) {
+            cache.clearLocal();
+        }
+    }
+
+    private TwoLevelCache createCache(String name) {
+        return twoLevelCaches.computeIfAbsent(name, n -> {
+            CacheProperties.Spec spec = specFor(n);
+            com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder()
+                    .maximumSize(spec.getLocalMaxSize())
+                    .expireAfterWrite(spec.effectiveLocalTtl())
+                    .build();
+            return new TwoLevelCache(n, local, remoteCacheManager.getCache(n), publisher, meterRegistry);
+        });
+    }
+
+    private CacheProperties.Spec specFor(String name) {
+        return switch (name) {
+            case TASKS -> properties.getTask();
+            case PROJECTS -> properties.getProject();
+            case TASK_LISTS -> properties.getTaskList();
+            default -> properties.getDefaults();
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package com.taskmanager.task.config;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.taskmanager.task.cache.CacheInvalidationListener;
+import com.taskmanager.task.cache.CacheInvalidationPublisher;
+import com.taskmanager.task.cache.ProjectEntityCache;
+import com.taskmanager.task.cache.TwoLevelCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.util.Map;
+
+/**
+ * Конфигурация кэширования: Caffeine (L1) на каждой реплике и Redis (L2) общий для всех.
+ * Инвалидации L1 рассылаются через Redis pub/sub.
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    @Bean
+    public CacheInvalidationPublisher cacheInvalidationPublisher(StringRedisTemplate redisTemplate,
+                                                                 ObjectMapper objectMapper,
+                                                                 CacheProperties properties) {
+        return new CacheInvalidationPublisher(redisTemplate, objectMapper, properties.getInvalidationChannel());
+    }
+
+    @Bean
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             CacheProperties properties,
+                                             CacheInvalidationPublisher publisher,
+                                             MeterRegistry meterRegistry) {
+        RedisCacheConfiguration defaults = RedisCacheConfiguration.defaultCacheConfig()
+                .disableCachingNullValues()
+                .serializeValuesWith(RedisSerializationContext.SerializationPair
+                        .fromSerializer(new GenericJackson2JsonRedisSerializer(cacheObjectMapper())));
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(defaults.entryTtl(properties.getDefaults().getTtl()))
+                .withInitialCacheConfigurations(Map.of(
+                        TwoLevelCacheManager.TASKS, defaults.entryTtl(properties.getTask().getTtl()),
+                        TwoLevelCacheManager.PROJECTS, defaults.entryTtl(properties.getProject().getTtl()),
+                        TwoLevelCacheManager.TASK_LISTS, defaults.entryTtl(properties.getTaskList().getTtl())))
+                .build();
+        redisCacheManager.initializeCaches();
+
+        return new TwoLevelCacheManager(redisCacheManager, properties, publisher, meterRegistry);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoLevelCacheManager cacheManager,
+                                                                            ProjectEntityCache projectEntityCache,
+                                                                            CacheInvalidationPublisher publisher,
+                                                                            ObjectMapper objectMapper) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                new CacheInvalidationListener(cacheManager, projectEntityCache, objectMapper,
+                        publisher.getInstanceId()),
+                new ChannelTopic(publisher.getChannel()));
+        return container;
+    }
+
+    /**
+     * ObjectMapper для значений в Redis: с информацией о типе, но только для классов приложения
+     */
+    private static ObjectMapper cacheObjectMapper() {
+        BasicPolymorphicTypeValidator typeValidator = BasicPolymorphicTypeValidator.builder()
+                .allowIfSubType("com.taskmanager.")
+                .allowIfSubType("java.util.")
+                .allowIfSubType("java.time.")
+                .build();
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .activateDefaultTyping(typeValidator, ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+    }
+}
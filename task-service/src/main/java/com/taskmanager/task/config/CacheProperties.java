@@ -0,0 +1,76 @@
+package com.taskmanager.task.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.convert.DurationUnit;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Настройки двухуровневого кэша (Caffeine L1 + Redis L2)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cache")
+public class CacheProperties {
+
+    /**
+     * Кэш задач ("tasks")
+     */
+    private Spec task = new Spec(Duration.ofMinutes(5));
+
+    /**
+     * Кэш проектов ("projects")
+     */
+    private Spec project = new Spec(Duration.ofMinutes(10));
+
+    /**
+     * Кэш списков задач по проекту и исполнителю ("taskLists")
+     */
+    private Spec taskList = new Spec(Duration.ofMinutes(2));
+
+    /**
+     * Настройки для кэшей, не описанных явно
+     */
+    private Spec defaults = new Spec(Duration.ofMinutes(5));
+
+    /**
+     * Redis канал для рассылки инвалидаций между репликами
+     */
+    private String invalidationChannel = "task-service:cache-invalidation";
+
+    @Getter
+    @Setter
+    public static class Spec {
+
+        /**
+         * TTL записи в Redis (L2)
+         */
+        @DurationUnit(ChronoUnit.SECONDS)
+        private Duration ttl;
+
+        /**
+         * TTL записи в локальном кэше (L1), не больше TTL в Redis
+         */
+        @DurationUnit(ChronoUnit.SECONDS)
+        private Duration localTtl = Duration.ofSeconds(60);
+
+        /**
+         * Максимальное число записей в локальном кэше
+         */
+        private long localMaxSize = 10_000;
+
+        public Spec() {
+        }
+
+        public Spec(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Duration effectiveLocalTtl() {
+            return localTtl.compareTo(ttl) < 0 ? localTtl : ttl;
+        }
+    }
+}
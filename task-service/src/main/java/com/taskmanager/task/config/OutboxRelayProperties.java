@@ -0,0 +1,41 @@
+package com.taskmanager.task.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки публикации outbox в Kafka
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "outbox-relay")
+public class OutboxRelayProperties {
+
+    /**
+     * Включение публикации; без неё строки копятся в outbox
+     */
+    private boolean enabled = true;
+
+    /**
+     * Число строк, отправляемых одним flush продюсера и удаляемых одним DELETE
+     */
+    private int batchSize = 500;
+
+    /**
+     * Ограничение числа пачек за один запуск, чтобы аренда не удерживалась бесконечно
+     */
+    private int maxBatchesPerRun = 20;
+
+    /**
+     * Срок аренды; продлевается после каждой пачки
+     */
+    private Duration leaseTtl = Duration.ofMinutes(1);
+
+    /**
+     * Ожидание подтверждения Kafka для пачки
+     */
+    private Duration sendTimeout = Duration.ofSeconds(30);
+}
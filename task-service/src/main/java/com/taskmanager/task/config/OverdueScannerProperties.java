@@ -0,0 +1,36 @@
+package com.taskmanager.task.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки поиска просроченных задач
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "overdue-scanner")
+public class OverdueScannerProperties {
+
+    /**
+     * Включение периодического поиска
+     */
+    private boolean enabled = true;
+
+    /**
+     * Размер пачки задач, обрабатываемой в одной транзакции
+     */
+    private int batchSize = 200;
+
+    /**
+     * Ограничение числа пачек за один запуск; остаток обработается следующим запуском
+     */
+    private int maxBatchesPerRun = 50;
+
+    /**
+     * Срок аренды; продлевается после каждой пачки
+     */
+    private Duration leaseTtl = Duration.ofMinutes(5);
+}
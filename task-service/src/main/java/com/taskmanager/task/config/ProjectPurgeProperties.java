@@ -0,0 +1,36 @@
+package com.taskmanager.task.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки фоновой очистки мягко удалённых проектов
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "project-purge")
+public class ProjectPurgeProperties {
+
+    /**
+     * Включение фоновой очистки
+     */
+    private boolean enabled = true;
+
+    /**
+     * Размер пачки задач или участников, удаляемой в одной транзакции
+     */
+    private int batchSize = 500;
+
+    /**
+     * Ограничение числа пачек за один запуск; остаток удалит следующий запуск
+     */
+    private int maxBatchesPerRun = 200;
+
+    /**
+     * Срок аренды; продлевается после каждой пачки
+     */
+    private Duration leaseTtl = Duration.ofMinutes(5);
+}
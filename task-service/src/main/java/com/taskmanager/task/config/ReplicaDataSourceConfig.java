@@ -0,0 +1,107 @@
+package com.taskmanager.task.config;
+
+import com.taskmanager.task.datasource.ReadWriteRoutingDataSource;
+import com.taskmanager.task.datasource.ReplicaHealthChecker;
+import com.taskmanager.task.datasource.ReplicaPool;
+import com.taskmanager.task.datasource.ReplicaReadJpaDialect;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Маршрутизация соединений: readOnly транзакции идут на реплики, остальное на основную БД.
+ * Каждый пул публикует метрики Hikari (hikaricp.connections.* с тегом pool).
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaProperties.class)
+@ConditionalOnProperty(prefix = "replica", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig implements DisposableBean {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(DataSourceProperties dataSourceProperties,
+                                                        ReplicaProperties replicaProperties,
+                                                        Environment environment,
+                                                        MeterRegistry meterRegistry) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        pools.add(primary);
+
+        List<ReplicaPool> replicas = new ArrayList<>();
+        List<String> urls = replicaProperties.getUrls();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(urls.get(i));
+            replica.setUsername(replicaProperties.getUsername() != null
+                    ? replicaProperties.getUsername() : dataSourceProperties.determineUsername());
+            replica.setPassword(replicaProperties.getPassword() != null
+                    ? replicaProperties.getPassword() : dataSourceProperties.determinePassword());
+            replica.setMaximumPoolSize(replicaProperties.getMaxPoolSize());
+            replica.setConnectionTimeout(replicaProperties.getConnectionTimeout().toMillis());
+            replica.setReadOnly(true);
+            // Недоступная при старте реплика не должна мешать запуску сервиса
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.add(replica);
+            replicas.add(new ReplicaPool(replica.getPoolName(), replica));
+        }
+
+        return new ReadWriteRoutingDataSource(primary, replicas, meterRegistry);
+    }
+
+    @Bean
+    public ReplicaHealthChecker replicaHealthChecker(ReadWriteRoutingDataSource routingDataSource,
+                                                     ReplicaProperties replicaProperties,
+                                                     MeterRegistry meterRegistry) {
+        ReplicaHealthChecker checker = new ReplicaHealthChecker(routingDataSource.getReplicas(),
+                replicaProperties.getLagQuery(), replicaProperties.getMaxLag(), meterRegistry);
+        checker.checkAll();
+        checker.start(replicaProperties.getHealthCheckInterval());
+        return checker;
+    }
+
+    /**
+     * readOnly транзакции, которые могут прийти на отстающую реплику, не кладут строки в кэш второго уровня
+     */
+    @Bean
+    public TransactionManagerCustomizer<JpaTransactionManager> replicaReadCacheMode() {
+        return transactionManager -> transactionManager.setJpaDialect(new ReplicaReadJpaDialect());
+    }
+
+    /**
+     * Ленивый прокси откладывает выбор пула до первого запроса, когда флаг readOnly транзакции уже известен
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Override
+    public void destroy() {
+        pools.forEach(HikariDataSource::close);
+    }
+}
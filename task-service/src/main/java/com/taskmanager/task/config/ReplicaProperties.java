@@ -0,0 +1,62 @@
+package com.taskmanager.task.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки маршрутизации readOnly транзакций на реплики БД
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "replica")
+public class ReplicaProperties {
+
+    /**
+     * Включение маршрутизации чтения на реплики
+     */
+    private boolean enabled = false;
+
+    /**
+     * JDBC URL реплик
+     */
+    private List<String> urls = new ArrayList<>();
+
+    /**
+     * Учётные данные реплик, по умолчанию как у основной БД
+     */
+    private String username;
+    private String password;
+
+    /**
+     * Размер пула соединений каждой реплики
+     */
+    private int maxPoolSize = 10;
+
+    /**
+     * Ожидание соединения реплики; при таймауте запрос уходит на основную БД
+     */
+    private Duration connectionTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Допустимое отставание реплики, при превышении чтение идёт с основной БД
+     */
+    private Duration maxLag = Duration.ofSeconds(10);
+
+    /**
+     * Период проверки доступности и отставания реплик
+     */
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    /**
+     * Запрос отставания реплики в секундах. Для простаивающего primary отставание считается нулевым,
+     * если весь полученный WAL уже применён.
+     */
+    private String lagQuery = "SELECT CASE WHEN NOT pg_is_in_recovery() "
+            + "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+}
@@ -0,0 +1,15 @@
+package com.taskmanager.task.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Фоновые задачи сервиса. Единственность выполнения между репликами обеспечивают аренды в БД.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties({OverdueScannerProperties.class, TaskArchivalProperties.class,
+        ProjectPurgeProperties.class, OutboxRelayProperties.class})
+public class SchedulingConfig {
+}
@@ -0,0 +1,41 @@
+package com.taskmanager.task.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки переноса закрытых задач в архивную секцию
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "task-archival")
+public class TaskArchivalProperties {
+
+    /**
+     * Включение периодической архивации
+     */
+    private boolean enabled = true;
+
+    /**
+     * Сколько закрытая задача остаётся в горячей секции после последнего изменения
+     */
+    private Duration retention = Duration.ofDays(90);
+
+    /**
+     * Размер пачки задач, переносимой в одной транзакции
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Ограничение числа пачек за один запуск; остаток перенесёт следующий запуск
+     */
+    private int maxBatchesPerRun = 100;
+
+    /**
+     * Срок аренды; продлевается после каждой пачки
+     */
+    private Duration leaseTtl = Duration.ofMinutes(10);
+}
@@ -4,6 +4,8 @@ import com.taskmanager.common.dto.ApiResponse;
 import com.taskmanager.task.dto.*;
 import com.taskmanager.task.entity.ProjectStatus;
 import com.taskmanager.task.service.ProjectService;
+import com.taskmanager.task.service.ProjectStatsService;
+import com.taskmanager.task.service.TaskExportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -11,9 +13,12 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * REST контроллер для управления проектами
@@ -25,6 +30,8 @@ import org.springframework.web.bind.annotation.*;
 public class ProjectController {
 
     private final ProjectService projectService;
+    private final TaskExportService taskExportService;
+    private final ProjectStatsService projectStatsService;
 
     @PostMapping
     @Operation(summary = "Создание нового проекта")
@@ -34,30 +41,66 @@ public class ProjectController {
         ProjectResponse response = projectService.createProject(request, userId);
         return ResponseEntity
                 .status(HttpStatus.CREATED)
+                .eTag(response.eTag())
                 .body(ApiResponse.success(response, "Проект создан"));
     }
 
     @GetMapping("/{projectId}")
-    @Operation(summary = "Получение проекта по ID")
-    public ResponseEntity<ApiResponse<ProjectResponse>> getProject(@PathVariable Long projectId) {
+    @Operation(summary = "Получение проекта по ID (If-None-Match → 304)")
+    public ResponseEntity<ApiResponse<ProjectResponse>> getProject(
+            @PathVariable Long projectId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         ProjectResponse response = projectService.getProjectById(projectId);
-        return ResponseEntity.ok(ApiResponse.success(response));
+        if (ETags.noneMatchHits(ifNoneMatch, response.eTag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(response.eTag()).build();
+        }
+        return ResponseEntity.ok().eTag(response.eTag()).body(ApiResponse.success(response));
     }
 
     @PutMapping("/{projectId}")
-    @Operation(summary = "Обновление проекта")
+    @Operation(summary = "Обновление проекта (If-Match → 412 при несовпадении версии)")
     public ResponseEntity<ApiResponse<ProjectResponse>> updateProject(
             @PathVariable Long projectId,
-            @Valid @RequestBody UpdateProjectRequest request) {
-        ProjectResponse response = projectService.updateProject(projectId, request);
-        return ResponseEntity.ok(ApiResponse.success(response, "Проект обновлён"));
+            @Valid @RequestBody UpdateProjectRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ProjectResponse response = projectService.updateProject(projectId, request, ifMatch);
+        return ResponseEntity.ok().eTag(response.eTag()).body(ApiResponse.success(response, "Проект обновлён"));
     }
 
     @DeleteMapping("/{projectId}")
-    @Operation(summary = "Удаление проекта")
-    public ResponseEntity<ApiResponse<Void>> deleteProject(@PathVariable Long projectId) {
-        projectService.deleteProject(projectId);
-        return ResponseEntity.ok(ApiResponse.success(null, "Проект удалён"));
+    @Operation(summary = "Удаление проекта: проект скрывается сразу, задачи удаляются в фоне")
+    public ResponseEntity<ApiResponse<ProjectDeletionResponse>> deleteProject(@PathVariable Long projectId) {
+        ProjectDeletionResponse response = projectService.deleteProject(projectId);
+        return ResponseEntity.accepted().body(ApiResponse.success(response, "Проект удалён"));
+    }
+
+    @GetMapping("/{projectId}/deletion")
+    @Operation(summary = "Прогресс фонового удаления проекта")
+    public ResponseEntity<ApiResponse<ProjectDeletionResponse>> getProjectDeletion(@PathVariable Long projectId) {
+        return ResponseEntity.ok(ApiResponse.success(projectService.getDeletion(projectId)));
+    }
+
+    @GetMapping("/{projectId}/stats")
+    @Operation(summary = "Количество задач проекта по статусам")
+    public ResponseEntity<ApiResponse<ProjectStatsResponse>> getProjectStats(@PathVariable Long projectId) {
+        ProjectStatsResponse response = projectStatsService.getStats(projectId);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @GetMapping("/{projectId}/tasks/export")
+    @Operation(summary = "Потоковая выгрузка задач проекта (ndjson или csv)")
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @PathVariable Long projectId,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        TaskExportFormat exportFormat = TaskExportFormat.fromParameter(format);
+        taskExportService.checkProjectExists(projectId);
+
+        StreamingResponseBody body = out -> taskExportService.export(projectId, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"project-" + projectId + "-tasks." + exportFormat.getExtension() + "\"")
+                .body(body);
     }
 
     @GetMapping("/user/{userId}")
@@ -69,6 +112,16 @@ public class ProjectController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @GetMapping("/user/{userId}/scroll")
+    @Operation(summary = "Получение проектов пользователя (keyset пагинация)")
+    public ResponseEntity<ApiResponse<CursorPage<ProjectResponse>>> scrollProjectsByUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPage<ProjectResponse> response = projectService.scrollProjectsByUser(userId, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
     @GetMapping("/status/{status}")
     @Operation(summary = "Получение проектов по статусу")
     public ResponseEntity<ApiResponse<Page<ProjectResponse>>> getProjectsByStatus(
@@ -87,6 +140,24 @@ public class ProjectController {
         return ResponseEntity.ok(ApiResponse.success(response, "Участник добавлен"));
     }
 
+    @PostMapping("/{projectId}/members")
+    @Operation(summary = "Пакетное добавление участников в проект")
+    public ResponseEntity<ApiResponse<ProjectResponse>> addMembers(
+            @PathVariable Long projectId,
+            @Valid @RequestBody ProjectMembersRequest request) {
+        ProjectResponse response = projectService.addMembers(projectId, request.getMemberIds());
+        return ResponseEntity.ok(ApiResponse.success(response, "Участники добавлены"));
+    }
+
+    @DeleteMapping("/{projectId}/members")
+    @Operation(summary = "Пакетное удаление участников из проекта")
+    public ResponseEntity<ApiResponse<ProjectResponse>> removeMembers(
+            @PathVariable Long projectId,
+            @Valid @RequestBody ProjectMembersRequest request) {
+        ProjectResponse response = projectService.removeMembers(projectId, request.getMemberIds());
+        return ResponseEntity.ok(ApiResponse.success(response, "Участники удалены"));
+    }
+
     @DeleteMapping("/{projectId}/members/{memberId}")
     @Operation(summary = "Удаление участника из проекта")
     public ResponseEntity<ApiResponse<ProjectResponse>> removeMember(
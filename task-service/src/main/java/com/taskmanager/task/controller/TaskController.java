@@ -2,6 +2,7 @@ package com.taskmanager.task.controller;
 
 import com.taskmanager.common.dto.ApiResponse;
 import com.taskmanager.task.dto.*;
+import com.taskmanager.task.entity.TaskPriority;
 import com.taskmanager.task.entity.TaskStatus;
 import com.taskmanager.task.service.TaskService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -11,10 +12,16 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
 /**
  * REST контроллер для управления задачами
  */
@@ -34,23 +41,91 @@ public class TaskController {
         TaskResponse response = taskService.createTask(request, userId);
         return ResponseEntity
                 .status(HttpStatus.CREATED)
+                .eTag(response.eTag())
                 .body(ApiResponse.success(response, "Задача создана"));
     }
 
+    @PostMapping("/bulk")
+    @Operation(summary = "Пакетное создание задач")
+    public ResponseEntity<ApiResponse<BulkTaskResponse>> createTasks(
+            @RequestBody List<CreateTaskRequest> requests,
+            @RequestHeader(value = "X-User-Id", required = false, defaultValue = "1") Long userId) {
+        BulkTaskResponse response = taskService.createTasks(requests, userId);
+        return ResponseEntity.ok(ApiResponse.success(response, "Пакетное создание выполнено"));
+    }
+
+    @PatchMapping("/bulk")
+    @Operation(summary = "Пакетное обновление задач")
+    public ResponseEntity<ApiResponse<BulkTaskResponse>> updateTasks(
+            @RequestBody List<BulkUpdateTaskItem> items) {
+        BulkTaskResponse response = taskService.updateTasks(items);
+        return ResponseEntity.ok(ApiResponse.success(response, "Пакетное обновление выполнено"));
+    }
+
+    @GetMapping
+    @Operation(summary = "Фильтр задач по проекту, исполнителю, статусам, приоритетам и интервалу дедлайна")
+    public ResponseEntity<ApiResponse<Page<TaskResponse>>> filterTasks(
+            @RequestParam(name = "project", required = false) Long projectId,
+            @RequestParam(name = "assignee", required = false) Long assigneeId,
+            @RequestParam(name = "status", required = false) Set<TaskStatus> statuses,
+            @RequestParam(name = "priority", required = false) Set<TaskPriority> priorities,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime deadlineAfter,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime deadlineBefore,
+            @RequestParam(defaultValue = "true") boolean includeArchived,
+            @PageableDefault(size = 20) Pageable pageable) {
+        TaskFilterCriteria criteria = TaskFilterCriteria.builder()
+                .projectId(projectId)
+                .assigneeId(assigneeId)
+                .statuses(statuses)
+                .priorities(priorities)
+                .deadlineAfter(deadlineAfter)
+                .deadlineBefore(deadlineBefore)
+                .includeArchived(includeArchived)
+                .build();
+        Page<TaskResponse> response = taskService.filterTasks(criteria, pageable);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Полнотекстовый поиск задач (keyset пагинация)")
+    public ResponseEntity<ApiResponse<CursorPage<TaskResponse>>> searchTasks(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Long projectId,
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) Long assigneeId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        TaskSearchCriteria criteria = TaskSearchCriteria.builder()
+                .query(query)
+                .projectId(projectId)
+                .status(status)
+                .assigneeId(assigneeId)
+                .build();
+        CursorPage<TaskResponse> response = taskService.searchTasks(criteria, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
     @GetMapping("/{taskId}")
-    @Operation(summary = "Получение задачи по ID")
-    public ResponseEntity<ApiResponse<TaskResponse>> getTask(@PathVariable Long taskId) {
+    @Operation(summary = "Получение задачи по ID (If-None-Match → 304)")
+    public ResponseEntity<ApiResponse<TaskResponse>> getTask(
+            @PathVariable Long taskId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Ответ берётся из кэша задач, поэтому повторная проверка не обращается к БД
         TaskResponse response = taskService.getTaskById(taskId);
-        return ResponseEntity.ok(ApiResponse.success(response));
+        if (ETags.noneMatchHits(ifNoneMatch, response.eTag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(response.eTag()).build();
+        }
+        return ResponseEntity.ok().eTag(response.eTag()).body(ApiResponse.success(response));
     }
 
     @PutMapping("/{taskId}")
-    @Operation(summary = "Обновление задачи")
+    @Operation(summary = "Обновление задачи (If-Match → 412 при несовпадении версии)")
     public ResponseEntity<ApiResponse<TaskResponse>> updateTask(
             @PathVariable Long taskId,
-            @Valid @RequestBody UpdateTaskRequest request) {
-        TaskResponse response = taskService.updateTask(taskId, request);
-        return ResponseEntity.ok(ApiResponse.success(response, "Задача обновлена"));
+            @Valid @RequestBody UpdateTaskRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaskResponse response = taskService.updateTask(taskId, request, ifMatch);
+        return ResponseEntity.ok().eTag(response.eTag()).body(ApiResponse.success(response, "Задача обновлена"));
     }
 
     @DeleteMapping("/{taskId}")
@@ -87,23 +162,53 @@ public class TaskController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @GetMapping("/project/{projectId}/scroll")
+    @Operation(summary = "Получение задач проекта (keyset пагинация)")
+    public ResponseEntity<ApiResponse<CursorPage<TaskResponse>>> scrollTasksByProject(
+            @PathVariable Long projectId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPage<TaskResponse> response = taskService.scrollTasksByProject(projectId, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @GetMapping("/assignee/{assigneeId}/scroll")
+    @Operation(summary = "Получение задач исполнителя (keyset пагинация)")
+    public ResponseEntity<ApiResponse<CursorPage<TaskResponse>>> scrollTasksByAssignee(
+            @PathVariable Long assigneeId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPage<TaskResponse> response = taskService.scrollTasksByAssignee(assigneeId, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @GetMapping("/status/{status}/scroll")
+    @Operation(summary = "Получение задач по статусу (keyset пагинация)")
+    public ResponseEntity<ApiResponse<CursorPage<TaskResponse>>> scrollTasksByStatus(
+            @PathVariable TaskStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPage<TaskResponse> response = taskService.scrollTasksByStatus(status, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
     @PatchMapping("/{taskId}/status")
     @Operation(summary = "Изменение статуса задачи")
     public ResponseEntity<ApiResponse<TaskResponse>> updateTaskStatus(
             @PathVariable Long taskId,
-            @RequestParam TaskStatus status) {
-        UpdateTaskRequest request = UpdateTaskRequest.builder().status(status).build();
-        TaskResponse response = taskService.updateTask(taskId, request);
-        return ResponseEntity.ok(ApiResponse.success(response, "Статус задачи обновлён"));
+            @RequestParam TaskStatus status,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaskResponse response = taskService.updateTaskStatus(taskId, status, ifMatch);
+        return ResponseEntity.ok().eTag(response.eTag()).body(ApiResponse.success(response, "Статус задачи обновлён"));
     }
 
     @PatchMapping("/{taskId}/assignee")
     @Operation(summary = "Назначение исполнителя")
     public ResponseEntity<ApiResponse<TaskResponse>> assignTask(
             @PathVariable Long taskId,
-            @RequestParam Long assigneeId) {
-        UpdateTaskRequest request = UpdateTaskRequest.builder().assigneeId(assigneeId).build();
-        TaskResponse response = taskService.updateTask(taskId, request);
-        return ResponseEntity.ok(ApiResponse.success(response, "Исполнитель назначен"));
+            @RequestParam Long assigneeId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaskResponse response = taskService.assignTask(taskId, assigneeId, ifMatch);
+        return ResponseEntity.ok().eTag(response.eTag()).body(ApiResponse.success(response, "Исполнитель назначен"));
     }
 }
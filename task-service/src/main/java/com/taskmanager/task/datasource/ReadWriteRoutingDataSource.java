@@ -0,0 +1,99 @@
+package com.taskmanager.task.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource, отправляющий readOnly транзакции на здоровые реплики (по кругу), а остальное на основную БД.
+ * Должен оборачиваться в LazyConnectionDataSourceProxy: флаг readOnly транзакции выставляется
+ * уже после того, как менеджер транзакций запросил соединение.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final List<ReplicaPool> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter writes;
+    private final Counter replicaReads;
+    private final Counter noReplicaFallbacks;
+    private final Counter errorFallbacks;
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<ReplicaPool> replicas, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.writes = routingCounter(meterRegistry, "primary", "write");
+        this.replicaReads = routingCounter(meterRegistry, "replica", "read");
+        this.noReplicaFallbacks = routingCounter(meterRegistry, "primary", "no-healthy-replica");
+        this.errorFallbacks = routingCounter(meterRegistry, "primary", "replica-error");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            return primary.getConnection();
+        }
+
+        ReplicaPool replica = nextHealthyReplica();
+        if (replica == null) {
+            noReplicaFallbacks.increment();
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = replica.getConnection();
+            replicaReads.increment();
+            return connection;
+        } catch (SQLException ex) {
+            // Реплика выводится из ротации до следующей успешной проверки
+            replica.markDown();
+            errorFallbacks.increment();
+            log.warn("Реплика {} недоступна, чтение переключено на основную БД: {}", replica.getName(), ex.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    /**
+     * Соединение с явными учётными данными (пулы, мониторинг, миграции) всегда идёт на основную БД:
+     * учётные данные реплик задаются в их пулах
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        writes.increment();
+        return primary.getConnection(username, password);
+    }
+
+    public List<ReplicaPool> getReplicas() {
+        return replicas;
+    }
+
+    private ReplicaPool nextHealthyReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            ReplicaPool candidate = replicas.get((start + i) % size);
+            if (candidate.isHealthy()) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static Counter routingCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("datasource.routing")
+                .description("Выбор DataSource для соединения")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,92 @@
+package com.taskmanager.task.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Периодическая проверка реплик: недоступная или отстающая больше порога реплика выводится из ротации
+ */
+@Slf4j
+public class ReplicaHealthChecker implements Closeable {
+
+    private final List<ReplicaPool> replicas;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-health-checker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReplicaHealthChecker(List<ReplicaPool> replicas, String lagQuery, Duration maxLag,
+                                MeterRegistry meterRegistry) {
+        this.replicas = List.copyOf(replicas);
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+
+        for (ReplicaPool replica : this.replicas) {
+            Gauge.builder("datasource.replica.lag", replica, ReplicaPool::getLagSeconds)
+                    .description("Отставание реплики в секундах")
+                    .baseUnit("seconds")
+                    .tag("pool", replica.getName())
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                    .description("Реплика участвует в ротации чтения")
+                    .tag("pool", replica.getName())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Запуск периодических проверок
+     */
+    public void start(Duration interval) {
+        scheduler.scheduleWithFixedDelay(this::checkAll, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Проверка всех реплик
+     */
+    public void checkAll() {
+        replicas.forEach(this::check);
+    }
+
+    void check(ReplicaPool replica) {
+        boolean wasHealthy = replica.isHealthy();
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            double lag = resultSet.next() ? resultSet.getDouble(1) : Double.NaN;
+            boolean healthy = !Double.isNaN(lag) && lag <= maxLagSeconds;
+            replica.update(lag, healthy);
+            if (wasHealthy && !healthy) {
+                log.warn("Реплика {} выведена из ротации: отставание {} с при пороге {} с",
+                        replica.getName(), lag, maxLagSeconds);
+            } else if (!wasHealthy && healthy) {
+                log.info("Реплика {} возвращена в ротацию, отставание {} с", replica.getName(), lag);
+            }
+        } catch (SQLException ex) {
+            replica.markDown();
+            if (wasHealthy) {
+                log.warn("Реплика {} выведена из ротации: {}", replica.getName(), ex.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.taskmanager.task.datasource;
+
+import lombok.Getter;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Пул соединений реплики и её последнее известное состояние
+ */
+@Getter
+public class ReplicaPool {
+
+    private final String name;
+    private final DataSource dataSource;
+
+    /**
+     * До первой успешной проверки реплика считается недоступной
+     */
+    private volatile boolean healthy = false;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaPool(String name, DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    public Connection getConnection() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    void update(double lagSeconds, boolean healthy) {
+        this.lagSeconds = lagSeconds;
+        this.healthy = healthy;
+    }
+
+    void markDown() {
+        this.healthy = false;
+    }
+}
@@ -0,0 +1,48 @@
+package com.taskmanager.task.datasource;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+
+import java.sql.SQLException;
+
+/**
+ * readOnly транзакции читают кэш второго уровня, но не пополняют его. Такая транзакция может уйти
+ * на отстающую реплику: загруженная там старая строка вернулась бы в кэш после сброса записи,
+ * сделанного пишущей транзакцией, и жила бы в нём до истечения TTL региона.
+ * Режим записи в кэш восстанавливается после транзакции: EntityManager может пережить её (OSIV).
+ */
+public class ReplicaReadJpaDialect extends HibernateJpaDialect {
+
+    private static final String STORE_MODE = "jakarta.persistence.cache.storeMode";
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException, TransactionException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly()) {
+            return transactionData;
+        }
+        // find() берёт режим из свойств EntityManager, запросы — из сессии; свойство меняет оба
+        Object previousStoreMode = entityManager.getProperties().get(STORE_MODE);
+        entityManager.setProperty(STORE_MODE, CacheStoreMode.BYPASS);
+        return new ReadOnlyTransactionData(transactionData, entityManager,
+                previousStoreMode != null ? previousStoreMode : CacheStoreMode.USE);
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof ReadOnlyTransactionData readOnly) {
+            readOnly.entityManager().setProperty(STORE_MODE, readOnly.previousStoreMode());
+            super.cleanupTransaction(readOnly.delegate());
+        } else {
+            super.cleanupTransaction(transactionData);
+        }
+    }
+
+    private record ReadOnlyTransactionData(Object delegate, EntityManager entityManager, Object previousStoreMode) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.taskmanager.task.dto;
+
+/**
+ * Проекция задачи-кандидата на архивацию: id и ключи инвалидируемых списков
+ */
+public interface ArchivableTask {
+
+    Long getId();
+
+    Long getProjectId();
+
+    Long getAssigneeId();
+}
@@ -0,0 +1,25 @@
+package com.taskmanager.task.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Ошибка обработки одного элемента пакетного запроса
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemError {
+
+    /**
+     * Позиция элемента в запросе
+     */
+    private int index;
+    private Long id;
+    private List<String> errors;
+}
@@ -0,0 +1,21 @@
+package com.taskmanager.task.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Результат пакетной операции: обработанные задачи и ошибки по элементам
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTaskResponse {
+
+    private List<TaskResponse> tasks;
+    private List<BulkItemError> errors;
+}
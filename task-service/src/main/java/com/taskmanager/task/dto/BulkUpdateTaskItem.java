@@ -0,0 +1,30 @@
+package com.taskmanager.task.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Элемент пакетного обновления задач
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateTaskItem {
+
+    @NotNull(message = "ID задачи обязателен")
+    private Long id;
+
+    @Valid
+    @NotNull(message = "Изменения обязательны")
+    private UpdateTaskRequest changes;
+
+    /**
+     * Ожидаемая версия задачи (аналог If-Match); не проверяется, если не задана
+     */
+    private Long version;
+}
@@ -0,0 +1,89 @@
+package com.taskmanager.task.dto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Построение и сравнение ETag по версиям ресурсов (RFC 9110, раздел 8.8.3)
+ */
+public final class ETags {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {
+    }
+
+    /**
+     * Сильный ETag из частей версии; null, если версия ещё неизвестна
+     */
+    public static String of(Object... parts) {
+        if (Arrays.stream(parts).anyMatch(Objects::isNull)) {
+            return null;
+        }
+        return Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining("-", "\"", "\""));
+    }
+
+    /**
+     * If-None-Match: слабое сравнение, "*" совпадает с любым существующим ресурсом
+     */
+    public static boolean noneMatchHits(String header, String etag) {
+        return matches(header, etag, true);
+    }
+
+    /**
+     * If-Match: сильное сравнение, слабые ETag клиента не совпадают никогда
+     */
+    public static boolean ifMatchHolds(String header, String etag) {
+        return header == null || matches(header, etag, false);
+    }
+
+    /**
+     * Версии из If-Match для сравнения в SQL: null — условия нет (заголовка нет или "*"),
+     * слабые и чужие ETag не дают ни одной версии
+     */
+    public static List<Long> versions(String header) {
+        if (header == null) {
+            return null;
+        }
+        List<Long> versions = new ArrayList<>();
+        for (String candidate : header.split(",")) {
+            String tag = candidate.strip();
+            if (tag.equals("*")) {
+                return null;
+            }
+            if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                try {
+                    versions.add(Long.parseLong(tag.substring(1, tag.length() - 1)));
+                } catch (NumberFormatException ignored) {
+                    // ETag другого формата не совпадает ни с одной версией
+                }
+            }
+        }
+        return versions;
+    }
+
+    private static boolean matches(String header, String etag, boolean weak) {
+        if (header == null || etag == null) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String tag = candidate.strip();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith(WEAK_PREFIX)) {
+                if (!weak) {
+                    continue;
+                }
+                tag = tag.substring(WEAK_PREFIX.length());
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,9 @@
+package com.taskmanager.task.dto;
+
+/**
+ * Позиция keyset пагинации, передаваемая клиенту непрозрачным токеном
+ */
+public interface PageCursor {
+
+    String encode();
+}
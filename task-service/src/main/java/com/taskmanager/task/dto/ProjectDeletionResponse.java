@@ -0,0 +1,39 @@
+package com.taskmanager.task.dto;
+
+import com.taskmanager.task.entity.ProjectDeletion;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO прогресса фонового удаления проекта
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectDeletionResponse {
+
+    private Long projectId;
+    private LocalDateTime requestedAt;
+    private long tasksTotal;
+    private long tasksPurged;
+    private long membersPurged;
+    private boolean completed;
+    private LocalDateTime completedAt;
+
+    public static ProjectDeletionResponse fromEntity(ProjectDeletion deletion) {
+        return ProjectDeletionResponse.builder()
+                .projectId(deletion.getProjectId())
+                .requestedAt(deletion.getRequestedAt())
+                .tasksTotal(deletion.getTasksTotal())
+                .tasksPurged(deletion.getTasksPurged())
+                .membersPurged(deletion.getMembersPurged())
+                .completed(deletion.isCompleted())
+                .completedAt(deletion.getCompletedAt())
+                .build();
+    }
+}
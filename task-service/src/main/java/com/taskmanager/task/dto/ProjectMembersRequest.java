@@ -0,0 +1,25 @@
+package com.taskmanager.task.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO для пакетного добавления и удаления участников проекта
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectMembersRequest {
+
+    @NotEmpty(message = "Список участников не может быть пустым")
+    @Size(max = 1000, message = "Не больше 1000 участников за запрос")
+    private List<@NotNull Long> memberIds;
+}
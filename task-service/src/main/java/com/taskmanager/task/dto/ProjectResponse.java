@@ -8,6 +8,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -28,18 +29,30 @@ public class ProjectResponse {
     private Integer taskCount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 
-    public static ProjectResponse fromEntity(Project project) {
+    /**
+     * Количество задач передаётся отдельно, чтобы не загружать коллекцию задач проекта
+     */
+    public static ProjectResponse fromEntity(Project project, long taskCount) {
         return ProjectResponse.builder()
                 .id(project.getId())
                 .name(project.getName())
                 .description(project.getDescription())
                 .status(project.getStatus())
                 .ownerId(project.getOwnerId())
-                .memberIds(project.getMemberIds())
-                .taskCount(project.getTasks() != null ? project.getTasks().size() : 0)
+                .memberIds(new ArrayList<>(project.getMemberIds()))
+                .taskCount((int) taskCount)
                 .createdAt(project.getCreatedAt())
                 .updatedAt(project.getUpdatedAt())
+                .version(project.getVersion())
                 .build();
     }
+
+    /**
+     * Количество задач входит в ETag: оно меняется без изменения версии проекта
+     */
+    public String eTag() {
+        return ETags.of(version, taskCount);
+    }
 }
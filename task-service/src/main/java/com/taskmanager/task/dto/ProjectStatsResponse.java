@@ -0,0 +1,37 @@
+package com.taskmanager.task.dto;
+
+import com.taskmanager.task.entity.ProjectTaskStats;
+import com.taskmanager.task.entity.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * DTO для дашборда проекта: количество задач по статусам
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectStatsResponse {
+
+    private Long projectId;
+    private long totalTasks;
+    private Map<TaskStatus, Long> tasksByStatus;
+
+    public static ProjectStatsResponse fromEntity(ProjectTaskStats stats) {
+        Map<TaskStatus, Long> byStatus = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            byStatus.put(status, stats.get(status));
+        }
+        return ProjectStatsResponse.builder()
+                .projectId(stats.getProjectId())
+                .totalTasks(stats.total())
+                .tasksByStatus(byStatus)
+                .build();
+    }
+}
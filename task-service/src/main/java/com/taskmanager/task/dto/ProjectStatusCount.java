@@ -0,0 +1,15 @@
+package com.taskmanager.task.dto;
+
+import com.taskmanager.task.entity.TaskStatus;
+
+/**
+ * Проекция группирующего запроса: количество задач проекта в статусе
+ */
+public interface ProjectStatusCount {
+
+    Long getProjectId();
+
+    TaskStatus getStatus();
+
+    Long getTaskCount();
+}
@@ -0,0 +1,11 @@
+package com.taskmanager.task.dto;
+
+/**
+ * Проекция для количества задач проекта (результат группирующего запроса)
+ */
+public interface ProjectTaskCount {
+
+    Long getProjectId();
+
+    Long getTaskCount();
+}
@@ -0,0 +1,13 @@
+package com.taskmanager.task.dto;
+
+/**
+ * Проекция задачи удаляемого проекта: id и исполнитель для инвалидации кэшей, версия для события удаления
+ */
+public interface PurgedTask {
+
+    Long getId();
+
+    Long getAssigneeId();
+
+    Long getVersion();
+}
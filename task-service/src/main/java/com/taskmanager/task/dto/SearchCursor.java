@@ -0,0 +1,40 @@
+package com.taskmanager.task.dto;
+
+import com.taskmanager.common.exception.BusinessException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Позиция в выдаче поиска: релевантность и id последней выданной задачи.
+ * Float.toString однозначно восстанавливает значение, поэтому сравнение с ts_rank точное.
+ */
+@Getter
+@AllArgsConstructor
+public class SearchCursor implements PageCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final float rank;
+    private final Long id;
+
+    @Override
+    public String encode() {
+        String raw = rank + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SearchCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new SearchCursor(
+                    Float.parseFloat(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BusinessException("Некорректный курсор пагинации");
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.taskmanager.task.dto;
+
+import com.taskmanager.common.exception.BusinessException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Locale;
+
+/**
+ * Формат выгрузки задач проекта
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TaskExportFormat {
+
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    public static TaskExportFormat fromParameter(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new BusinessException("Неподдерживаемый формат выгрузки: " + value);
+        }
+    }
+}
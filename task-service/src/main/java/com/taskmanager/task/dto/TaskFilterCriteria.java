@@ -0,0 +1,75 @@
+package com.taskmanager.task.dto;
+
+import com.taskmanager.task.entity.TaskPriority;
+import com.taskmanager.task.entity.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Параметры фильтра задач; пустые условия не применяются, условия объединяются через AND
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskFilterCriteria {
+
+    private Long projectId;
+    private Long assigneeId;
+    private Set<TaskStatus> statuses;
+    private Set<TaskPriority> priorities;
+    private LocalDateTime deadlineAfter;
+    private LocalDateTime deadlineBefore;
+
+    /**
+     * false — только горячая секция; по умолчанию фильтр возвращает и архивные задачи
+     */
+    @Builder.Default
+    private boolean includeArchived = true;
+
+    public boolean hasStatuses() {
+        return statuses != null && !statuses.isEmpty();
+    }
+
+    public boolean hasPriorities() {
+        return priorities != null && !priorities.isEmpty();
+    }
+
+    public boolean hasDeadlineRange() {
+        return deadlineAfter != null || deadlineBefore != null;
+    }
+
+    /**
+     * Архивные задачи закрыты, поэтому фильтр только по открытым статусам их не найдёт
+     */
+    public boolean needsArchive() {
+        return includeArchived && (!hasStatuses() || statuses.stream().anyMatch(TaskStatus::isClosed));
+    }
+
+    /**
+     * Ключ кэша: одинаковые фильтры дают один ключ независимо от порядка и повторов значений
+     */
+    public String cacheKey() {
+        return "p=" + (projectId != null ? projectId : "")
+                + ";a=" + (assigneeId != null ? assigneeId : "")
+                + ";s=" + sorted(statuses)
+                + ";pr=" + sorted(priorities)
+                + ";da=" + (deadlineAfter != null ? deadlineAfter : "")
+                + ";db=" + (deadlineBefore != null ? deadlineBefore : "")
+                + ";ar=" + needsArchive();
+    }
+
+    private static String sorted(Collection<? extends Enum<?>> values) {
+        if (values == null) {
+            return "";
+        }
+        return values.stream().map(Enum::name).sorted().distinct().collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,19 @@
+package com.taskmanager.task.dto;
+
+import com.taskmanager.task.entity.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат точечного обновления задачи: новое состояние и значения до изменения
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskPatchResult {
+
+    private TaskResponse task;
+    private TaskStatus previousStatus;
+    private Long previousAssigneeId;
+}
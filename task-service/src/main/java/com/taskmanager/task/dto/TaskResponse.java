@@ -33,6 +33,7 @@ public class TaskResponse {
     private Integer actualHours;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 
     public static TaskResponse fromEntity(Task task) {
         return TaskResponse.builder()
@@ -50,6 +51,11 @@ public class TaskResponse {
                 .actualHours(task.getActualHours())
                 .createdAt(task.getCreatedAt())
                 .updatedAt(task.getUpdatedAt())
+                .version(task.getVersion())
                 .build();
     }
+
+    public String eTag() {
+        return ETags.of(version);
+    }
 }
@@ -0,0 +1,22 @@
+package com.taskmanager.task.dto;
+
+import com.taskmanager.task.entity.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Параметры полнотекстового поиска задач; пустые фильтры не применяются
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSearchCriteria {
+
+    private String query;
+    private Long projectId;
+    private TaskStatus status;
+    private Long assigneeId;
+}
@@ -0,0 +1,17 @@
+package com.taskmanager.task.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Найденная задача и её релевантность (ts_rank)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSearchHit {
+
+    private Long id;
+    private float rank;
+}
@@ -1,5 +1,6 @@
 package com.taskmanager.task.dto;
 
+import com.taskmanager.task.entity.Task;
 import com.taskmanager.task.entity.TaskPriority;
 import com.taskmanager.task.entity.TaskStatus;
 import jakarta.validation.constraints.Size;
@@ -36,4 +37,41 @@ public class UpdateTaskRequest {
     private Integer estimatedHours;
 
     private Integer actualHours;
+
+    /**
+     * Применение заполненных полей к задаче
+     */
+    public void applyTo(Task task) {
+        if (title != null) {
+            task.setTitle(title);
+        }
+        if (description != null) {
+            task.setDescription(description);
+        }
+        if (status != null) {
+            if (status != task.getStatus()) {
+                // Смена статуса возвращает задачу из архива в рабочую секцию
+                task.setArchived(false);
+            }
+            task.setStatus(status);
+        }
+        if (priority != null) {
+            task.setPriority(priority);
+        }
+        if (assigneeId != null) {
+            task.setAssigneeId(assigneeId);
+        }
+        if (deadline != null) {
+            if (!deadline.equals(task.getDeadline())) {
+                task.setOverdueNotifiedAt(null);
+            }
+            task.setDeadline(deadline);
+        }
+        if (estimatedHours != null) {
+            task.setEstimatedHours(estimatedHours);
+        }
+        if (actualHours != null) {
+            task.setActualHours(actualHours);
+        }
+    }
 }
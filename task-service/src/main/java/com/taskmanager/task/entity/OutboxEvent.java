@@ -0,0 +1,57 @@
+package com.taskmanager.task.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Сообщение Kafka, записанное в той же транзакции, что и изменение задачи.
+ * OutboxRelay публикует строки в порядке id и удаляет опубликованные.
+ */
+@Entity
+@Table(name = "outbox")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    /**
+     * Номер берётся из последовательности без предвыделения: запись по одной задаче делается
+     * после фиксации предыдущей, поэтому её id больше и порядок публикации по ключу сохраняется.
+     * Пулы разных реплик этот порядок нарушали бы.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_seq")
+    @SequenceGenerator(name = "outbox_seq", sequenceName = "outbox_id_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(nullable = false, length = 200)
+    private String topic;
+
+    @Column(name = "message_key", length = 200)
+    private String messageKey;
+
+    /**
+     * Тело сообщения в JSON
+     */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
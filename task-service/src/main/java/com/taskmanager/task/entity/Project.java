@@ -2,18 +2,26 @@ package com.taskmanager.task.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 /**
- * Сущность проекта
+ * Сущность проекта. Удалённые проекты не видны ни одному запросу.
+ * Проект и состав участников хранятся в кэше второго уровня Hibernate (см. ProjectEntityCache)
  */
 @Entity
 @Table(name = "projects")
+@SQLRestriction("deleted_at IS NULL")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Project.CACHE_REGION)
 @Getter
 @Setter
 @Builder
@@ -21,8 +29,12 @@ import java.util.List;
 @AllArgsConstructor
 public class Project {
 
+    public static final String CACHE_REGION = "project";
+    public static final String MEMBERS_CACHE_REGION = "project-members";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "projects_seq")
+    @SequenceGenerator(name = "projects_seq", sequenceName = "projects_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -39,15 +51,25 @@ public class Project {
     @Column(name = "owner_id", nullable = false)
     private Long ownerId;
 
+    /**
+     * Участники проекта. Множество с ключом (project_id, user_id): изменения пишутся
+     * отдельными INSERT/DELETE, без пересоздания всей коллекции
+     */
     @ElementCollection
     @CollectionTable(name = "project_members", joinColumns = @JoinColumn(name = "project_id"))
     @Column(name = "user_id")
+    @OrderBy
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Project.MEMBERS_CACHE_REGION)
     @Builder.Default
-    private List<Long> memberIds = new ArrayList<>();
+    private Set<Long> memberIds = new LinkedHashSet<>();
 
-    @OneToMany(mappedBy = "project", cascade = CascadeType.ALL, orphanRemoval = true)
-    @Builder.Default
-    private List<Task> tasks = new ArrayList<>();
+    /**
+     * Версия для оптимистической блокировки и ETag; растёт и при изменении состава участников
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
 
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -56,4 +78,19 @@ public class Project {
     @UpdateTimestamp
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
+
+    /**
+     * Момент мягкого удаления; задачи и участники удаляются ProjectPurgeJob
+     */
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    /**
+     * Замена состава участников разницей: удаляются только выбывшие, добавляются только новые
+     */
+    public void replaceMembers(Collection<Long> newMemberIds) {
+        Set<Long> target = new LinkedHashSet<>(newMemberIds);
+        memberIds.retainAll(target);
+        memberIds.addAll(target);
+    }
 }
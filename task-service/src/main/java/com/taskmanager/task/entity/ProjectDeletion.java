@@ -0,0 +1,61 @@
+package com.taskmanager.task.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Заявка на фоновое удаление проекта и её прогресс. Проект скрыт сразу, задачи и участники
+ * удаляются ProjectPurgeJob пачками; строка остаётся после удаления проекта для просмотра итога.
+ */
+@Entity
+@Table(name = "project_deletions")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectDeletion {
+
+    @Id
+    @Column(name = "project_id")
+    private Long projectId;
+
+    @Column(name = "requested_at", nullable = false)
+    private LocalDateTime requestedAt;
+
+    /**
+     * Число задач по счётчикам проекта на момент удаления
+     */
+    @Column(name = "tasks_total", nullable = false)
+    private long tasksTotal;
+
+    @Column(name = "tasks_purged", nullable = false)
+    private long tasksPurged;
+
+    @Column(name = "members_purged", nullable = false)
+    private long membersPurged;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public static ProjectDeletion requested(Long projectId, long tasksTotal) {
+        return ProjectDeletion.builder()
+                .projectId(projectId)
+                .requestedAt(LocalDateTime.now())
+                .tasksTotal(tasksTotal)
+                .build();
+    }
+
+    public boolean isCompleted() {
+        return completedAt != null;
+    }
+}
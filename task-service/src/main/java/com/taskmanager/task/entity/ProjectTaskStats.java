@@ -0,0 +1,72 @@
+package com.taskmanager.task.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Счётчики задач проекта по статусам. Обновляются дельтами в транзакциях записи задач,
+ * дашборд читает одну строку по первичному ключу.
+ */
+@Entity
+@Table(name = "project_task_stats")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectTaskStats {
+
+    @Id
+    @Column(name = "project_id")
+    private Long projectId;
+
+    @Column(name = "todo_count", nullable = false)
+    private long todoCount;
+
+    @Column(name = "in_progress_count", nullable = false)
+    private long inProgressCount;
+
+    @Column(name = "in_review_count", nullable = false)
+    private long inReviewCount;
+
+    @Column(name = "done_count", nullable = false)
+    private long doneCount;
+
+    @Column(name = "cancelled_count", nullable = false)
+    private long cancelledCount;
+
+    public static ProjectTaskStats empty(Long projectId) {
+        return ProjectTaskStats.builder().projectId(projectId).build();
+    }
+
+    public long get(TaskStatus status) {
+        return switch (status) {
+            case TODO -> todoCount;
+            case IN_PROGRESS -> inProgressCount;
+            case IN_REVIEW -> inReviewCount;
+            case DONE -> doneCount;
+            case CANCELLED -> cancelledCount;
+        };
+    }
+
+    public void set(TaskStatus status, long count) {
+        switch (status) {
+            case TODO -> todoCount = count;
+            case IN_PROGRESS -> inProgressCount = count;
+            case IN_REVIEW -> inReviewCount = count;
+            case DONE -> doneCount = count;
+            case CANCELLED -> cancelledCount = count;
+        }
+    }
+
+    public long total() {
+        return todoCount + inProgressCount + inReviewCount + doneCount + cancelledCount;
+    }
+}
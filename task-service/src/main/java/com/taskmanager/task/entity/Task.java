@@ -19,8 +19,12 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Task {
 
+    /**
+     * Sequence с pooled оптимизатором: один nextval на 50 id и пакетные INSERT (IDENTITY отключает batching)
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 200)
@@ -58,6 +62,19 @@ public class Task {
     @Column(name = "actual_hours")
     private Integer actualHours;
 
+    /**
+     * Момент отправки уведомления о просрочке; сбрасывается при переносе дедлайна
+     */
+    @Column(name = "overdue_notified_at")
+    private LocalDateTime overdueNotifiedAt;
+
+    /**
+     * Закрытая задача перенесена в архивную секцию tasks_archive; рабочие выборки её не читают
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private boolean archived = false;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -65,4 +82,11 @@ public class Task {
     @UpdateTimestamp
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
+
+    /**
+     * Версия для оптимистической блокировки и ETag
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
@@ -8,5 +8,12 @@ public enum TaskStatus {
     IN_PROGRESS,
     IN_REVIEW,
     DONE,
-    CANCELLED
+    CANCELLED;
+
+    /**
+     * Закрытые задачи со временем переносятся в архивную секцию, открытые всегда в горячей
+     */
+    public boolean isClosed() {
+        return this == DONE || this == CANCELLED;
+    }
 }
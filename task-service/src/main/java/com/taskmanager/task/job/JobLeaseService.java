@@ -0,0 +1,89 @@
+package com.taskmanager.task.job;
+
+import com.taskmanager.task.entity.JobLease;
+import com.taskmanager.task.repository.JobLeaseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Аренды фоновых задач в БД: из всех реплик сервиса задачу выполняет только одна.
+ * Каждая операция фиксируется в собственной транзакции, независимо от работы самой задачи.
+ * Сроки аренды считаются по часам БД, а не реплики.
+ */
+@Slf4j
+@Service
+public class JobLeaseService {
+
+    private final JobLeaseRepository leaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String instanceId;
+
+    @Autowired
+    public JobLeaseService(JobLeaseRepository leaseRepository, PlatformTransactionManager transactionManager) {
+        this(leaseRepository, transactionManager, defaultInstanceId());
+    }
+
+    JobLeaseService(JobLeaseRepository leaseRepository, PlatformTransactionManager transactionManager, String instanceId) {
+        this.leaseRepository = leaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.instanceId = instanceId;
+    }
+
+    /**
+     * Захват или продление аренды на ttl
+     */
+    public boolean tryAcquire(String job, Duration ttl) {
+        Integer updated = transactionTemplate.execute(status -> leaseRepository.tryAcquire(job, instanceId, ttl.toNanos()));
+        if (updated != null && updated == 1) {
+            return true;
+        }
+
+        // Первый запуск задачи: строки аренды ещё нет, вставку выигрывает одна реплика
+        try {
+            Boolean created = transactionTemplate.execute(status -> {
+                if (leaseRepository.existsById(job)) {
+                    return false;
+                }
+                LocalDateTime lockedUntil = leaseRepository.currentTime().plus(ttl);
+                leaseRepository.saveAndFlush(new JobLease(job, instanceId, lockedUntil));
+                return true;
+            });
+            return Boolean.TRUE.equals(created);
+        } catch (DataIntegrityViolationException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Досрочное освобождение своей аренды
+     */
+    public void release(String job) {
+        transactionTemplate.executeWithoutResult(status -> leaseRepository.release(job, instanceId));
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    private static String defaultInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException ex) {
+            host = "unknown";
+        }
+        return host + ":" + UUID.randomUUID();
+    }
+}
@@ -0,0 +1,150 @@
+package com.taskmanager.task.job;
+
+import com.taskmanager.task.config.OutboxRelayProperties;
+import com.taskmanager.task.entity.OutboxEvent;
+import com.taskmanager.task.repository.OutboxRepository;
+import com.taskmanager.task.service.KafkaProducerService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Публикация outbox в Kafka. Строки читаются пачками в порядке id, отправляются одним flush
+ * продюсера и после подтверждения удаляются одним DELETE. Доставка не реже одного раза:
+ * строки, подтверждение которых не получено, отправятся повторно следующим запуском.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "outbox-relay", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    static final String JOB_NAME = "outbox-relay";
+
+    private final OutboxRepository outboxRepository;
+    private final KafkaProducerService kafkaProducerService;
+    private final JobLeaseService leaseService;
+    private final OutboxRelayProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter published;
+    private final DistributionSummary batchSize;
+    private final Timer relayDuration;
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       KafkaProducerService kafkaProducerService,
+                       JobLeaseService leaseService,
+                       OutboxRelayProperties properties,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.kafkaProducerService = kafkaProducerService;
+        this.leaseService = leaseService;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.published = Counter.builder("outbox.relay.published")
+                .description("Сообщения outbox, подтверждённые Kafka")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("outbox.relay.batch.size")
+                .description("Число строк в пачке публикации outbox")
+                .register(meterRegistry);
+        this.relayDuration = Timer.builder("outbox.relay.duration")
+                .description("Длительность запуска публикации outbox")
+                .register(meterRegistry);
+        Gauge.builder("outbox.relay.lag", lagMillis, lag -> lag.get() / 1000.0)
+                .description("Возраст самой старой неопубликованной строки outbox после последнего запуска")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox-relay.interval:PT0.5S}",
+            initialDelayString = "${outbox-relay.initial-delay:PT5S}")
+    public void scheduledRelay() {
+        if (!leaseService.tryAcquire(JOB_NAME, properties.getLeaseTtl())) {
+            log.debug("Публикацию outbox выполняет другая реплика");
+            return;
+        }
+        try {
+            relay();
+        } finally {
+            leaseService.release(JOB_NAME);
+        }
+    }
+
+    /**
+     * Один проход: не больше maxBatchesPerRun пачек. Возвращает число опубликованных строк
+     */
+    public int relay() {
+        return relayDuration.record(() -> {
+            Pageable batch = PageRequest.of(0, properties.getBatchSize());
+            int total = 0;
+
+            for (int i = 0; i < properties.getMaxBatchesPerRun(); i++) {
+                List<OutboxEvent> events = outboxRepository.findBatch(batch);
+                if (events.isEmpty()) {
+                    break;
+                }
+                int acknowledged = publish(events);
+                if (acknowledged > 0) {
+                    List<Long> ids = events.subList(0, acknowledged).stream().map(OutboxEvent::getId).toList();
+                    transactionTemplate.executeWithoutResult(status -> outboxRepository.deleteByIds(ids));
+                    published.increment(acknowledged);
+                    batchSize.record(acknowledged);
+                    total += acknowledged;
+                }
+                if (acknowledged < events.size() || events.size() < batch.getPageSize()
+                        || !leaseService.tryAcquire(JOB_NAME, properties.getLeaseTtl())) {
+                    break;
+                }
+            }
+
+            LocalDateTime oldest = outboxRepository.findOldestCreatedAt();
+            lagMillis.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()));
+            if (total > 0) {
+                log.debug("Опубликовано сообщений outbox: {}", total);
+            }
+            return total;
+        });
+    }
+
+    /**
+     * Длина подтверждённого префикса пачки. Строки после первой неудачной остаются в outbox даже
+     * при успешной отправке: их повтор идёт после повтора неудачной, и порядок по ключу не нарушается
+     */
+    private int publish(List<OutboxEvent> events) {
+        List<CompletableFuture<?>> futures = kafkaProducerService.sendOutbox(events);
+        long deadline = System.nanoTime() + properties.getSendTimeout().toNanos();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return i;
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("Публикация outbox остановлена на строке {}: {}", events.get(i).getId(), e.getMessage());
+                return i;
+            }
+        }
+        return futures.size();
+    }
+}
@@ -0,0 +1,177 @@
+package com.taskmanager.task.job;
+
+import com.taskmanager.common.dto.NotificationDto;
+import com.taskmanager.task.cache.TaskListingCache;
+import com.taskmanager.task.config.OverdueScannerProperties;
+import com.taskmanager.task.entity.Task;
+import com.taskmanager.task.repository.TaskRepository;
+import com.taskmanager.task.service.OutboxService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Поиск просроченных задач и рассылка уведомлений о просрочке.
+ * Задачи обходятся пачками по (deadline, id); отметки пачки и её уведомления пишутся в outbox
+ * в одной транзакции, поэтому уведомление по задаче ставится один раз, пока не перенесён её дедлайн.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "overdue-scanner", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OverdueTaskScanner {
+
+    static final String JOB_NAME = "overdue-task-scanner";
+
+    private static final DateTimeFormatter DEADLINE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+
+    private final TaskRepository taskRepository;
+    private final TaskListingCache taskListingCache;
+    private final OutboxService outboxService;
+    private final JobLeaseService leaseService;
+    private final OverdueScannerProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final DistributionSummary batchSize;
+    private final Timer scanDuration;
+    private final Counter notified;
+    private final AtomicLong backlog = new AtomicLong();
+
+    public OverdueTaskScanner(TaskRepository taskRepository,
+                              TaskListingCache taskListingCache,
+                              OutboxService outboxService,
+                              JobLeaseService leaseService,
+                              OverdueScannerProperties properties,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.taskListingCache = taskListingCache;
+        this.outboxService = outboxService;
+        this.leaseService = leaseService;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.batchSize = DistributionSummary.builder("overdue.scan.batch.size")
+                .description("Число задач в пачке поиска просроченных")
+                .register(meterRegistry);
+        this.scanDuration = Timer.builder("overdue.scan.duration")
+                .description("Длительность запуска поиска просроченных задач")
+                .register(meterRegistry);
+        this.notified = Counter.builder("overdue.scan.notified")
+                .description("Задачи, по которым поставлено уведомление о просрочке")
+                .register(meterRegistry);
+        Gauge.builder("overdue.scan.backlog", backlog, AtomicLong::get)
+                .description("Просроченные задачи, ожидающие уведомления, после последнего запуска")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${overdue-scanner.interval:PT1M}",
+            initialDelayString = "${overdue-scanner.initial-delay:PT30S}")
+    public void scheduledScan() {
+        if (!leaseService.tryAcquire(JOB_NAME, properties.getLeaseTtl())) {
+            log.debug("Поиск просроченных задач выполняет другая реплика");
+            return;
+        }
+        try {
+            scan();
+        } finally {
+            leaseService.release(JOB_NAME);
+        }
+    }
+
+    /**
+     * Один проход: не больше maxBatchesPerRun пачек
+     */
+    public int scan() {
+        return scanDuration.record(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            Pageable batch = PageRequest.of(0, properties.getBatchSize());
+            int total = 0;
+            Task last = null;
+
+            for (int i = 0; i < properties.getMaxBatchesPerRun(); i++) {
+                Task after = last;
+                List<Task> tasks = transactionTemplate.execute(status -> processBatch(now, after, batch));
+                if (tasks == null || tasks.isEmpty()) {
+                    break;
+                }
+                total += tasks.size();
+                invalidateCaches(tasks);
+                last = tasks.get(tasks.size() - 1);
+                if (tasks.size() < batch.getPageSize()
+                        || !leaseService.tryAcquire(JOB_NAME, properties.getLeaseTtl())) {
+                    break;
+                }
+            }
+
+            backlog.set(taskRepository.countOverduePending(now));
+            if (total > 0) {
+                log.info("Поставлены уведомления о просрочке: {} задач, осталось {}", total, backlog.get());
+            }
+            return total;
+        });
+    }
+
+    private List<Task> processBatch(LocalDateTime now, Task after, Pageable batch) {
+        List<Task> tasks = after == null
+                ? taskRepository.findOverdueBatch(now, batch)
+                : taskRepository.findOverdueBatchAfter(now, after.getDeadline(), after.getId(), batch);
+        if (tasks.isEmpty()) {
+            return tasks;
+        }
+
+        taskRepository.markOverdueNotified(tasks.stream().map(Task::getId).toList(), now);
+        List<NotificationDto> notifications = tasks.stream().map(this::overdueNotification).toList();
+        outboxService.enqueueNotifications(notifications);
+
+        batchSize.record(tasks.size());
+        notified.increment(tasks.size());
+        return tasks;
+    }
+
+    /**
+     * Отметка увеличила версию задач (ETag): после коммита пачки сбрасываются записи задач и списки с ними
+     */
+    private void invalidateCaches(List<Task> tasks) {
+        Set<Long> projectIds = new HashSet<>();
+        Set<Long> assigneeIds = new HashSet<>();
+        for (Task task : tasks) {
+            taskListingCache.evictTaskEntry(task.getId());
+            projectIds.add(task.getProject().getId());
+            assigneeIds.add(task.getAssigneeId());
+        }
+        projectIds.forEach(taskListingCache::invalidateProject);
+        assigneeIds.stream().filter(Objects::nonNull).forEach(taskListingCache::invalidateAssignee);
+    }
+
+    private NotificationDto overdueNotification(Task task) {
+        return NotificationDto.builder()
+                .id(UUID.randomUUID().toString())
+                .userId(task.getAssigneeId() != null ? task.getAssigneeId() : task.getCreatorId())
+                .type("TASK_OVERDUE")
+                .title("Задача просрочена")
+                .message(String.format("Срок задачи '%s' истёк %s",
+                        task.getTitle(), task.getDeadline().format(DEADLINE_FORMAT)))
+                .channel("EMAIL")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
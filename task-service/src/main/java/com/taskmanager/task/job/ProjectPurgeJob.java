@@ -0,0 +1,178 @@
+package com.taskmanager.task.job;
+
+import com.taskmanager.task.cache.TaskListingCache;
+import com.taskmanager.task.config.ProjectPurgeProperties;
+import com.taskmanager.task.dto.PurgedTask;
+import com.taskmanager.task.entity.ProjectDeletion;
+import com.taskmanager.task.repository.ProjectDeletionRepository;
+import com.taskmanager.task.repository.ProjectRepository;
+import com.taskmanager.task.repository.TaskRepository;
+import com.taskmanager.task.service.OutboxService;
+import com.taskmanager.task.service.TaskEvents;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Фоновая очистка мягко удалённых проектов. Задачи, затем участники удаляются пачками
+ * set-based запросами, каждая пачка в своей транзакции; последней удаляется строка проекта.
+ * Прогресс сохраняется в project_deletions вместе с пачкой, поэтому прерванная очистка продолжается с места.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "project-purge", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ProjectPurgeJob {
+
+    static final String JOB_NAME = "project-purge";
+
+    private final ProjectDeletionRepository deletionRepository;
+    private final ProjectRepository projectRepository;
+    private final TaskRepository taskRepository;
+    private final TaskListingCache taskListingCache;
+    private final OutboxService outboxService;
+    private final JobLeaseService leaseService;
+    private final ProjectPurgeProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter tasksPurged;
+    private final Counter membersPurged;
+    private final Counter projectsPurged;
+    private final Timer purgeDuration;
+    private final AtomicLong pending = new AtomicLong();
+
+    public ProjectPurgeJob(ProjectDeletionRepository deletionRepository,
+                           ProjectRepository projectRepository,
+                           TaskRepository taskRepository,
+                           TaskListingCache taskListingCache,
+                           OutboxService outboxService,
+                           JobLeaseService leaseService,
+                           ProjectPurgeProperties properties,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
+        this.deletionRepository = deletionRepository;
+        this.projectRepository = projectRepository;
+        this.taskRepository = taskRepository;
+        this.taskListingCache = taskListingCache;
+        this.outboxService = outboxService;
+        this.leaseService = leaseService;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.tasksPurged = Counter.builder("projects.purge.tasks")
+                .description("Задачи, удалённые фоновой очисткой проектов")
+                .register(meterRegistry);
+        this.membersPurged = Counter.builder("projects.purge.members")
+                .description("Участники, удалённые фоновой очисткой проектов")
+                .register(meterRegistry);
+        this.projectsPurged = Counter.builder("projects.purge.completed")
+                .description("Проекты, очистка которых завершена")
+                .register(meterRegistry);
+        this.purgeDuration = Timer.builder("projects.purge.duration")
+                .description("Длительность запуска очистки удалённых проектов")
+                .register(meterRegistry);
+        Gauge.builder("projects.purge.pending", pending, AtomicLong::get)
+                .description("Удалённые проекты, ожидающие очистки, после последнего запуска")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${project-purge.interval:PT10S}",
+            initialDelayString = "${project-purge.initial-delay:PT20S}")
+    public void scheduledPurge() {
+        if (!leaseService.tryAcquire(JOB_NAME, properties.getLeaseTtl())) {
+            log.debug("Очистку удалённых проектов выполняет другая реплика");
+            return;
+        }
+        try {
+            purge();
+        } finally {
+            leaseService.release(JOB_NAME);
+        }
+    }
+
+    /**
+     * Один проход по заявкам в порядке поступления: не больше maxBatchesPerRun пачек
+     */
+    public int purge() {
+        return purgeDuration.record(() -> {
+            int batches = 0;
+            boolean leaseHeld = true;
+            for (ProjectDeletion deletion : deletionRepository.findPending()) {
+                boolean completed = false;
+                while (!completed && leaseHeld && batches < properties.getMaxBatchesPerRun()) {
+                    List<PurgedTask> purged = new ArrayList<>();
+                    completed = Boolean.TRUE.equals(
+                            transactionTemplate.execute(status -> purgeBatch(deletion.getProjectId(), purged)));
+                    batches++;
+                    invalidateTasks(purged);
+                    leaseHeld = leaseService.tryAcquire(JOB_NAME, properties.getLeaseTtl());
+                }
+                if (!completed) {
+                    break;
+                }
+            }
+
+            pending.set(deletionRepository.countByCompletedAtIsNull());
+            return batches;
+        });
+    }
+
+    /**
+     * Одна пачка задач, иначе одна пачка участников, иначе удаление строки проекта.
+     * Возвращает true, когда проект удалён полностью.
+     */
+    private boolean purgeBatch(Long projectId, List<PurgedTask> purged) {
+        ProjectDeletion deletion = deletionRepository.findById(projectId).orElseThrow();
+        int limit = properties.getBatchSize();
+
+        List<PurgedTask> tasks = taskRepository.findPurgeBatch(projectId, PageRequest.of(0, limit));
+        if (!tasks.isEmpty()) {
+            int deleted = taskRepository.deleteByIds(tasks.stream().map(PurgedTask::getId).toList());
+            // Потребители task-events держат состояние по задаче, удаление проекта закрывает и его задачи
+            outboxService.enqueueTaskEvents(tasks.stream()
+                    .map(task -> TaskEvents.deleted(task.getId(), projectId, task.getVersion()))
+                    .toList());
+            deletion.setTasksPurged(deletion.getTasksPurged() + deleted);
+            tasksPurged.increment(deleted);
+            purged.addAll(tasks);
+            return false;
+        }
+
+        List<Long> members = projectRepository.findMemberBatch(projectId, limit);
+        if (!members.isEmpty()) {
+            int deleted = projectRepository.deleteMembers(projectId, members);
+            deletion.setMembersPurged(deletion.getMembersPurged() + deleted);
+            membersPurged.increment(deleted);
+            return false;
+        }
+
+        projectRepository.purgeDeleted(projectId);
+        deletion.setCompletedAt(LocalDateTime.now());
+        projectsPurged.increment();
+        log.info("Очистка проекта {} завершена: задач {}, участников {}",
+                projectId, deletion.getTasksPurged(), deletion.getMembersPurged());
+        return true;
+    }
+
+    /**
+     * Задачи удаляемого проекта скрыты запросами, но могли остаться в кэше записей и списков исполнителей
+     */
+    private void invalidateTasks(List<PurgedTask> tasks) {
+        tasks.forEach(task -> taskListingCache.evictTaskEntry(task.getId()));
+        tasks.stream().map(PurgedTask::getAssigneeId).filter(Objects::nonNull).distinct()
+                .forEach(taskListingCache::invalidateAssignee);
+    }
+}
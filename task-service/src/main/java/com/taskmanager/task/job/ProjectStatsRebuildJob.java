@@ -0,0 +1,41 @@
+package com.taskmanager.task.job;
+
+import com.taskmanager.task.service.ProjectStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Периодический пересчёт счётчиков задач проектов с нуля: исправляет расхождения,
+ * если дельты были потеряны (ручные правки БД, ошибки миграций)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProjectStatsRebuildJob {
+
+    static final String JOB_NAME = "project-stats-rebuild";
+
+    private final ProjectStatsService projectStatsService;
+    private final JobLeaseService leaseService;
+
+    @Value("${project-stats.rebuild-lease-ttl:PT30M}")
+    private Duration leaseTtl;
+
+    @Scheduled(cron = "${project-stats.rebuild-cron:0 30 3 * * *}")
+    public void rebuild() {
+        if (!leaseService.tryAcquire(JOB_NAME, leaseTtl)) {
+            log.debug("Пересчёт счётчиков задач выполняет другая реплика");
+            return;
+        }
+        try {
+            projectStatsService.rebuildAll();
+        } finally {
+            leaseService.release(JOB_NAME);
+        }
+    }
+}
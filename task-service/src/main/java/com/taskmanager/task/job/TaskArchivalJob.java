@@ -0,0 +1,132 @@
+package com.taskmanager.task.job;
+
+import com.taskmanager.task.cache.TaskListingCache;
+import com.taskmanager.task.config.TaskArchivalProperties;
+import com.taskmanager.task.dto.ArchivableTask;
+import com.taskmanager.task.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Перенос закрытых задач, не изменявшихся дольше retention, в архивную секцию tasks_archive.
+ * Рабочие выборки читают только горячую секцию, поэтому её объём определяется открытыми задачами,
+ * а не историей. Кэши списков инвалидируются после коммита каждой пачки.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "task-archival", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TaskArchivalJob {
+
+    static final String JOB_NAME = "task-archival";
+
+    private final TaskRepository taskRepository;
+    private final TaskListingCache taskListingCache;
+    private final JobLeaseService leaseService;
+    private final TaskArchivalProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter archived;
+    private final Timer archivalDuration;
+
+    public TaskArchivalJob(TaskRepository taskRepository,
+                           TaskListingCache taskListingCache,
+                           JobLeaseService leaseService,
+                           TaskArchivalProperties properties,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.taskListingCache = taskListingCache;
+        this.leaseService = leaseService;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.archived = Counter.builder("tasks.archived")
+                .description("Задачи, перенесённые в архивную секцию")
+                .register(meterRegistry);
+        this.archivalDuration = Timer.builder("tasks.archival.duration")
+                .description("Длительность запуска архивации задач")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${task-archival.cron:0 0 4 * * *}")
+    public void scheduledArchive() {
+        if (!leaseService.tryAcquire(JOB_NAME, properties.getLeaseTtl())) {
+            log.debug("Архивацию задач выполняет другая реплика");
+            return;
+        }
+        try {
+            archive();
+        } finally {
+            leaseService.release(JOB_NAME);
+        }
+    }
+
+    /**
+     * Один проход: не больше maxBatchesPerRun пачек
+     */
+    public int archive() {
+        return archivalDuration.record(() -> {
+            LocalDateTime closedBefore = LocalDateTime.now().minus(properties.getRetention());
+            Pageable batch = PageRequest.of(0, properties.getBatchSize());
+            int total = 0;
+
+            for (int i = 0; i < properties.getMaxBatchesPerRun(); i++) {
+                List<ArchivableTask> tasks = transactionTemplate.execute(status -> archiveBatch(closedBefore, batch));
+                if (tasks == null || tasks.isEmpty()) {
+                    break;
+                }
+                total += tasks.size();
+                invalidateCaches(tasks);
+                if (tasks.size() < batch.getPageSize()
+                        || !leaseService.tryAcquire(JOB_NAME, properties.getLeaseTtl())) {
+                    break;
+                }
+            }
+
+            if (total > 0) {
+                log.info("Перенесено в архив задач: {}", total);
+            }
+            return total;
+        });
+    }
+
+    private List<ArchivableTask> archiveBatch(LocalDateTime closedBefore, Pageable batch) {
+        List<ArchivableTask> tasks = taskRepository.findArchivable(closedBefore, batch);
+        if (tasks.isEmpty()) {
+            return tasks;
+        }
+        int moved = taskRepository.archive(tasks.stream().map(ArchivableTask::getId).toList());
+        archived.increment(moved);
+        return tasks;
+    }
+
+    /**
+     * Архивная задача доступна по id, но её версия (ETag) изменилась: сбрасываются и списки, и записи задач
+     */
+    private void invalidateCaches(List<ArchivableTask> tasks) {
+        Set<Long> projectIds = new HashSet<>();
+        Set<Long> assigneeIds = new HashSet<>();
+        for (ArchivableTask task : tasks) {
+            taskListingCache.evictTaskEntry(task.getId());
+            projectIds.add(task.getProjectId());
+            assigneeIds.add(task.getAssigneeId());
+        }
+        projectIds.forEach(taskListingCache::invalidateProject);
+        assigneeIds.stream().filter(Objects::nonNull).forEach(taskListingCache::invalidateAssignee);
+    }
+}
@@ -0,0 +1,38 @@
+package com.taskmanager.task.repository;
+
+import com.taskmanager.task.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Репозиторий аренд фоновых задач
+ */
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /**
+     * Захват или продление аренды одним UPDATE: успешно, если аренда своя или уже истекла.
+     * Время берётся из БД, чтобы расхождение часов реплик не влияло на истечение аренды
+     */
+    @Modifying
+    @Query("UPDATE JobLease l SET l.owner = :owner, l.lockedUntil = local datetime + :ttlNanos nanosecond " +
+            "WHERE l.name = :name AND (l.owner = :owner OR l.lockedUntil < local datetime)")
+    int tryAcquire(@Param("name") String name,
+                   @Param("owner") String owner,
+                   @Param("ttlNanos") long ttlNanos);
+
+    @Modifying
+    @Query("UPDATE JobLease l SET l.lockedUntil = local datetime WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner);
+
+    /**
+     * Текущее время БД: срок аренды новой строки считается от тех же часов, что и в tryAcquire
+     */
+    @Query(value = "SELECT LOCALTIMESTAMP", nativeQuery = true)
+    LocalDateTime currentTime();
+}
@@ -0,0 +1,33 @@
+package com.taskmanager.task.repository;
+
+import com.taskmanager.task.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Репозиторий outbox. Строки читаются и удаляются по первичному ключу
+ */
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query("SELECT e FROM OutboxEvent e ORDER BY e.id")
+    List<OutboxEvent> findBatch(Pageable pageable);
+
+    /**
+     * Время создания самой старой неопубликованной строки (по id, без сортировки по created_at)
+     */
+    @Query(value = "SELECT created_at FROM outbox ORDER BY id LIMIT 1", nativeQuery = true)
+    LocalDateTime findOldestCreatedAt();
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
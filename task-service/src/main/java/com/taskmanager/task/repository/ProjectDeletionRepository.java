@@ -0,0 +1,20 @@
+package com.taskmanager.task.repository;
+
+import com.taskmanager.task.entity.ProjectDeletion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Репозиторий заявок на фоновое удаление проектов
+ */
+@Repository
+public interface ProjectDeletionRepository extends JpaRepository<ProjectDeletion, Long> {
+
+    @Query("SELECT d FROM ProjectDeletion d WHERE d.completedAt IS NULL ORDER BY d.requestedAt, d.projectId")
+    List<ProjectDeletion> findPending();
+
+    long countByCompletedAtIsNull();
+}
@@ -2,13 +2,20 @@ package com.taskmanager.task.repository;
 
 import com.taskmanager.task.entity.Project;
 import com.taskmanager.task.entity.ProjectStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -17,17 +24,64 @@ import java.util.List;
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long> {
 
+    /**
+     * id проектов, доступных пользователю: участие ищется по индексу project_members (user_id, project_id),
+     * владение — по индексу owner_id, результаты объединяются. Условие OR владельца с подзапросом участника
+     * индексами не покрывается и приводит к обходу всех проектов.
+     */
+    String ACCESSIBLE_IDS = "(SELECT m.id FROM Project m JOIN m.memberIds u WHERE u = :userId " +
+            "UNION SELECT o.id FROM Project o WHERE o.ownerId = :userId)";
+
     Page<Project> findByOwnerId(Long ownerId, Pageable pageable);
 
     Page<Project> findByStatus(ProjectStatus status, Pageable pageable);
 
-    @Query("SELECT p FROM Project p WHERE p.ownerId = :userId OR :userId MEMBER OF p.memberIds")
+    @Query("SELECT p FROM Project p WHERE p.id IN " + ACCESSIBLE_IDS)
     Page<Project> findByUserAccess(@Param("userId") Long userId, Pageable pageable);
 
-    @Query("SELECT p FROM Project p WHERE (p.ownerId = :userId OR :userId MEMBER OF p.memberIds) AND p.status = :status")
+    @Query("SELECT p FROM Project p WHERE p.id IN " + ACCESSIBLE_IDS + " AND p.status = :status")
     Page<Project> findByUserAccessAndStatus(@Param("userId") Long userId, @Param("status") ProjectStatus status, Pageable pageable);
 
     List<Project> findByOwnerIdAndStatus(Long ownerId, ProjectStatus status);
 
+    /**
+     * Результат хранится в кэше запросов и сбрасывается любой записью в projects
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByNameAndOwnerId(String name, Long ownerId);
+
+    @Query("SELECT p.id FROM Project p")
+    List<Long> findAllIds();
+
+    // Очистка мягко удалённого проекта: сущность скрыта @SQLRestriction, поэтому запросы нативные.
+    // Затрагиваемые таблицы указаны явно, иначе нативный DML сбрасывает весь кэш второго уровня
+
+    @Query(value = "SELECT user_id FROM project_members WHERE project_id = :projectId ORDER BY user_id LIMIT :limit",
+            nativeQuery = true)
+    List<Long> findMemberBatch(@Param("projectId") Long projectId, @Param("limit") int limit);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "project_members"))
+    @Query(value = "DELETE FROM project_members WHERE project_id = :projectId AND user_id IN (:userIds)",
+            nativeQuery = true)
+    int deleteMembers(@Param("projectId") Long projectId, @Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "projects"))
+    @Query(value = "DELETE FROM projects WHERE id = :projectId AND deleted_at IS NOT NULL", nativeQuery = true)
+    int purgeDeleted(@Param("projectId") Long projectId);
+
+    // Keyset пагинация по (created_at, id): Slice без COUNT, первая страница и страницы после курсора
+
+    @Query("SELECT p FROM Project p WHERE p.id IN " + ACCESSIBLE_IDS +
+            " ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<Project> scrollByUserAccess(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT p FROM Project p WHERE p.id IN " + ACCESSIBLE_IDS +
+            " AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<Project> scrollByUserAccessAfter(@Param("userId") Long userId,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") Long id,
+                                           Pageable pageable);
 }
@@ -0,0 +1,44 @@
+package com.taskmanager.task.repository;
+
+import com.taskmanager.task.entity.ProjectTaskStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Репозиторий счётчиков задач проектов
+ */
+@Repository
+public interface ProjectTaskStatsRepository extends JpaRepository<ProjectTaskStats, Long> {
+
+    /**
+     * Атомарное применение дельт по всем статусам одним UPDATE
+     */
+    @Modifying
+    @Query("UPDATE ProjectTaskStats s SET " +
+            "s.todoCount = s.todoCount + :todo, " +
+            "s.inProgressCount = s.inProgressCount + :inProgress, " +
+            "s.inReviewCount = s.inReviewCount + :inReview, " +
+            "s.doneCount = s.doneCount + :done, " +
+            "s.cancelledCount = s.cancelledCount + :cancelled " +
+            "WHERE s.projectId = :projectId")
+    int adjust(@Param("projectId") Long projectId,
+               @Param("todo") long todo,
+               @Param("inProgress") long inProgress,
+               @Param("inReview") long inReview,
+               @Param("done") long done,
+               @Param("cancelled") long cancelled);
+
+    /**
+     * Блокировка всех счётчиков на время пересчёта: параллельные дельты ждут его завершения
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ProjectTaskStats s")
+    List<ProjectTaskStats> findAllForUpdate();
+}
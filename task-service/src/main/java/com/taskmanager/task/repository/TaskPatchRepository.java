@@ -0,0 +1,24 @@
+package com.taskmanager.task.repository;
+
+import com.taskmanager.task.dto.TaskPatchResult;
+import com.taskmanager.task.entity.TaskStatus;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Точечные обновления одного поля задачи одним UPDATE ... RETURNING без загрузки сущности (только PostgreSQL).
+ * Пустой результат: задачи нет, версия не совпала или значение уже установлено.
+ */
+public interface TaskPatchRepository {
+
+    /**
+     * @param expectedVersions допустимые версии (If-Match); null — без проверки
+     */
+    Optional<TaskPatchResult> patchStatus(Long taskId, TaskStatus status, Collection<Long> expectedVersions);
+
+    /**
+     * @param expectedVersions допустимые версии (If-Match); null — без проверки
+     */
+    Optional<TaskPatchResult> patchAssignee(Long taskId, Long assigneeId, Collection<Long> expectedVersions);
+}
@@ -0,0 +1,105 @@
+package com.taskmanager.task.repository;
+
+import com.taskmanager.task.dto.TaskPatchResult;
+import com.taskmanager.task.dto.TaskResponse;
+import com.taskmanager.task.entity.TaskPriority;
+import com.taskmanager.task.entity.TaskStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Подзапрос с FOR UPDATE блокирует строку и читает значения до изменения: при параллельной записи
+ * он дождётся её коммита и вернёт актуальное предыдущее значение. Версия растёт так же, как при
+ * записи через Hibernate, поэтому ETag и оптимистическая блокировка остаются согласованными.
+ */
+@RequiredArgsConstructor
+class TaskPatchRepositoryImpl implements TaskPatchRepository {
+
+    private static final String STATUS_COLUMN = "status";
+    private static final String ASSIGNEE_COLUMN = "assignee_id";
+
+    private static final String PATCH_SQL = """
+            UPDATE tasks t
+            SET %1$s = :value, version = t.version + 1, updated_at = :now%3$s
+            FROM (SELECT id, status, assignee_id FROM tasks WHERE id = :id FOR UPDATE) old, projects p
+            WHERE t.id = old.id AND p.id = t.project_id AND p.deleted_at IS NULL
+              AND t.%1$s IS DISTINCT FROM :value%2$s
+            RETURNING t.id, t.title, t.description, t.status, t.priority, t.project_id, p.name AS project_name,
+                      t.assignee_id, t.creator_id, t.deadline, t.estimated_hours, t.actual_hours,
+                      t.created_at, t.updated_at, t.version,
+                      old.status AS previous_status, old.assignee_id AS previous_assignee_id""";
+
+    private static final String VERSION_CONDITION = " AND t.version IN (:versions)";
+
+    /**
+     * Смена статуса возвращает архивную задачу в горячую секцию, как и UpdateTaskRequest.applyTo
+     */
+    private static final String UNARCHIVE = ", archived = FALSE";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<TaskPatchResult> patchStatus(Long taskId, TaskStatus status, Collection<Long> expectedVersions) {
+        return patch(STATUS_COLUMN, UNARCHIVE, status.name(), taskId, expectedVersions);
+    }
+
+    @Override
+    public Optional<TaskPatchResult> patchAssignee(Long taskId, Long assigneeId, Collection<Long> expectedVersions) {
+        return patch(ASSIGNEE_COLUMN, "", assigneeId, taskId, expectedVersions);
+    }
+
+    /**
+     * column и extraSet — только константы этого класса, значение всегда передаётся параметром
+     */
+    private Optional<TaskPatchResult> patch(String column, String extraSet, Object value, Long taskId,
+                                            Collection<Long> expectedVersions) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("id", taskId)
+                .addValue("value", value)
+                .addValue("now", LocalDateTime.now());
+        String versionCondition = "";
+        if (expectedVersions != null) {
+            versionCondition = VERSION_CONDITION;
+            parameters.addValue("versions", expectedVersions);
+        }
+
+        List<TaskPatchResult> rows = jdbcTemplate.query(
+                String.format(PATCH_SQL, column, versionCondition, extraSet), parameters, PATCH_RESULT);
+        return rows.stream().findFirst();
+    }
+
+    private static final RowMapper<TaskPatchResult> PATCH_RESULT = (rs, rowNum) -> new TaskPatchResult(
+            TaskResponse.builder()
+                    .id(rs.getLong("id"))
+                    .title(rs.getString("title"))
+                    .description(rs.getString("description"))
+                    .status(TaskStatus.valueOf(rs.getString("status")))
+                    .priority(TaskPriority.valueOf(rs.getString("priority")))
+                    .projectId(rs.getLong("project_id"))
+                    .projectName(rs.getString("project_name"))
+                    .assigneeId(nullableLong(rs, "assignee_id"))
+                    .creatorId(rs.getLong("creator_id"))
+                    .deadline(rs.getObject("deadline", LocalDateTime.class))
+                    .estimatedHours(rs.getObject("estimated_hours", Integer.class))
+                    .actualHours(rs.getObject("actual_hours", Integer.class))
+                    .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                    .updatedAt(rs.getObject("updated_at", LocalDateTime.class))
+                    .version(rs.getLong("version"))
+                    .build(),
+            TaskStatus.valueOf(rs.getString("previous_status")),
+            nullableLong(rs, "previous_assignee_id"));
+
+    private static Long nullableLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+}
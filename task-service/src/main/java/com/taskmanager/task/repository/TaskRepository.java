@@ -1,43 +1,172 @@
 package com.taskmanager.task.repository;
 
+import com.taskmanager.task.dto.ArchivableTask;
+import com.taskmanager.task.dto.ProjectStatusCount;
+import com.taskmanager.task.dto.ProjectTaskCount;
+import com.taskmanager.task.dto.PurgedTask;
 import com.taskmanager.task.entity.Task;
 import com.taskmanager.task.entity.TaskPriority;
 import com.taskmanager.task.entity.TaskStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Репозиторий для работы с задачами
  */
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>,
+        TaskSearchRepository, TaskPatchRepository {
 
-    Page<Task> findByProjectId(Long projectId, Pageable pageable);
+    /**
+     * Скрывает задачи мягко удалённых проектов до их очистки ProjectPurgeJob. Незавершённых удалений единицы,
+     * поэтому подзапрос вычисляется один раз и не требует соединения с проектами.
+     */
+    String NOT_PURGING = " AND t.project.id NOT IN " +
+            "(SELECT d.projectId FROM ProjectDeletion d WHERE d.completedAt IS NULL) ";
 
-    Page<Task> findByAssigneeId(Long assigneeId, Pageable pageable);
+    // Методы, результат которых маппится в TaskResponse, загружают проект тем же запросом (без N+1)
 
-    Page<Task> findByCreatorId(Long creatorId, Pageable pageable);
+    @Override
+    @EntityGraph(attributePaths = "project")
+    @Query("SELECT t FROM Task t WHERE t.id = :id" + NOT_PURGING)
+    Optional<Task> findById(@Param("id") Long id);
 
-    Page<Task> findByStatus(TaskStatus status, Pageable pageable);
+    @EntityGraph(attributePaths = "project")
+    @Query("SELECT t FROM Task t WHERE t.id IN :ids" + NOT_PURGING)
+    List<Task> findByIdIn(@Param("ids") Collection<Long> ids);
 
-    Page<Task> findByPriority(TaskPriority priority, Pageable pageable);
+    /**
+     * Фильтр из TaskSpecifications; проект загружается тем же запросом, COUNT выполняется без соединения
+     */
+    @Override
+    @EntityGraph(attributePaths = "project")
+    Page<Task> findAll(Specification<Task> spec, Pageable pageable);
 
-    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId AND t.status = :status")
+    // Списки возвращают и архивные задачи: архивация меняет только место хранения, а не ответ API,
+    // поэтому страницы сходятся с количеством задач проекта
+
+    @EntityGraph(attributePaths = "project")
+    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId" + NOT_PURGING)
+    Page<Task> findByProjectId(@Param("projectId") Long projectId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "project")
+    @Query("SELECT t FROM Task t WHERE t.assigneeId = :assigneeId" + NOT_PURGING)
+    Page<Task> findByAssigneeId(@Param("assigneeId") Long assigneeId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "project")
+    @Query("SELECT t FROM Task t WHERE t.creatorId = :creatorId" + NOT_PURGING)
+    Page<Task> findByCreatorId(@Param("creatorId") Long creatorId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "project")
+    @Query("SELECT t FROM Task t WHERE t.status = :status" + NOT_PURGING)
+    Page<Task> findByStatus(@Param("status") TaskStatus status, Pageable pageable);
+
+    @EntityGraph(attributePaths = "project")
+    @Query("SELECT t FROM Task t WHERE t.priority = :priority" + NOT_PURGING)
+    Page<Task> findByPriority(@Param("priority") TaskPriority priority, Pageable pageable);
+
+    @EntityGraph(attributePaths = "project")
+    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId AND t.status = :status" + NOT_PURGING)
     Page<Task> findByProjectIdAndStatus(@Param("projectId") Long projectId, @Param("status") TaskStatus status, Pageable pageable);
 
-    @Query("SELECT t FROM Task t WHERE t.assigneeId = :assigneeId AND t.status IN :statuses")
+    // Выборки открытой работы читают только горячую секцию (archived = false): в архиве лежат только
+    // закрытые задачи, а литерал позволяет PostgreSQL отсечь архивную секцию на этапе планирования
+
+    /**
+     * Нагрузка исполнителя; statuses — открытые статусы
+     */
+    @EntityGraph(attributePaths = "project")
+    @Query("SELECT t FROM Task t WHERE t.assigneeId = :assigneeId AND t.status IN :statuses AND t.archived = false" + NOT_PURGING)
     Page<Task> findByAssigneeIdAndStatusIn(@Param("assigneeId") Long assigneeId, @Param("statuses") List<TaskStatus> statuses, Pageable pageable);
 
-    @Query("SELECT t FROM Task t WHERE t.deadline < :deadline AND t.status NOT IN :excludeStatuses")
-    List<Task> findOverdueTasks(@Param("deadline") LocalDateTime deadline, @Param("excludeStatuses") List<TaskStatus> excludeStatuses);
+    /**
+     * Задачи в открытом статусе; закрытые статусы читаются findByStatus вместе с архивом
+     */
+    @EntityGraph(attributePaths = "project")
+    @Query("SELECT t FROM Task t WHERE t.status = :status AND t.archived = false" + NOT_PURGING)
+    Page<Task> findOpenByStatus(@Param("status") TaskStatus status, Pageable pageable);
+
+    // Просроченные открытые задачи без отправленного уведомления, keyset по (deadline, id).
+    // Закрытые статусы заданы литералами, чтобы планировщик мог использовать частичный индекс idx_tasks_overdue_pending
+
+    @Query("SELECT t FROM Task t WHERE t.deadline < :now AND t.overdueNotifiedAt IS NULL AND t.archived = false" + NOT_PURGING +
+            "AND t.status NOT IN (com.taskmanager.task.entity.TaskStatus.DONE, com.taskmanager.task.entity.TaskStatus.CANCELLED) " +
+            "ORDER BY t.deadline ASC, t.id ASC")
+    List<Task> findOverdueBatch(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT t FROM Task t WHERE t.deadline < :now AND t.overdueNotifiedAt IS NULL AND t.archived = false" + NOT_PURGING +
+            "AND t.status NOT IN (com.taskmanager.task.entity.TaskStatus.DONE, com.taskmanager.task.entity.TaskStatus.CANCELLED) " +
+            "AND (t.deadline > :deadline OR (t.deadline = :deadline AND t.id > :id)) " +
+            "ORDER BY t.deadline ASC, t.id ASC")
+    List<Task> findOverdueBatchAfter(@Param("now") LocalDateTime now,
+                                     @Param("deadline") LocalDateTime deadline,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+
+    @Query("SELECT COUNT(t) FROM Task t WHERE t.deadline < :now AND t.overdueNotifiedAt IS NULL AND t.archived = false" + NOT_PURGING +
+            "AND t.status NOT IN (com.taskmanager.task.entity.TaskStatus.DONE, com.taskmanager.task.entity.TaskStatus.CANCELLED)")
+    long countOverduePending(@Param("now") LocalDateTime now);
+
+    /**
+     * Закрытые задачи горячей секции, не изменявшиеся с closedBefore; перенесённые в архив выпадают из выборки,
+     * поэтому следующая пачка снова берётся с начала
+     */
+    @Query("SELECT t.id AS id, t.project.id AS projectId, t.assigneeId AS assigneeId FROM Task t " +
+            "WHERE t.archived = false AND t.updatedAt < :closedBefore " +
+            "AND t.status IN (com.taskmanager.task.entity.TaskStatus.DONE, com.taskmanager.task.entity.TaskStatus.CANCELLED) " +
+            "ORDER BY t.updatedAt ASC, t.id ASC")
+    List<ArchivableTask> findArchivable(@Param("closedBefore") LocalDateTime closedBefore, Pageable pageable);
+
+    /**
+     * Перенос в архивную секцию (PostgreSQL перемещает строку между секциями). Повторная проверка статуса
+     * не даёт заархивировать задачу, переоткрытую после выборки; увеличение версии — перезаписать
+     * archived изменением через сущность, загруженной до архивации. Перенос — не доменное изменение,
+     * событие в task-events не публикуется.
+     */
+    @Modifying
+    @Query("UPDATE Task t SET t.archived = true, t.version = t.version + 1 WHERE t.id IN :ids AND t.archived = false " +
+            "AND t.status IN (com.taskmanager.task.entity.TaskStatus.DONE, com.taskmanager.task.entity.TaskStatus.CANCELLED)")
+    int archive(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Пачка задач удаляемого проекта, включая архивные
+     */
+    @Query("SELECT t.id AS id, t.assigneeId AS assigneeId, t.version AS version FROM Task t " +
+            "WHERE t.project.id = :projectId ORDER BY t.id")
+    List<PurgedTask> findPurgeBatch(@Param("projectId") Long projectId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Task t WHERE t.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Отметка об уведомлении о просрочке. Увеличение версии, как и в archive, не даёт изменению через сущность,
+     * загруженную до отметки, перезаписать overdue_notified_at значением NULL; событие задачи не публикуется
+     */
+    @Modifying
+    @Query("UPDATE Task t SET t.overdueNotifiedAt = :notifiedAt, t.version = t.version + 1 " +
+            "WHERE t.id IN :ids AND t.overdueNotifiedAt IS NULL")
+    int markOverdueNotified(@Param("ids") Collection<Long> ids, @Param("notifiedAt") LocalDateTime notifiedAt);
+
+    // Количество задач проекта и статистика учитывают и архивные задачи
 
     @Query("SELECT COUNT(t) FROM Task t WHERE t.project.id = :projectId")
     Long countByProjectId(@Param("projectId") Long projectId);
@@ -45,6 +174,90 @@ public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificat
     @Query("SELECT COUNT(t) FROM Task t WHERE t.project.id = :projectId AND t.status = :status")
     Long countByProjectIdAndStatus(@Param("projectId") Long projectId, @Param("status") TaskStatus status);
 
-    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId ORDER BY t.priority DESC, t.deadline ASC")
+    @Query("SELECT t.project.id AS projectId, COUNT(t) AS taskCount FROM Task t " +
+            "WHERE t.project.id IN :projectIds GROUP BY t.project.id")
+    List<ProjectTaskCount> countByProjectIds(@Param("projectIds") Collection<Long> projectIds);
+
+    @Query("SELECT t.project.id AS projectId, t.status AS status, COUNT(t) AS taskCount FROM Task t " +
+            "GROUP BY t.project.id, t.status")
+    List<ProjectStatusCount> countByProjectAndStatus();
+
+    @Query("SELECT t.project.id AS projectId, t.status AS status, COUNT(t) AS taskCount FROM Task t " +
+            "WHERE t.project.id = :projectId GROUP BY t.project.id, t.status")
+    List<ProjectStatusCount> countByProjectAndStatus(@Param("projectId") Long projectId);
+
+    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId" + NOT_PURGING +
+            "ORDER BY t.priority DESC, t.deadline ASC")
     List<Task> findByProjectIdOrderByPriorityAndDeadline(@Param("projectId") Long projectId);
+
+    /**
+     * Потоковое чтение задач проекта курсором JDBC. Требует открытой транзакции и закрытия потока.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId ORDER BY t.id")
+    Stream<Task> streamByProjectId(@Param("projectId") Long projectId);
+
+    // Keyset пагинация по (created_at, id): Slice без COUNT, первая страница и страницы после курсора
+
+    @EntityGraph(attributePaths = "project")
+    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId" + NOT_PURGING +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<Task> scrollByProjectId(@Param("projectId") Long projectId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "project")
+    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId" + NOT_PURGING +
+            "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<Task> scrollByProjectIdAfter(@Param("projectId") Long projectId,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+
+    @EntityGraph(attributePaths = "project")
+    @Query("SELECT t FROM Task t WHERE t.assigneeId = :assigneeId" + NOT_PURGING +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<Task> scrollByAssigneeId(@Param("assigneeId") Long assigneeId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "project")
+    @Query("SELECT t FROM Task t WHERE t.assigneeId = :assigneeId" + NOT_PURGING +
+            "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<Task> scrollByAssigneeIdAfter(@Param("assigneeId") Long assigneeId,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id,
+                                        Pageable pageable);
+
+    @EntityGraph(attributePaths = "project")
+    @Query("SELECT t FROM Task t WHERE t.status = :status" + NOT_PURGING +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<Task> scrollByStatus(@Param("status") TaskStatus status, Pageable pageable);
+
+    @EntityGraph(attributePaths = "project")
+    @Query("SELECT t FROM Task t WHERE t.status = :status" + NOT_PURGING +
+            "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<Task> scrollByStatusAfter(@Param("status") TaskStatus status,
+                                    @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") Long id,
+                                    Pageable pageable);
+
+    // Keyset пагинация задач в открытом статусе: только горячая секция
+
+    @EntityGraph(attributePaths = "project")
+    @Query("SELECT t FROM Task t WHERE t.status = :status AND t.archived = false" + NOT_PURGING +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<Task> scrollOpenByStatus(@Param("status") TaskStatus status, Pageable pageable);
+
+    @EntityGraph(attributePaths = "project")
+    @Query("SELECT t FROM Task t WHERE t.status = :status AND t.archived = false" + NOT_PURGING +
+            "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<Task> scrollOpenByStatusAfter(@Param("status") TaskStatus status,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id,
+                                        Pageable pageable);
 }
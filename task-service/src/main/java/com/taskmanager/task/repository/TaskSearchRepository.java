@@ -0,0 +1,18 @@
+package com.taskmanager.task.repository;
+
+import com.taskmanager.task.dto.SearchCursor;
+import com.taskmanager.task.dto.TaskSearchCriteria;
+import com.taskmanager.task.dto.TaskSearchHit;
+
+import java.util.List;
+
+/**
+ * Полнотекстовый поиск задач по индексу tsvector (только PostgreSQL)
+ */
+public interface TaskSearchRepository {
+
+    /**
+     * Id задач по убыванию релевантности, затем id; after == null для первой страницы
+     */
+    List<TaskSearchHit> search(TaskSearchCriteria criteria, SearchCursor after, int limit);
+}
@@ -0,0 +1,65 @@
+package com.taskmanager.task.repository;
+
+import com.taskmanager.task.dto.SearchCursor;
+import com.taskmanager.task.dto.TaskSearchCriteria;
+import com.taskmanager.task.dto.TaskSearchHit;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Нативный запрос собирается только из заданных фильтров, чтобы планировщик видел точные условия.
+ * Совпадения отбираются GIN индексом по search_vector, релевантность считается один раз на строку.
+ */
+class TaskSearchRepositoryImpl implements TaskSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<TaskSearchHit> search(TaskSearchCriteria criteria, SearchCursor after, int limit) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        StringBuilder sql = new StringBuilder("""
+                SELECT hits.id, hits.rank FROM (
+                    SELECT t.id AS id, ts_rank(t.search_vector, q.query) AS rank
+                    FROM tasks t CROSS JOIN websearch_to_tsquery('russian', :query) AS q(query)
+                    WHERE t.search_vector @@ q.query
+                      AND t.project_id NOT IN (SELECT project_id FROM project_deletions WHERE completed_at IS NULL)""");
+        parameters.put("query", criteria.getQuery());
+
+        if (criteria.getProjectId() != null) {
+            sql.append(" AND t.project_id = :projectId");
+            parameters.put("projectId", criteria.getProjectId());
+        }
+        if (criteria.getStatus() != null) {
+            sql.append(" AND t.status = :status");
+            parameters.put("status", criteria.getStatus().name());
+        }
+        if (criteria.getAssigneeId() != null) {
+            sql.append(" AND t.assignee_id = :assigneeId");
+            parameters.put("assigneeId", criteria.getAssigneeId());
+        }
+        sql.append(") hits");
+
+        if (after != null) {
+            sql.append(" WHERE hits.rank < :rank OR (hits.rank = :rank AND hits.id < :id)");
+            parameters.put("rank", after.getRank());
+            parameters.put("id", after.getId());
+        }
+        sql.append(" ORDER BY hits.rank DESC, hits.id DESC LIMIT :limit");
+        parameters.put("limit", limit);
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        parameters.forEach(query::setParameter);
+
+        List<Object[]> rows = query.getResultList();
+        return rows.stream()
+                .map(row -> new TaskSearchHit(((Number) row[0]).longValue(), ((Number) row[1]).floatValue()))
+                .toList();
+    }
+}
@@ -0,0 +1,97 @@
+package com.taskmanager.task.repository;
+
+import com.taskmanager.task.dto.TaskFilterCriteria;
+import com.taskmanager.task.entity.ProjectDeletion;
+import com.taskmanager.task.entity.Task;
+import com.taskmanager.task.entity.TaskPriority;
+import com.taskmanager.task.entity.TaskStatus;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Составные условия фильтра задач для JpaSpecificationExecutor.
+ * Базовые условия совпадают со списками TaskRepository: без задач удаляемых проектов;
+ * архивная секция читается, только если фильтр может найти в ней задачи.
+ */
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {
+    }
+
+    /**
+     * Фильтр из критериев; пустые критерии не добавляют условий
+     */
+    public static Specification<Task> matching(TaskFilterCriteria criteria) {
+        Specification<Task> spec = Specification.where(notPurging());
+        if (!criteria.needsArchive()) {
+            spec = spec.and(notArchived());
+        }
+        if (criteria.getProjectId() != null) {
+            spec = spec.and(inProject(criteria.getProjectId()));
+        }
+        if (criteria.getAssigneeId() != null) {
+            spec = spec.and(assignedTo(criteria.getAssigneeId()));
+        }
+        if (criteria.hasStatuses()) {
+            spec = spec.and(statusIn(criteria.getStatuses()));
+        }
+        if (criteria.hasPriorities()) {
+            spec = spec.and(priorityIn(criteria.getPriorities()));
+        }
+        if (criteria.getDeadlineAfter() != null) {
+            spec = spec.and(deadlineAfter(criteria.getDeadlineAfter()));
+        }
+        if (criteria.getDeadlineBefore() != null) {
+            spec = spec.and(deadlineBefore(criteria.getDeadlineBefore()));
+        }
+        return spec;
+    }
+
+    public static Specification<Task> notArchived() {
+        return (root, query, cb) -> cb.isFalse(root.get("archived"));
+    }
+
+    /**
+     * То же условие, что TaskRepository.NOT_PURGING
+     */
+    public static Specification<Task> notPurging() {
+        return (root, query, cb) -> {
+            Subquery<Long> pending = query.subquery(Long.class);
+            Root<ProjectDeletion> deletion = pending.from(ProjectDeletion.class);
+            pending.select(deletion.get("projectId")).where(cb.isNull(deletion.get("completedAt")));
+            return cb.not(root.get("project").get("id").in(pending));
+        };
+    }
+
+    public static Specification<Task> inProject(Long projectId) {
+        return (root, query, cb) -> cb.equal(root.get("project").get("id"), projectId);
+    }
+
+    public static Specification<Task> assignedTo(Long assigneeId) {
+        return (root, query, cb) -> cb.equal(root.get("assigneeId"), assigneeId);
+    }
+
+    public static Specification<Task> statusIn(Collection<TaskStatus> statuses) {
+        return (root, query, cb) -> statuses.size() == 1
+                ? cb.equal(root.get("status"), statuses.iterator().next())
+                : root.get("status").in(statuses);
+    }
+
+    public static Specification<Task> priorityIn(Collection<TaskPriority> priorities) {
+        return (root, query, cb) -> priorities.size() == 1
+                ? cb.equal(root.get("priority"), priorities.iterator().next())
+                : root.get("priority").in(priorities);
+    }
+
+    public static Specification<Task> deadlineAfter(LocalDateTime after) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("deadline"), after);
+    }
+
+    public static Specification<Task> deadlineBefore(LocalDateTime before) {
+        return (root, query, cb) -> cb.lessThan(root.get("deadline"), before);
+    }
+}
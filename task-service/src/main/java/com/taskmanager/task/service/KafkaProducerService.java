@@ -1,13 +1,18 @@
 package com.taskmanager.task.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.taskmanager.common.dto.NotificationDto;
+import com.taskmanager.common.dto.TaskEvent;
+import com.taskmanager.task.entity.OutboxEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -19,6 +24,7 @@ import java.util.concurrent.CompletableFuture;
 public class KafkaProducerService {
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
 
     @Value("${kafka.topics.notification-events}")
     private String notificationTopic;
@@ -27,40 +33,36 @@ public class KafkaProducerService {
     private String taskEventsTopic;
 
     /**
-     * Отправка уведомления в Kafka
+     * Публикация строк outbox в порядке id: записи копятся в батчах продюсера и выталкиваются одним flush.
+     * Тело читается в DTO своего топика: формат сообщения (JSON или компактный) выбирает сериализатор топика.
+     * Возвращается future по каждой строке в том же порядке.
      */
-    public void sendNotification(NotificationDto notification) {
-        CompletableFuture<SendResult<String, Object>> future = 
-                kafkaTemplate.send(notificationTopic, notification.getId(), notification);
-
-        future.whenComplete((result, ex) -> {
-            if (ex == null) {
-                log.info("Уведомление отправлено в Kafka: topic={}, key={}, offset={}",
-                        notificationTopic, notification.getId(),
-                        result.getRecordMetadata().offset());
-            } else {
-                log.error("Ошибка отправки уведомления в Kafka: {}", ex.getMessage());
+    public List<CompletableFuture<?>> sendOutbox(List<OutboxEvent> events) {
+        List<CompletableFuture<?>> futures = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            Object payload;
+            try {
+                payload = readPayload(event);
+            } catch (JsonProcessingException e) {
+                // Повтор не поможет: строка считается обработанной, иначе она остановила бы очередь
+                log.error("Строка outbox {} с некорректным JSON пропущена: {}", event.getId(), e.getMessage());
+                futures.add(CompletableFuture.completedFuture(null));
+                continue;
             }
-        });
+            futures.add(kafkaTemplate.send(event.getTopic(), event.getMessageKey(), payload));
+        }
+        kafkaTemplate.flush();
+        return futures;
     }
 
-    /**
-     * Отправка события задачи в Kafka
-     */
-    public void sendTaskEvent(String eventType, Object payload) {
-        String key = eventType + "-" + System.currentTimeMillis();
-        
-        CompletableFuture<SendResult<String, Object>> future = 
-                kafkaTemplate.send(taskEventsTopic, key, payload);
-
-        future.whenComplete((result, ex) -> {
-            if (ex == null) {
-                log.info("Событие задачи отправлено в Kafka: topic={}, key={}, offset={}",
-                        taskEventsTopic, key,
-                        result.getRecordMetadata().offset());
-            } else {
-                log.error("Ошибка отправки события задачи в Kafka: {}", ex.getMessage());
-            }
-        });
+    private Object readPayload(OutboxEvent event) throws JsonProcessingException {
+        if (event.getTopic().equals(notificationTopic)) {
+            return objectMapper.readValue(event.getPayload(), NotificationDto.class);
+        }
+        if (event.getTopic().equals(taskEventsTopic)) {
+            return objectMapper.readValue(event.getPayload(), TaskEvent.class);
+        }
+        // Топик без DTO: дерево JSON, чтобы сериализатор не обернул тело в строку
+        return objectMapper.readTree(event.getPayload());
     }
 }
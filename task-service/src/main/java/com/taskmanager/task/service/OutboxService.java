@@ -0,0 +1,92 @@
+package com.taskmanager.task.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanager.common.dto.NotificationDto;
+import com.taskmanager.common.dto.TaskEvent;
+import com.taskmanager.task.entity.OutboxEvent;
+import com.taskmanager.task.repository.OutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Запись сообщений Kafka в outbox. Вызывается только внутри транзакции изменения:
+ * сообщение фиксируется вместе с изменением или не появляется вовсе, публикует его OutboxRelay
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${kafka.topics.notification-events}")
+    private String notificationTopic;
+
+    @Value("${kafka.topics.task-events}")
+    private String taskEventsTopic;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueNotification(NotificationDto notification) {
+        outboxRepository.save(notificationEvent(notification));
+    }
+
+    /**
+     * Пакетная запись: строки вставляются JDBC батчами
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueNotifications(List<NotificationDto> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        outboxRepository.saveAll(notifications.stream().map(this::notificationEvent).toList());
+    }
+
+    /**
+     * Событие задачи с ключом по id задачи: все события задачи идут в одну партицию
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueTaskEvent(TaskEvent event) {
+        outboxRepository.save(taskEvent(event));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueTaskEvents(List<TaskEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        outboxRepository.saveAll(events.stream().map(this::taskEvent).toList());
+    }
+
+    private OutboxEvent taskEvent(TaskEvent event) {
+        return OutboxEvent.builder()
+                .topic(taskEventsTopic)
+                .messageKey(event.getTaskId().toString())
+                .payload(toJson(event))
+                .build();
+    }
+
+    /**
+     * Ключ уведомления — получатель: уведомления пользователя попадают в одну партицию и обрабатываются по порядку
+     */
+    private OutboxEvent notificationEvent(NotificationDto notification) {
+        return OutboxEvent.builder()
+                .topic(notificationTopic)
+                .messageKey(String.valueOf(notification.getUserId()))
+                .payload(toJson(notification))
+                .build();
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать сообщение outbox", e);
+        }
+    }
+}
@@ -1,21 +1,34 @@
 package com.taskmanager.task.service;
 
 import com.taskmanager.common.exception.BusinessException;
+import com.taskmanager.common.exception.PreconditionFailedException;
 import com.taskmanager.common.exception.ResourceNotFoundException;
+import com.taskmanager.task.cache.ProjectEntityCache;
+import com.taskmanager.task.cache.TaskListingCache;
 import com.taskmanager.task.dto.*;
 import com.taskmanager.task.entity.Project;
+import com.taskmanager.task.entity.ProjectDeletion;
 import com.taskmanager.task.entity.ProjectStatus;
+import com.taskmanager.task.repository.ProjectDeletionRepository;
 import com.taskmanager.task.repository.ProjectRepository;
+import com.taskmanager.task.repository.TaskRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Сервис для управления проектами
@@ -26,12 +39,16 @@ import java.util.ArrayList;
 public class ProjectService {
 
     private final ProjectRepository projectRepository;
+    private final TaskRepository taskRepository;
+    private final TaskListingCache taskListingCache;
+    private final ProjectStatsService projectStatsService;
+    private final ProjectDeletionRepository projectDeletionRepository;
+    private final ProjectEntityCache projectEntityCache;
 
     /**
      * Создание нового проекта
      */
     @Transactional
-    @CacheEvict(value = "projects", allEntries = true)
     public ProjectResponse createProject(CreateProjectRequest request, Long ownerId) {
         if (projectRepository.existsByNameAndOwnerId(request.getName(), ownerId)) {
             throw new BusinessException("Проект с таким названием уже существует");
@@ -41,13 +58,15 @@ public class ProjectService {
                 .name(request.getName())
                 .description(request.getDescription())
                 .ownerId(ownerId)
-                .memberIds(request.getMemberIds() != null ? request.getMemberIds() : new ArrayList<>())
+                .memberIds(request.getMemberIds() != null ? new LinkedHashSet<>(request.getMemberIds()) : new LinkedHashSet<>())
                 .build();
 
         project = projectRepository.save(project);
         log.info("Создан проект: {} владельцем: {}", project.getName(), ownerId);
 
-        return ProjectResponse.fromEntity(project);
+        projectStatsService.projectCreated(project.getId());
+
+        return ProjectResponse.fromEntity(project, 0);
     }
 
     /**
@@ -58,17 +77,20 @@ public class ProjectService {
     public ProjectResponse getProjectById(Long projectId) {
         Project project = projectRepository.findById(projectId)
                 .orElseThrow(() -> new ResourceNotFoundException("Проект", "id", projectId));
-        return ProjectResponse.fromEntity(project);
+        return toResponse(project);
     }
 
     /**
-     * Обновление проекта
+     * Обновление проекта. ifMatch (значение If-Match) сравнивается с текущим ETag проекта
      */
     @Transactional
     @CacheEvict(value = "projects", key = "#projectId")
-    public ProjectResponse updateProject(Long projectId, UpdateProjectRequest request) {
+    public ProjectResponse updateProject(Long projectId, UpdateProjectRequest request, String ifMatch) {
         Project project = projectRepository.findById(projectId)
                 .orElseThrow(() -> new ResourceNotFoundException("Проект", "id", projectId));
+        if (ifMatch != null && !ETags.ifMatchHolds(ifMatch, toResponse(project).eTag())) {
+            throw new PreconditionFailedException("Проект изменён, текущая версия: " + project.getVersion());
+        }
 
         if (request.getName() != null) {
             project.setName(request.getName());
@@ -80,25 +102,46 @@ public class ProjectService {
             project.setStatus(request.getStatus());
         }
         if (request.getMemberIds() != null) {
-            project.setMemberIds(request.getMemberIds());
+            project.replaceMembers(request.getMemberIds());
         }
 
-        project = projectRepository.save(project);
+        project = projectRepository.saveAndFlush(project);
+        projectEntityCache.evictAfterCommit(projectId);
         log.info("Обновлён проект: {}", project.getId());
 
-        return ProjectResponse.fromEntity(project);
+        return toResponse(project);
     }
 
     /**
-     * Удаление проекта
+     * Мягкое удаление проекта: проект и его задачи сразу скрываются из всех запросов,
+     * задачи и участники удаляются фоново ProjectPurgeJob
      */
     @Transactional
     @CacheEvict(value = "projects", key = "#projectId")
-    public void deleteProject(Long projectId) {
+    public ProjectDeletionResponse deleteProject(Long projectId) {
         Project project = projectRepository.findById(projectId)
                 .orElseThrow(() -> new ResourceNotFoundException("Проект", "id", projectId));
-        projectRepository.delete(project);
-        log.info("Удалён проект: {}", projectId);
+        project.setDeletedAt(LocalDateTime.now());
+        // Кэш второго уровня не применяет @SQLRestriction: без сброса findById продолжил бы находить проект
+        projectEntityCache.evictAfterCommit(projectId);
+        long taskCount = projectStatsService.projectDeleted(projectId);
+        ProjectDeletion deletion = projectDeletionRepository.save(ProjectDeletion.requested(projectId, taskCount));
+        log.info("Проект {} помечен удалённым, задач к очистке: {}", projectId, taskCount);
+
+        // Записи задач и списки исполнителей инвалидирует очистка по мере удаления задач
+        taskListingCache.invalidateProject(projectId);
+        return ProjectDeletionResponse.fromEntity(deletion);
+    }
+
+    /**
+     * Прогресс фонового удаления проекта
+     */
+    @Transactional(readOnly = true)
+    public ProjectDeletionResponse getDeletion(Long projectId) {
+        return projectDeletionRepository.findById(projectId)
+                .map(ProjectDeletionResponse::fromEntity)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        String.format("Удаление проекта не найдено: '%s'", projectId)));
     }
 
     /**
@@ -106,8 +149,26 @@ public class ProjectService {
      */
     @Transactional(readOnly = true)
     public Page<ProjectResponse> getProjectsByUser(Long userId, Pageable pageable) {
-        return projectRepository.findByUserAccess(userId, pageable)
-                .map(ProjectResponse::fromEntity);
+        return toResponses(projectRepository.findByUserAccess(userId, pageable));
+    }
+
+    /**
+     * Keyset пагинация проектов пользователя
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ProjectResponse> scrollProjectsByUser(Long userId, String cursor, int size) {
+        Pageable pageable = KeysetCursor.pageRequest(size);
+        Slice<Project> slice;
+        if (cursor == null || cursor.isBlank()) {
+            slice = projectRepository.scrollByUserAccess(userId, pageable);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            slice = projectRepository.scrollByUserAccessAfter(userId, after.getCreatedAt(), after.getId(), pageable);
+        }
+        Map<Long, Long> taskCounts = taskCounts(slice.getContent());
+        return CursorPage.of(slice,
+                project -> ProjectResponse.fromEntity(project, taskCounts.getOrDefault(project.getId(), 0L)),
+                project -> new KeysetCursor(project.getCreatedAt(), project.getId()));
     }
 
     /**
@@ -115,8 +176,7 @@ public class ProjectService {
      */
     @Transactional(readOnly = true)
     public Page<ProjectResponse> getProjectsByStatus(ProjectStatus status, Pageable pageable) {
-        return projectRepository.findByStatus(status, pageable)
-                .map(ProjectResponse::fromEntity);
+        return toResponses(projectRepository.findByStatus(status, pageable));
     }
 
     /**
@@ -128,13 +188,27 @@ public class ProjectService {
         Project project = projectRepository.findById(projectId)
                 .orElseThrow(() -> new ResourceNotFoundException("Проект", "id", projectId));
 
-        if (!project.getMemberIds().contains(memberId)) {
-            project.getMemberIds().add(memberId);
-            project = projectRepository.save(project);
+        if (project.getMemberIds().add(memberId)) {
             log.info("Добавлен участник {} в проект {}", memberId, projectId);
         }
 
-        return ProjectResponse.fromEntity(project);
+        return flushAndRespond(project);
+    }
+
+    /**
+     * Пакетное добавление участников: вставляются только отсутствующие
+     */
+    @Transactional
+    @CacheEvict(value = "projects", key = "#projectId")
+    public ProjectResponse addMembers(Long projectId, Collection<Long> memberIds) {
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new ResourceNotFoundException("Проект", "id", projectId));
+
+        int before = project.getMemberIds().size();
+        project.getMemberIds().addAll(memberIds);
+        log.info("Добавлено участников в проект {}: {}", projectId, project.getMemberIds().size() - before);
+
+        return flushAndRespond(project);
     }
 
     /**
@@ -146,10 +220,56 @@ public class ProjectService {
         Project project = projectRepository.findById(projectId)
                 .orElseThrow(() -> new ResourceNotFoundException("Проект", "id", projectId));
 
-        project.getMemberIds().remove(memberId);
-        project = projectRepository.save(project);
-        log.info("Удалён участник {} из проекта {}", memberId, projectId);
+        if (project.getMemberIds().remove(memberId)) {
+            log.info("Удалён участник {} из проекта {}", memberId, projectId);
+        }
+
+        return flushAndRespond(project);
+    }
 
-        return ProjectResponse.fromEntity(project);
+    /**
+     * Пакетное удаление участников: удаляются только присутствующие
+     */
+    @Transactional
+    @CacheEvict(value = "projects", key = "#projectId")
+    public ProjectResponse removeMembers(Long projectId, Collection<Long> memberIds) {
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new ResourceNotFoundException("Проект", "id", projectId));
+
+        int before = project.getMemberIds().size();
+        project.getMemberIds().removeAll(new HashSet<>(memberIds));
+        log.info("Удалено участников из проекта {}: {}", projectId, before - project.getMemberIds().size());
+
+        return flushAndRespond(project);
+    }
+
+    /**
+     * Изменения сбрасываются до построения ответа, чтобы в ответ и ETag попала новая версия
+     */
+    private ProjectResponse flushAndRespond(Project project) {
+        projectRepository.flush();
+        projectEntityCache.evictAfterCommit(project.getId());
+        return toResponse(project);
+    }
+
+    private ProjectResponse toResponse(Project project) {
+        return ProjectResponse.fromEntity(project, taskRepository.countByProjectId(project.getId()));
+    }
+
+    /**
+     * Количество задач для всей страницы считается одним группирующим запросом
+     */
+    private Page<ProjectResponse> toResponses(Page<Project> page) {
+        Map<Long, Long> taskCounts = taskCounts(page.getContent());
+        return page.map(project -> ProjectResponse.fromEntity(project, taskCounts.getOrDefault(project.getId(), 0L)));
+    }
+
+    private Map<Long, Long> taskCounts(List<Project> projects) {
+        if (projects.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> projectIds = projects.stream().map(Project::getId).toList();
+        return taskRepository.countByProjectIds(projectIds).stream()
+                .collect(Collectors.toMap(ProjectTaskCount::getProjectId, ProjectTaskCount::getTaskCount));
     }
 }
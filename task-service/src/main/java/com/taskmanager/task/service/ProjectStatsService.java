@@ -0,0 +1,141 @@
+package com.taskmanager.task.service;
+
+import com.taskmanager.common.exception.ResourceNotFoundException;
+import com.taskmanager.task.dto.ProjectStatsResponse;
+import com.taskmanager.task.dto.ProjectStatusCount;
+import com.taskmanager.task.entity.ProjectTaskStats;
+import com.taskmanager.task.entity.TaskStatus;
+import com.taskmanager.task.repository.ProjectRepository;
+import com.taskmanager.task.repository.ProjectTaskStatsRepository;
+import com.taskmanager.task.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Счётчики задач проектов по статусам (read model для дашборда)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProjectStatsService {
+
+    private final ProjectTaskStatsRepository statsRepository;
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+
+    /**
+     * Статистика проекта одним чтением по первичному ключу
+     */
+    @Transactional(readOnly = true)
+    public ProjectStatsResponse getStats(Long projectId) {
+        return statsRepository.findById(projectId)
+                .map(ProjectStatsResponse::fromEntity)
+                .orElseGet(() -> {
+                    // Строка ещё не создана (проект до миграции и без записей задач): считаем на лету
+                    if (!projectRepository.existsById(projectId)) {
+                        throw new ResourceNotFoundException("Проект", "id", projectId);
+                    }
+                    return ProjectStatsResponse.fromEntity(compute(projectId));
+                });
+    }
+
+    /**
+     * Пустые счётчики нового проекта
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void projectCreated(Long projectId) {
+        statsRepository.save(ProjectTaskStats.empty(projectId));
+    }
+
+    /**
+     * Удаление счётчиков проекта; возвращает число его задач (по счётчикам, без строки — подсчётом)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long projectDeleted(Long projectId) {
+        return statsRepository.findById(projectId)
+                .map(stats -> {
+                    statsRepository.delete(stats);
+                    return stats.total();
+                })
+                .orElseGet(() -> compute(projectId).total());
+    }
+
+    /**
+     * Применение дельт в текущей транзакции записи задач
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(TaskStatsDelta delta) {
+        delta.byProject().forEach((projectId, counts) -> {
+            int updated = statsRepository.adjust(projectId,
+                    counts[TaskStatus.TODO.ordinal()],
+                    counts[TaskStatus.IN_PROGRESS.ordinal()],
+                    counts[TaskStatus.IN_REVIEW.ordinal()],
+                    counts[TaskStatus.DONE.ordinal()],
+                    counts[TaskStatus.CANCELLED.ordinal()]);
+            if (updated == 0) {
+                // Строки нет: считаем проект целиком, запись задачи уже видна в этой транзакции
+                taskRepository.flush();
+                statsRepository.save(compute(projectId));
+            }
+        });
+    }
+
+    /**
+     * Пересчёт всех счётчиков одним GROUP BY. Строки счётчиков блокируются до конца транзакции,
+     * поэтому дельты параллельных записей применяются после пересчёта и не теряются.
+     */
+    @Transactional
+    public int rebuildAll() {
+        Map<Long, ProjectTaskStats> existing = statsRepository.findAllForUpdate().stream()
+                .collect(Collectors.toMap(ProjectTaskStats::getProjectId, Function.identity()));
+
+        Map<Long, ProjectTaskStats> computed = new HashMap<>();
+        for (ProjectStatusCount row : taskRepository.countByProjectAndStatus()) {
+            computed.computeIfAbsent(row.getProjectId(), ProjectTaskStats::empty)
+                    .set(row.getStatus(), row.getTaskCount());
+        }
+
+        List<Long> projectIds = projectRepository.findAllIds();
+        int corrected = 0;
+        for (Long projectId : projectIds) {
+            ProjectTaskStats actual = computed.getOrDefault(projectId, ProjectTaskStats.empty(projectId));
+            ProjectTaskStats stored = existing.get(projectId);
+            if (stored == null) {
+                statsRepository.save(actual);
+                corrected++;
+            } else if (copyIfDiffers(actual, stored)) {
+                corrected++;
+            }
+        }
+
+        log.info("Пересчитаны счётчики задач проектов: {}, исправлено: {}", projectIds.size(), corrected);
+        return corrected;
+    }
+
+    private ProjectTaskStats compute(Long projectId) {
+        ProjectTaskStats stats = ProjectTaskStats.empty(projectId);
+        List<ProjectStatusCount> rows = taskRepository.countByProjectAndStatus(projectId);
+        rows.forEach(row -> stats.set(row.getStatus(), row.getTaskCount()));
+        return stats;
+    }
+
+    private static boolean copyIfDiffers(ProjectTaskStats actual, ProjectTaskStats stored) {
+        boolean changed = false;
+        for (TaskStatus status : TaskStatus.values()) {
+            if (stored.get(status) != actual.get(status)) {
+                stored.set(status, actual.get(status));
+                changed = true;
+            }
+        }
+        return changed;
+    }
+}
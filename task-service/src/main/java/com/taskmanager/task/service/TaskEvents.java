@@ -0,0 +1,120 @@
+package com.taskmanager.task.service;
+
+import com.taskmanager.common.dto.TaskEvent;
+import com.taskmanager.common.dto.TaskEventType;
+import com.taskmanager.task.dto.TaskResponse;
+import com.taskmanager.task.entity.Task;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Построение доменных событий задачи. Изменение описывается разницей снимков полей до и после записи,
+ * поэтому событие несёт только то, что действительно изменилось.
+ */
+public final class TaskEvents {
+
+    static final String TITLE = "title";
+    static final String DESCRIPTION = "description";
+    static final String STATUS = "status";
+    static final String PRIORITY = "priority";
+    static final String ASSIGNEE_ID = "assigneeId";
+    static final String DEADLINE = "deadline";
+    static final String ESTIMATED_HOURS = "estimatedHours";
+    static final String ACTUAL_HOURS = "actualHours";
+
+    private TaskEvents() {
+    }
+
+    /**
+     * Изменяемые поля задачи в порядке схемы события
+     */
+    public static Map<String, Object> snapshot(Task task) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put(TITLE, task.getTitle());
+        fields.put(DESCRIPTION, task.getDescription());
+        fields.put(STATUS, task.getStatus());
+        fields.put(PRIORITY, task.getPriority());
+        fields.put(ASSIGNEE_ID, task.getAssigneeId());
+        fields.put(DEADLINE, task.getDeadline());
+        fields.put(ESTIMATED_HOURS, task.getEstimatedHours());
+        fields.put(ACTUAL_HOURS, task.getActualHours());
+        return fields;
+    }
+
+    /**
+     * Создание: заданные поля и неизменяемый автор; пустые поля не передаются
+     */
+    public static TaskEvent created(Task task) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        snapshot(task).forEach((field, value) -> {
+            if (value != null) {
+                changes.put(field, value);
+            }
+        });
+        changes.put("creatorId", task.getCreatorId());
+        return event(TaskEventType.CREATED, task.getId(), task.getProject().getId(), task.getVersion(), changes);
+    }
+
+    /**
+     * Изменение относительно снимка before; пусто, если запись ничего не поменяла.
+     * Смена только статуса или только исполнителя получает свой тип события
+     */
+    public static Optional<TaskEvent> changed(Task task, Map<String, Object> before) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        snapshot(task).forEach((field, value) -> {
+            if (!Objects.equals(before.get(field), value)) {
+                changes.put(field, value);
+            }
+        });
+        if (changes.isEmpty()) {
+            return Optional.empty();
+        }
+        TaskEventType type = TaskEventType.UPDATED;
+        if (changes.size() == 1 && changes.containsKey(STATUS)) {
+            type = TaskEventType.STATUS_CHANGED;
+        } else if (changes.size() == 1 && changes.containsKey(ASSIGNEE_ID)) {
+            type = TaskEventType.ASSIGNED;
+        }
+        return Optional.of(event(type, task.getId(), task.getProject().getId(), task.getVersion(), changes));
+    }
+
+    /**
+     * Быстрая смена статуса: поле известно из результата UPDATE ... RETURNING
+     */
+    public static TaskEvent statusChanged(TaskResponse task) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put(STATUS, task.getStatus());
+        return event(TaskEventType.STATUS_CHANGED, task.getId(), task.getProjectId(), task.getVersion(), changes);
+    }
+
+    public static TaskEvent assigned(TaskResponse task) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put(ASSIGNEE_ID, task.getAssigneeId());
+        return event(TaskEventType.ASSIGNED, task.getId(), task.getProjectId(), task.getVersion(), changes);
+    }
+
+    /**
+     * Удаление считается ещё одним изменением: версия события на единицу больше последней версии задачи
+     */
+    public static TaskEvent deleted(Long taskId, Long projectId, Long version) {
+        return event(TaskEventType.DELETED, taskId, projectId, version + 1, Map.of());
+    }
+
+    private static TaskEvent event(TaskEventType type, Long taskId, Long projectId, Long version,
+                                   Map<String, Object> changes) {
+        return TaskEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .type(type)
+                .taskId(taskId)
+                .projectId(projectId)
+                .taskVersion(version)
+                .occurredAt(LocalDateTime.now())
+                .changes(changes)
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.taskmanager.task.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanager.common.exception.ResourceNotFoundException;
+import com.taskmanager.task.dto.TaskExportFormat;
+import com.taskmanager.task.dto.TaskResponse;
+import com.taskmanager.task.entity.Task;
+import com.taskmanager.task.repository.ProjectRepository;
+import com.taskmanager.task.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+/**
+ * Потоковая выгрузка задач проекта: строки идут из курсора JDBC прямо в ответ,
+ * память не зависит от размера проекта
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskExportService {
+
+    /**
+     * Через сколько строк буфер выталкивается клиенту
+     */
+    static final int FLUSH_EVERY = 500;
+
+    private static final String CSV_HEADER = "id,title,description,status,priority,projectId,assigneeId,creatorId,"
+            + "deadline,estimatedHours,actualHours,createdAt,updatedAt";
+
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Проверка существования проекта до начала потоковой выдачи
+     */
+    @Transactional(readOnly = true)
+    public void checkProjectExists(Long projectId) {
+        if (!projectRepository.existsById(projectId)) {
+            throw new ResourceNotFoundException("Проект", "id", projectId);
+        }
+    }
+
+    /**
+     * Выгрузка задач проекта в поток. Обрыв соединения клиентом прерывает запись,
+     * закрытие потока закрывает курсор и прекращает выборку.
+     */
+    @Transactional(readOnly = true)
+    public long export(Long projectId, TaskExportFormat format, OutputStream out) throws IOException {
+        // Проект загружается один раз, задачи ссылаются на этот экземпляр вместо прокси
+        projectRepository.findById(projectId)
+                .orElseThrow(() -> new ResourceNotFoundException("Проект", "id", projectId));
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        RowWriter rowWriter = format == TaskExportFormat.CSV ? csvWriter(writer) : ndjsonWriter(writer);
+
+        long count = 0;
+        try (Stream<Task> tasks = taskRepository.streamByProjectId(projectId)) {
+            Iterable<Task> rows = tasks::iterator;
+            for (Task task : rows) {
+                rowWriter.write(task);
+                entityManager.detach(task);
+                if (++count % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+        } catch (IOException ex) {
+            log.info("Выгрузка задач проекта {} прервана после {} строк: {}", projectId, count, ex.getMessage());
+            throw ex;
+        }
+        writer.flush();
+
+        log.info("Выгружено задач проекта {}: {} ({})", projectId, count, format.getExtension());
+        return count;
+    }
+
+    private RowWriter csvWriter(Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        return task -> {
+            writer.write(String.join(",",
+                    String.valueOf(task.getId()),
+                    csv(task.getTitle()),
+                    csv(task.getDescription()),
+                    csv(task.getStatus()),
+                    csv(task.getPriority()),
+                    String.valueOf(task.getProject().getId()),
+                    csv(task.getAssigneeId()),
+                    csv(task.getCreatorId()),
+                    csv(task.getDeadline()),
+                    csv(task.getEstimatedHours()),
+                    csv(task.getActualHours()),
+                    csv(task.getCreatedAt()),
+                    csv(task.getUpdatedAt())));
+            writer.write('\n');
+        };
+    }
+
+    private RowWriter ndjsonWriter(Writer writer) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        // Строки разделяются переводом строки, а не пробелом по умолчанию
+        generator.setRootValueSeparator(null);
+        return task -> {
+            objectMapper.writeValue(generator, TaskResponse.fromEntity(task));
+            generator.flush();
+            writer.write('\n');
+        };
+    }
+
+    static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(Task task) throws IOException;
+    }
+}
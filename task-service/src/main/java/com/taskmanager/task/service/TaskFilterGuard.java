@@ -0,0 +1,87 @@
+package com.taskmanager.task.service;
+
+import com.taskmanager.common.exception.BusinessException;
+import com.taskmanager.task.dto.KeysetCursor;
+import com.taskmanager.task.dto.TaskFilterCriteria;
+import com.taskmanager.task.entity.TaskPriority;
+import com.taskmanager.task.entity.TaskStatus;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Проверка фильтра задач перед выполнением: фильтр переписывается в нормальную форму,
+ * а комбинации, которые привели бы к полному чтению таблицы, отклоняются.
+ * <ul>
+ *     <li>список из всех статусов или всех приоритетов не фильтрует и удаляется;</li>
+ *     <li>после этого должно остаться условие по индексированному столбцу: проект, исполнитель,
+ *     статус, приоритет или дедлайн;</li>
+ *     <li>сортировка допускается только по датам и дополняется id для стабильного порядка страниц;
+ *     статус и приоритет хранятся строками, их сортировка в БД была бы алфавитной.</li>
+ * </ul>
+ */
+public final class TaskFilterGuard {
+
+    static final Set<String> SORTABLE = Set.of("createdAt", "updatedAt", "deadline");
+
+    private static final Sort DEFAULT_SORT = Sort.by(Sort.Order.desc("createdAt"));
+
+    private TaskFilterGuard() {
+    }
+
+    public static TaskFilterCriteria normalize(TaskFilterCriteria criteria) {
+        TaskFilterCriteria normalized = TaskFilterCriteria.builder()
+                .projectId(criteria.getProjectId())
+                .assigneeId(criteria.getAssigneeId())
+                .statuses(restricting(criteria.getStatuses(), TaskStatus.class))
+                .priorities(restricting(criteria.getPriorities(), TaskPriority.class))
+                .deadlineAfter(criteria.getDeadlineAfter())
+                .deadlineBefore(criteria.getDeadlineBefore())
+                .includeArchived(criteria.isIncludeArchived())
+                .build();
+
+        if (normalized.getDeadlineAfter() != null && normalized.getDeadlineBefore() != null
+                && !normalized.getDeadlineAfter().isBefore(normalized.getDeadlineBefore())) {
+            throw new BusinessException("Пустой интервал дедлайна: deadlineAfter должен быть раньше deadlineBefore");
+        }
+        if (normalized.getProjectId() == null && normalized.getAssigneeId() == null && !normalized.hasStatuses()
+                && !normalized.hasPriorities() && !normalized.hasDeadlineRange()) {
+            throw new BusinessException(
+                    "Фильтр должен содержать project, assignee, status, priority или интервал дедлайна");
+        }
+        return normalized;
+    }
+
+    public static Pageable normalize(Pageable pageable) {
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : DEFAULT_SORT;
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            if (!SORTABLE.contains(order.getProperty())) {
+                throw new BusinessException("Сортировка по полю '" + order.getProperty() + "' не поддерживается, "
+                        + "допустимые поля: " + String.join(", ", SORTABLE.stream().sorted().toList()));
+            }
+            orders.add(order);
+        }
+        Sort.Direction lastDirection = orders.get(orders.size() - 1).getDirection();
+        orders.add(new Sort.Order(lastDirection, "id"));
+
+        int size = Math.max(1, Math.min(pageable.getPageSize(), KeysetCursor.MAX_PAGE_SIZE));
+        return PageRequest.of(pageable.getPageNumber(), size, Sort.by(orders));
+    }
+
+    /**
+     * Пустой набор и набор из всех значений перечисления не ограничивают выборку
+     */
+    private static <E extends Enum<E>> Set<E> restricting(Set<E> values, Class<E> type) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        EnumSet<E> set = EnumSet.copyOf(values);
+        return set.size() == type.getEnumConstants().length ? null : set;
+    }
+}
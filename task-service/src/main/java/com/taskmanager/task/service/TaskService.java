@@ -1,7 +1,11 @@
 package com.taskmanager.task.service;
 
 import com.taskmanager.common.dto.NotificationDto;
+import com.taskmanager.common.dto.TaskEvent;
+import com.taskmanager.common.exception.BusinessException;
+import com.taskmanager.common.exception.PreconditionFailedException;
 import com.taskmanager.common.exception.ResourceNotFoundException;
+import com.taskmanager.task.cache.TaskListingCache;
 import com.taskmanager.task.dto.*;
 import com.taskmanager.task.entity.Project;
 import com.taskmanager.task.entity.Task;
@@ -9,17 +13,25 @@ import com.taskmanager.task.entity.TaskPriority;
 import com.taskmanager.task.entity.TaskStatus;
 import com.taskmanager.task.repository.ProjectRepository;
 import com.taskmanager.task.repository.TaskRepository;
+import com.taskmanager.task.repository.TaskSpecifications;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Сервис для управления задачами
@@ -29,41 +41,103 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class TaskService {
 
+    /**
+     * Максимальное число элементов в пакетном запросе
+     */
+    public static final int MAX_BULK_SIZE = 500;
+
+    /**
+     * Максимальная длина поискового запроса
+     */
+    public static final int MAX_SEARCH_QUERY_LENGTH = 200;
+
     private final TaskRepository taskRepository;
     private final ProjectRepository projectRepository;
-    private final KafkaProducerService kafkaProducerService;
+    private final OutboxService outboxService;
+    private final TaskListingCache taskListingCache;
+    private final ProjectStatsService projectStatsService;
+    private final Validator validator;
 
     /**
      * Создание новой задачи
      */
     @Transactional
-    @CacheEvict(value = "tasks", allEntries = true)
+    @CacheEvict(value = "projects", key = "#request.projectId")
     public TaskResponse createTask(CreateTaskRequest request, Long creatorId) {
         Project project = projectRepository.findById(request.getProjectId())
                 .orElseThrow(() -> new ResourceNotFoundException("Проект", "id", request.getProjectId()));
 
-        Task task = Task.builder()
-                .title(request.getTitle())
-                .description(request.getDescription())
-                .project(project)
-                .priority(request.getPriority() != null ? request.getPriority() : TaskPriority.MEDIUM)
-                .assigneeId(request.getAssigneeId())
-                .creatorId(creatorId)
-                .deadline(request.getDeadline())
-                .estimatedHours(request.getEstimatedHours())
-                .build();
-
-        task = taskRepository.save(task);
+        Task task = taskRepository.save(buildTask(request, project, creatorId));
         log.info("Создана задача: {} в проекте: {}", task.getTitle(), project.getName());
 
+        projectStatsService.apply(new TaskStatsDelta().created(project.getId(), task.getStatus()));
+
+        // Новая задача меняет только списки своего проекта и исполнителя
+        taskListingCache.invalidateProject(project.getId());
+        taskListingCache.invalidateAssignee(task.getAssigneeId());
+
+        outboxService.enqueueTaskEvent(TaskEvents.created(task));
         // Отправка уведомления если назначен исполнитель
         if (task.getAssigneeId() != null) {
-            sendTaskAssignedNotification(task);
+            outboxService.enqueueNotification(taskAssignedNotification(task));
         }
 
         return TaskResponse.fromEntity(task);
     }
 
+    /**
+     * Пакетное создание задач. Ошибки валидации возвращаются по элементам, корректные задачи
+     * сохраняются пакетными INSERT, уведомления отправляются одной пачкой
+     */
+    @Transactional
+    public BulkTaskResponse createTasks(List<CreateTaskRequest> requests, Long creatorId) {
+        checkBulkSize(requests);
+
+        Set<Long> projectIds = requests.stream()
+                .map(CreateTaskRequest::getProjectId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Project> projects = projectRepository.findAllById(projectIds).stream()
+                .collect(Collectors.toMap(Project::getId, Function.identity()));
+
+        List<BulkItemError> errors = new ArrayList<>();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            CreateTaskRequest request = requests.get(i);
+            List<String> violations = validate(request);
+            Project project = request.getProjectId() != null ? projects.get(request.getProjectId()) : null;
+            if (violations.isEmpty() && project == null) {
+                violations = List.of("Проект не найден с id: '" + request.getProjectId() + "'");
+            }
+            if (!violations.isEmpty()) {
+                errors.add(new BulkItemError(i, null, violations));
+                continue;
+            }
+            tasks.add(buildTask(request, project, creatorId));
+        }
+
+        List<Task> saved = taskRepository.saveAll(tasks);
+        log.info("Пакетно создано задач: {}, ошибок: {}", saved.size(), errors.size());
+
+        TaskStatsDelta statsDelta = new TaskStatsDelta();
+        saved.forEach(task -> statsDelta.created(task.getProject().getId(), task.getStatus()));
+        projectStatsService.apply(statsDelta);
+
+        saved.stream().map(task -> task.getProject().getId()).distinct().forEach(projectId -> {
+            taskListingCache.evictProjectEntry(projectId);
+            taskListingCache.invalidateProject(projectId);
+        });
+        saved.stream().map(Task::getAssigneeId).distinct().forEach(taskListingCache::invalidateAssignee);
+
+        outboxService.enqueueTaskEvents(saved.stream().map(TaskEvents::created).toList());
+        outboxService.enqueueNotifications(saved.stream()
+                .filter(task -> task.getAssigneeId() != null)
+                .map(this::taskAssignedNotification)
+                .toList());
+
+        return new BulkTaskResponse(saved.stream().map(TaskResponse::fromEntity).toList(), errors);
+    }
+
     /**
      * Получение задачи по ID
      */
@@ -76,56 +150,151 @@ public class TaskService {
     }
 
     /**
-     * Обновление задачи
+     * Обновление задачи. ifMatch (значение If-Match) сравнивается с текущим ETag задачи;
+     * параллельная запись между проверкой и UPDATE отсекается по версии
      */
     @Transactional
     @CacheEvict(value = "tasks", key = "#taskId")
-    public TaskResponse updateTask(Long taskId, UpdateTaskRequest request) {
+    public TaskResponse updateTask(Long taskId, UpdateTaskRequest request, String ifMatch) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new ResourceNotFoundException("Задача", "id", taskId));
+        if (!ETags.ifMatchHolds(ifMatch, ETags.of(task.getVersion()))) {
+            throw new PreconditionFailedException("Задача изменена, текущая версия: " + task.getVersion());
+        }
 
         Long previousAssignee = task.getAssigneeId();
         TaskStatus previousStatus = task.getStatus();
+        Map<String, Object> before = TaskEvents.snapshot(task);
 
-        if (request.getTitle() != null) {
-            task.setTitle(request.getTitle());
-        }
-        if (request.getDescription() != null) {
-            task.setDescription(request.getDescription());
-        }
-        if (request.getStatus() != null) {
-            task.setStatus(request.getStatus());
-        }
-        if (request.getPriority() != null) {
-            task.setPriority(request.getPriority());
-        }
-        if (request.getAssigneeId() != null) {
-            task.setAssigneeId(request.getAssigneeId());
-        }
-        if (request.getDeadline() != null) {
-            task.setDeadline(request.getDeadline());
-        }
-        if (request.getEstimatedHours() != null) {
-            task.setEstimatedHours(request.getEstimatedHours());
-        }
-        if (request.getActualHours() != null) {
-            task.setActualHours(request.getActualHours());
-        }
+        request.applyTo(task);
 
-        task = taskRepository.save(task);
+        // Сброс до построения ответа: в ответ и ETag попадает новая версия
+        task = taskRepository.saveAndFlush(task);
         log.info("Обновлена задача: {}", task.getId());
 
-        // Уведомление о смене исполнителя
-        if (request.getAssigneeId() != null && !request.getAssigneeId().equals(previousAssignee)) {
-            sendTaskAssignedNotification(task);
+        projectStatsService.apply(new TaskStatsDelta()
+                .statusChanged(task.getProject().getId(), previousStatus, task.getStatus()));
+
+        invalidateListings(task, previousAssignee);
+        TaskEvents.changed(task, before).ifPresent(outboxService::enqueueTaskEvent);
+        updateNotifications(task, request, previousAssignee, previousStatus)
+                .forEach(outboxService::enqueueNotification);
+
+        return TaskResponse.fromEntity(task);
+    }
+
+    /**
+     * Быстрая смена статуса (drag-and-drop на доске): один UPDATE ... RETURNING без загрузки сущности
+     */
+    @Transactional
+    @CacheEvict(value = "tasks", key = "#taskId")
+    public TaskResponse updateTaskStatus(Long taskId, TaskStatus status, String ifMatch) {
+        List<Long> versions = ETags.versions(ifMatch);
+        Optional<TaskPatchResult> patched = versions != null && versions.isEmpty()
+                ? Optional.empty()
+                : taskRepository.patchStatus(taskId, status, versions);
+        if (patched.isEmpty()) {
+            return unchangedOrFail(taskId, ifMatch);
         }
 
-        // Уведомление о смене статуса
-        if (request.getStatus() != null && request.getStatus() != previousStatus) {
-            sendTaskStatusChangedNotification(task, previousStatus);
+        TaskResponse task = patched.get().getTask();
+        TaskStatus previousStatus = patched.get().getPreviousStatus();
+        log.info("Изменён статус задачи {}: {} -> {}", taskId, previousStatus, status);
+
+        projectStatsService.apply(new TaskStatsDelta().statusChanged(task.getProjectId(), previousStatus, status));
+        taskListingCache.invalidateProject(task.getProjectId());
+        taskListingCache.invalidateAssignee(task.getAssigneeId());
+        outboxService.enqueueTaskEvent(TaskEvents.statusChanged(task));
+        outboxService.enqueueNotification(taskStatusChangedNotification(
+                task.getCreatorId(), task.getTitle(), previousStatus, status));
+
+        return task;
+    }
+
+    /**
+     * Быстрое назначение исполнителя: один UPDATE ... RETURNING без загрузки сущности
+     */
+    @Transactional
+    @CacheEvict(value = "tasks", key = "#taskId")
+    public TaskResponse assignTask(Long taskId, Long assigneeId, String ifMatch) {
+        List<Long> versions = ETags.versions(ifMatch);
+        Optional<TaskPatchResult> patched = versions != null && versions.isEmpty()
+                ? Optional.empty()
+                : taskRepository.patchAssignee(taskId, assigneeId, versions);
+        if (patched.isEmpty()) {
+            return unchangedOrFail(taskId, ifMatch);
         }
 
-        return TaskResponse.fromEntity(task);
+        TaskResponse task = patched.get().getTask();
+        log.info("Назначен исполнитель задачи {}: {}", taskId, assigneeId);
+
+        taskListingCache.invalidateProject(task.getProjectId());
+        taskListingCache.invalidateAssignee(patched.get().getPreviousAssigneeId());
+        taskListingCache.invalidateAssignee(assigneeId);
+        outboxService.enqueueTaskEvent(TaskEvents.assigned(task));
+        outboxService.enqueueNotification(taskAssignedNotification(assigneeId, task.getTitle()));
+
+        return task;
+    }
+
+    /**
+     * Пакетное обновление задач. Задачи загружаются одним запросом, изменения
+     * сбрасываются пакетными UPDATE, уведомления отправляются одной пачкой
+     */
+    @Transactional
+    public BulkTaskResponse updateTasks(List<BulkUpdateTaskItem> items) {
+        checkBulkSize(items);
+
+        Set<Long> taskIds = items.stream()
+                .map(BulkUpdateTaskItem::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Task> tasks = taskRepository.findByIdIn(taskIds).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        List<BulkItemError> errors = new ArrayList<>();
+        Map<Long, Task> updated = new LinkedHashMap<>();
+        List<NotificationDto> notifications = new ArrayList<>();
+        Map<Long, Map<String, Object>> before = new HashMap<>();
+        TaskStatsDelta statsDelta = new TaskStatsDelta();
+        for (int i = 0; i < items.size(); i++) {
+            BulkUpdateTaskItem item = items.get(i);
+            List<String> violations = validate(item);
+            Task task = item.getId() != null ? tasks.get(item.getId()) : null;
+            if (violations.isEmpty() && task == null) {
+                violations = List.of("Задача не найдена с id: '" + item.getId() + "'");
+            } else if (violations.isEmpty() && item.getVersion() != null
+                    && !item.getVersion().equals(task.getVersion())) {
+                violations = List.of("Задача изменена, текущая версия: " + task.getVersion());
+            }
+            if (!violations.isEmpty()) {
+                errors.add(new BulkItemError(i, item.getId(), violations));
+                continue;
+            }
+
+            Long previousAssignee = task.getAssigneeId();
+            TaskStatus previousStatus = task.getStatus();
+            before.putIfAbsent(task.getId(), TaskEvents.snapshot(task));
+            item.getChanges().applyTo(task);
+            statsDelta.statusChanged(task.getProject().getId(), previousStatus, task.getStatus());
+
+            invalidateListings(task, previousAssignee);
+            taskListingCache.evictTaskEntry(task.getId());
+            notifications.addAll(updateNotifications(task, item.getChanges(), previousAssignee, previousStatus));
+            updated.put(task.getId(), task);
+        }
+
+        taskRepository.flush();
+        projectStatsService.apply(statsDelta);
+        log.info("Пакетно обновлено задач: {}, ошибок: {}", updated.size(), errors.size());
+
+        // События строятся после flush: в них попадает итоговая версия задачи
+        List<TaskEvent> events = new ArrayList<>();
+        updated.values().forEach(task -> TaskEvents.changed(task, before.get(task.getId())).ifPresent(events::add));
+        outboxService.enqueueTaskEvents(events);
+        outboxService.enqueueNotifications(notifications);
+
+        return new BulkTaskResponse(updated.values().stream().map(TaskResponse::fromEntity).toList(), errors);
     }
 
     /**
@@ -138,6 +307,13 @@ public class TaskService {
                 .orElseThrow(() -> new ResourceNotFoundException("Задача", "id", taskId));
         taskRepository.delete(task);
         log.info("Удалена задача: {}", taskId);
+        outboxService.enqueueTaskEvent(TaskEvents.deleted(taskId, task.getProject().getId(), task.getVersion()));
+
+        projectStatsService.apply(new TaskStatsDelta().deleted(task.getProject().getId(), task.getStatus()));
+
+        taskListingCache.evictProjectEntry(task.getProject().getId());
+        taskListingCache.invalidateProject(task.getProject().getId());
+        taskListingCache.invalidateAssignee(task.getAssigneeId());
     }
 
     /**
@@ -145,8 +321,8 @@ public class TaskService {
      */
     @Transactional(readOnly = true)
     public Page<TaskResponse> getTasksByProject(Long projectId, Pageable pageable) {
-        return taskRepository.findByProjectId(projectId, pageable)
-                .map(TaskResponse::fromEntity);
+        return taskListingCache.byProject(projectId, pageable, () ->
+                taskRepository.findByProjectId(projectId, pageable).map(TaskResponse::fromEntity));
     }
 
     /**
@@ -154,43 +330,217 @@ public class TaskService {
      */
     @Transactional(readOnly = true)
     public Page<TaskResponse> getTasksByAssignee(Long assigneeId, Pageable pageable) {
-        return taskRepository.findByAssigneeId(assigneeId, pageable)
-                .map(TaskResponse::fromEntity);
+        return taskListingCache.byAssignee(assigneeId, pageable, () ->
+                taskRepository.findByAssigneeId(assigneeId, pageable).map(TaskResponse::fromEntity));
     }
 
     /**
-     * Получение задач по статусу
+     * Фильтр задач по нескольким условиям одним индексируемым запросом.
+     * Фильтр и сортировка приводятся к нормальной форме TaskFilterGuard, она же служит ключом кэша.
+     */
+    @Transactional(readOnly = true)
+    public Page<TaskResponse> filterTasks(TaskFilterCriteria criteria, Pageable pageable) {
+        TaskFilterCriteria normalized = TaskFilterGuard.normalize(criteria);
+        Pageable page = TaskFilterGuard.normalize(pageable);
+        return taskListingCache.byFilter(normalized, page, () ->
+                taskRepository.findAll(TaskSpecifications.matching(normalized), page).map(TaskResponse::fromEntity));
+    }
+
+    /**
+     * Получение задач по статусу. Открытый статус читается только из горячей секции, закрытый — вместе с архивом
      */
     @Transactional(readOnly = true)
     public Page<TaskResponse> getTasksByStatus(TaskStatus status, Pageable pageable) {
-        return taskRepository.findByStatus(status, pageable)
-                .map(TaskResponse::fromEntity);
+        Page<Task> tasks = status.isClosed()
+                ? taskRepository.findByStatus(status, pageable)
+                : taskRepository.findOpenByStatus(status, pageable);
+        return tasks.map(TaskResponse::fromEntity);
+    }
+
+    /**
+     * Keyset пагинация задач проекта
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TaskResponse> scrollTasksByProject(Long projectId, String cursor, int size) {
+        return scroll(cursor, size,
+                page -> taskRepository.scrollByProjectId(projectId, page),
+                (after, page) -> taskRepository.scrollByProjectIdAfter(
+                        projectId, after.getCreatedAt(), after.getId(), page));
+    }
+
+    /**
+     * Keyset пагинация задач исполнителя
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TaskResponse> scrollTasksByAssignee(Long assigneeId, String cursor, int size) {
+        return scroll(cursor, size,
+                page -> taskRepository.scrollByAssigneeId(assigneeId, page),
+                (after, page) -> taskRepository.scrollByAssigneeIdAfter(
+                        assigneeId, after.getCreatedAt(), after.getId(), page));
+    }
+
+    /**
+     * Keyset пагинация задач по статусу
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TaskResponse> scrollTasksByStatus(TaskStatus status, String cursor, int size) {
+        if (!status.isClosed()) {
+            return scroll(cursor, size,
+                    page -> taskRepository.scrollOpenByStatus(status, page),
+                    (after, page) -> taskRepository.scrollOpenByStatusAfter(
+                            status, after.getCreatedAt(), after.getId(), page));
+        }
+        return scroll(cursor, size,
+                page -> taskRepository.scrollByStatus(status, page),
+                (after, page) -> taskRepository.scrollByStatusAfter(
+                        status, after.getCreatedAt(), after.getId(), page));
+    }
+
+    /**
+     * Полнотекстовый поиск по названию и описанию: по убыванию релевантности, keyset пагинация
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TaskResponse> searchTasks(TaskSearchCriteria criteria, String cursor, int size) {
+        String query = criteria.getQuery() != null ? criteria.getQuery().strip() : "";
+        if (query.isEmpty()) {
+            throw new BusinessException("Поисковый запрос не может быть пустым");
+        }
+        if (query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new BusinessException("Поисковый запрос длиннее " + MAX_SEARCH_QUERY_LENGTH + " символов");
+        }
+        criteria.setQuery(query);
+
+        int limit = KeysetCursor.pageRequest(size).getPageSize();
+        SearchCursor after = cursor == null || cursor.isBlank() ? null : SearchCursor.decode(cursor);
+        List<TaskSearchHit> hits = taskRepository.search(criteria, after, limit + 1);
+        boolean hasNext = hits.size() > limit;
+        if (hasNext) {
+            hits = hits.subList(0, limit);
+        }
+
+        // Задачи с проектом загружаются одним запросом, порядок выдачи берётся из поиска
+        Map<Long, Task> tasks = taskRepository.findByIdIn(hits.stream().map(TaskSearchHit::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        List<TaskSearchHit> found = hits.stream().filter(hit -> tasks.containsKey(hit.getId())).toList();
+
+        return CursorPage.of(new SliceImpl<>(found, Pageable.ofSize(limit), hasNext),
+                hit -> TaskResponse.fromEntity(tasks.get(hit.getId())),
+                hit -> new SearchCursor(hit.getRank(), hit.getId()));
+    }
+
+    private CursorPage<TaskResponse> scroll(String cursor, int size,
+                                            Function<Pageable, Slice<Task>> firstPage,
+                                            BiFunction<KeysetCursor, Pageable, Slice<Task>> nextPage) {
+        Pageable pageable = KeysetCursor.pageRequest(size);
+        Slice<Task> slice = cursor == null || cursor.isBlank()
+                ? firstPage.apply(pageable)
+                : nextPage.apply(KeysetCursor.decode(cursor), pageable);
+        return CursorPage.of(slice, TaskResponse::fromEntity,
+                task -> new KeysetCursor(task.getCreatedAt(), task.getId()));
+    }
+
+    private Task buildTask(CreateTaskRequest request, Project project, Long creatorId) {
+        return Task.builder()
+                .title(request.getTitle())
+                .description(request.getDescription())
+                .project(project)
+                .priority(request.getPriority() != null ? request.getPriority() : TaskPriority.MEDIUM)
+                .assigneeId(request.getAssigneeId())
+                .creatorId(creatorId)
+                .deadline(request.getDeadline())
+                .estimatedHours(request.getEstimatedHours())
+                .build();
+    }
+
+    private void invalidateListings(Task task, Long previousAssignee) {
+        taskListingCache.invalidateProject(task.getProject().getId());
+        taskListingCache.invalidateAssignee(previousAssignee);
+        if (!Objects.equals(previousAssignee, task.getAssigneeId())) {
+            taskListingCache.invalidateAssignee(task.getAssigneeId());
+        }
+    }
+
+    private List<NotificationDto> updateNotifications(Task task, UpdateTaskRequest request,
+                                                      Long previousAssignee, TaskStatus previousStatus) {
+        List<NotificationDto> notifications = new ArrayList<>(2);
+
+        // Уведомление о смене исполнителя
+        if (request.getAssigneeId() != null && !request.getAssigneeId().equals(previousAssignee)) {
+            notifications.add(taskAssignedNotification(task));
+        }
+
+        // Уведомление о смене статуса
+        if (request.getStatus() != null && request.getStatus() != previousStatus) {
+            notifications.add(taskStatusChangedNotification(task, previousStatus));
+        }
+
+        return notifications;
     }
 
-    private void sendTaskAssignedNotification(Task task) {
-        NotificationDto notification = NotificationDto.builder()
+    /**
+     * Точечный UPDATE не изменил строк: задачи нет (404), версия не совпала (412) или значение уже установлено
+     */
+    private TaskResponse unchangedOrFail(Long taskId, String ifMatch) {
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new ResourceNotFoundException("Задача", "id", taskId));
+        if (!ETags.ifMatchHolds(ifMatch, ETags.of(task.getVersion()))) {
+            throw new PreconditionFailedException("Задача изменена, текущая версия: " + task.getVersion());
+        }
+        return TaskResponse.fromEntity(task);
+    }
+
+    private void checkBulkSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new BusinessException("Пакетный запрос не содержит элементов");
+        }
+        if (items.size() > MAX_BULK_SIZE) {
+            throw new BusinessException("Пакетный запрос не может содержать больше " + MAX_BULK_SIZE + " элементов");
+        }
+    }
+
+    private List<String> validate(Object item) {
+        if (item == null) {
+            return List.of("Элемент не может быть пустым");
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(item);
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .toList();
+    }
+
+    private NotificationDto taskAssignedNotification(Task task) {
+        return taskAssignedNotification(task.getAssigneeId(), task.getTitle());
+    }
+
+    private NotificationDto taskAssignedNotification(Long assigneeId, String taskTitle) {
+        return NotificationDto.builder()
                 .id(UUID.randomUUID().toString())
-                .userId(task.getAssigneeId())
+                .userId(assigneeId)
                 .type("TASK_ASSIGNED")
                 .title("Новая задача")
-                .message("Вам назначена задача: " + task.getTitle())
+                .message("Вам назначена задача: " + taskTitle)
                 .channel("EMAIL")
                 .createdAt(LocalDateTime.now())
                 .build();
-        kafkaProducerService.sendNotification(notification);
     }
 
-    private void sendTaskStatusChangedNotification(Task task, TaskStatus previousStatus) {
-        NotificationDto notification = NotificationDto.builder()
+    private NotificationDto taskStatusChangedNotification(Task task, TaskStatus previousStatus) {
+        return taskStatusChangedNotification(task.getCreatorId(), task.getTitle(), previousStatus, task.getStatus());
+    }
+
+    private NotificationDto taskStatusChangedNotification(Long creatorId, String taskTitle,
+                                                          TaskStatus previousStatus, TaskStatus status) {
+        return NotificationDto.builder()
                 .id(UUID.randomUUID().toString())
-                .userId(task.getCreatorId())
+                .userId(creatorId)
                 .type("TASK_STATUS_CHANGED")
                 .title("Статус задачи изменён")
                 .message(String.format("Задача '%s' изменила статус с %s на %s",
-                        task.getTitle(), previousStatus, task.getStatus()))
+                        taskTitle, previousStatus, status))
                 .channel("EMAIL")
                 .createdAt(LocalDateTime.now())
                 .build();
-        kafkaProducerService.sendNotification(notification);
     }
 }
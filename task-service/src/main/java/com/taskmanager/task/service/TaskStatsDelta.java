@@ -0,0 +1,44 @@
+package com.taskmanager.task.service;
+
+import com.taskmanager.task.entity.TaskStatus;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Накопленные изменения счётчиков задач по проектам и статусам
+ */
+public class TaskStatsDelta {
+
+    /** Проекты по возрастанию ID: строки счётчиков блокируются в одном порядке во всех транзакциях */
+    private final Map<Long, long[]> deltas = new TreeMap<>();
+
+    public TaskStatsDelta created(Long projectId, TaskStatus status) {
+        return add(projectId, status, 1);
+    }
+
+    public TaskStatsDelta deleted(Long projectId, TaskStatus status) {
+        return add(projectId, status, -1);
+    }
+
+    public TaskStatsDelta statusChanged(Long projectId, TaskStatus from, TaskStatus to) {
+        if (from != to) {
+            add(projectId, from, -1);
+            add(projectId, to, 1);
+        }
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return deltas.isEmpty();
+    }
+
+    Map<Long, long[]> byProject() {
+        return deltas;
+    }
+
+    private TaskStatsDelta add(Long projectId, TaskStatus status, long delta) {
+        deltas.computeIfAbsent(projectId, id -> new long[TaskStatus.values().length])[status.ordinal()] += delta;
+        return this;
+    }
+}
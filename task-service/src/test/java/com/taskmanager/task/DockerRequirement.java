@@ -0,0 +1,17 @@
+package com.taskmanager.task;
+
+import org.testcontainers.DockerClientFactory;
+
+/**
+ * Условие запуска тестов на Testcontainers: локально без Docker они пропускаются, в CI
+ * (задана переменная окружения CI) запускаются всегда, чтобы отсутствие Docker приводило к падению сборки
+ */
+public final class DockerRequirement {
+
+    private DockerRequirement() {
+    }
+
+    public static boolean dockerAvailableOrRequired() {
+        return System.getenv("CI") != null || DockerClientFactory.instance().isDockerAvailable();
+    }
+}
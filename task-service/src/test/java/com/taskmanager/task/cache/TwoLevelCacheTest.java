@@ -0,0 +1,93 @@
+package com.taskmanager.task.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit тесты для TwoLevelCache
+ */
+@ExtendWith(MockitoExtension.class)
+class TwoLevelCacheTest {
+
+    @Mock
+    private CacheInvalidationPublisher publisher;
+
+    private ConcurrentMapCache remote;
+    private MeterRegistry meterRegistry;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        remote = new ConcurrentMapCache("tasks", false);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TwoLevelCache("tasks", Caffeine.newBuilder().maximumSize(100).build(),
+                remote, publisher, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Загрузка значения сохраняет его в L1 и L2")
+    void get_LoadsOnceAndPopulatesBothLevels() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, () -> "task-" + loads.incrementAndGet());
+        String second = cache.get(1L, () -> "task-" + loads.incrementAndGet());
+
+        assertThat(second).isEqualTo("task-1");
+        assertThat(loads).hasValue(1);
+        assertThat(remote.get(1L).get()).isEqualTo("task-1");
+        assertThat(counter("l1", "hit")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Промах L1 читает значение из Redis без обращения к БД")
+    void get_FallsBackToRemote() {
+        remote.put(2L, "from-redis");
+
+        String value = cache.get(2L, () -> "from-db");
+
+        assertThat(value).isEqualTo("from-redis");
+        assertThat(counter("l2", "hit")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Удаление очищает оба уровня и рассылается репликам")
+    void evict_ClearsBothLevelsAndBroadcasts() {
+        cache.get(3L, () -> "value");
+
+        cache.evict(3L);
+
+        assertThat(cache.get(3L)).isNull();
+        assertThat(remote.get(3L)).isNull();
+        verify(publisher).publishEvict("tasks", "3");
+    }
+
+    @Test
+    @DisplayName("Инвалидация от другой реплики сбрасывает только L1")
+    void evictLocal_KeepsRemoteEntry() {
+        cache.put(4L, "stale");
+        remote.put(4L, "fresh");
+
+        cache.evictLocal("4");
+
+        assertThat(cache.get(4L).get()).isEqualTo("fresh");
+    }
+
+    private double counter(String level, String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("name", "tasks").tag("level", level).tag("result", result)
+                .counter().count();
+    }
+}
@@ -0,0 +1,136 @@
+package com.taskmanager.task.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Маршрутизация readOnly транзакций на реплику; две базы H2 в памяти вместо primary и реплики
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private static final String LAG_QUERY = "SELECT seconds FROM replica_lag";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DriverManagerDataSource primary;
+    private DriverManagerDataSource replicaDataSource;
+    private ReplicaPool replica;
+    private ReplicaHealthChecker checker;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTx;
+    private TransactionTemplate writeTx;
+
+    @BeforeEach
+    void setUp() {
+        primary = new DriverManagerDataSource("jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1");
+        replicaDataSource = new DriverManagerDataSource("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1");
+        new JdbcTemplate(replicaDataSource).execute("CREATE TABLE IF NOT EXISTS replica_lag (seconds DOUBLE)");
+        setReplicaLag(0);
+
+        replica = new ReplicaPool("replica-0", replicaDataSource);
+        checker = new ReplicaHealthChecker(List.of(replica), LAG_QUERY, Duration.ofSeconds(5), meterRegistry);
+        checker.checkAll();
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primary, List.of(replica), meterRegistry));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        writeTx = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        checker.close();
+    }
+
+    @Test
+    @DisplayName("readOnly транзакция читает с реплики, запись идёт на основную БД")
+    void routesByTransactionReadOnlyFlag() {
+        assertThat(databaseIn(readOnlyTx)).isEqualTo("REPLICA");
+        assertThat(databaseIn(writeTx)).isEqualTo("PRIMARY");
+        assertThat(currentDatabase()).isEqualTo("PRIMARY");
+
+        assertThat(meterRegistry.counter("datasource.routing", "target", "replica", "reason", "read").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Отставшая реплика выводится из ротации и возвращается после догоняния")
+    void laggingReplicaFallsBackToPrimary() {
+        setReplicaLag(30);
+        checker.checkAll();
+
+        assertThat(replica.isHealthy()).isFalse();
+        assertThat(databaseIn(readOnlyTx)).isEqualTo("PRIMARY");
+        assertThat(meterRegistry.get("datasource.replica.lag").tag("pool", "replica-0").gauge().value())
+                .isEqualTo(30);
+
+        setReplicaLag(1);
+        checker.checkAll();
+
+        assertThat(databaseIn(readOnlyTx)).isEqualTo("REPLICA");
+    }
+
+    @Test
+    @DisplayName("Ошибка соединения с репликой переключает чтение на основную БД")
+    void unreachableReplicaFallsBackToPrimary() {
+        replicaDataSource.setUrl("jdbc:h2:mem:missing;IFEXISTS=TRUE");
+
+        assertThat(databaseIn(readOnlyTx)).isEqualTo("PRIMARY");
+        assertThat(replica.isHealthy()).isFalse();
+        assertThat(meterRegistry.counter("datasource.routing", "target", "primary", "reason", "replica-error").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Соединение с явными учётными данными идёт на основную БД и в readOnly транзакции")
+    void explicitCredentialsUsePrimary() throws SQLException {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, List.of(replica), meterRegistry);
+        double replicaReads = meterRegistry.counter("datasource.routing", "target", "replica", "reason", "read").count();
+
+        String database = readOnlyTx.execute(status -> {
+            try (Connection connection = routing.getConnection("", "");
+                 ResultSet resultSet = connection.createStatement().executeQuery("SELECT DATABASE()")) {
+                resultSet.next();
+                return resultSet.getString(1);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(database).isEqualTo("PRIMARY");
+        assertThat(meterRegistry.counter("datasource.routing", "target", "replica", "reason", "read").count())
+                .isEqualTo(replicaReads);
+    }
+
+    private String databaseIn(TransactionTemplate transaction) {
+        return transaction.execute(status -> currentDatabase());
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("SELECT DATABASE()", String.class);
+    }
+
+    private void setReplicaLag(double seconds) {
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replicaDataSource);
+        replicaJdbc.update("DELETE FROM replica_lag");
+        replicaJdbc.update("INSERT INTO replica_lag (seconds) VALUES (?)", seconds);
+    }
+}
@@ -0,0 +1,117 @@
+package com.taskmanager.task.datasource;
+
+import com.taskmanager.task.entity.Project;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * readOnly транзакция, пришедшая на отстающую реплику, не возвращает старый проект в кэш второго уровня.
+ * Отставание моделируется порядком: readOnly транзакция читает строку до того, как запись доходит до БД,
+ * а сброс кэша после коммита записи к этому моменту уже выполнен
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReplicaReadJpaDialectTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long projectId;
+
+    @BeforeEach
+    void setUp() {
+        projectId = transactions(new HibernateJpaDialect(), false).execute(status -> {
+            Project project = Project.builder().name("Старое").ownerId(7L).memberIds(new LinkedHashSet<>()).build();
+            EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory).persist(project);
+            return project.getId();
+        });
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("DELETE FROM projects");
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    @DisplayName("Проект, прочитанный readOnly транзакцией с реплики, не попадает в кэш; запись видит новую версию")
+    void replicaRead_DoesNotRepopulateCache() {
+        assertThat(readOnlyLoad(new ReplicaReadJpaDialect()).getName()).isEqualTo("Старое");
+        assertThat(entityManagerFactory.getCache().contains(Project.class, projectId)).isFalse();
+
+        applyConcurrentWrite();
+
+        Project loaded = writeLoad();
+        assertThat(loaded.getName()).isEqualTo("Новое");
+        assertThat(loaded.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Без диалекта реплики старый проект возвращается в кэш и читается пишущей транзакцией")
+    void defaultDialect_RepopulatesStaleEntry() {
+        readOnlyLoad(new HibernateJpaDialect());
+        assertThat(entityManagerFactory.getCache().contains(Project.class, projectId)).isTrue();
+
+        applyConcurrentWrite();
+
+        assertThat(writeLoad().getVersion()).isZero();
+    }
+
+    @Test
+    @DisplayName("readOnly транзакция читает проект из кэша, если его положила пишущая транзакция")
+    void replicaRead_StillHitsCache() {
+        writeLoad();
+        jdbcTemplate.update("UPDATE projects SET name = 'Из БД' WHERE id = ?", projectId);
+
+        assertThat(readOnlyLoad(new ReplicaReadJpaDialect()).getName()).isEqualTo("Старое");
+    }
+
+    private Project readOnlyLoad(HibernateJpaDialect dialect) {
+        return transactions(dialect, true).execute(status ->
+                EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory)
+                        .find(Project.class, projectId));
+    }
+
+    private Project writeLoad() {
+        return transactions(new ReplicaReadJpaDialect(), false).execute(status ->
+                EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory)
+                        .find(Project.class, projectId));
+    }
+
+    /**
+     * Запись, которая уже закоммичена на основной БД и сбросила кэш, но ещё не дошла до реплики
+     */
+    private void applyConcurrentWrite() {
+        jdbcTemplate.update("UPDATE projects SET name = 'Новое', version = version + 1 WHERE id = ?", projectId);
+    }
+
+    private TransactionTemplate transactions(HibernateJpaDialect dialect, boolean readOnly) {
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        transactionManager.setJpaDialect(dialect);
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template;
+    }
+}
@@ -0,0 +1,94 @@
+package com.taskmanager.task.job;
+
+import com.taskmanager.task.entity.JobLease;
+import com.taskmanager.task.repository.JobLeaseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Аренда фоновой задачи достаётся одной реплике до освобождения или истечения
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JobLeaseServiceTest {
+
+    private static final String JOB = "test-job";
+
+    @Autowired
+    private JobLeaseRepository leaseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JobLeaseService first;
+    private JobLeaseService second;
+
+    @BeforeEach
+    void setUp() {
+        first = new JobLeaseService(leaseRepository, transactionManager, "replica-1");
+        second = new JobLeaseService(leaseRepository, transactionManager, "replica-2");
+    }
+
+    @AfterEach
+    void tearDown() {
+        leaseRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Аренду держит одна реплика, после освобождения её берёт другая")
+    void leaseIsExclusiveUntilReleased() {
+        assertThat(first.tryAcquire(JOB, Duration.ofMinutes(5))).isTrue();
+        assertThat(second.tryAcquire(JOB, Duration.ofMinutes(5))).isFalse();
+        // Владелец продлевает свою аренду
+        assertThat(first.tryAcquire(JOB, Duration.ofMinutes(5))).isTrue();
+
+        first.release(JOB);
+
+        assertThat(second.tryAcquire(JOB, Duration.ofMinutes(5))).isTrue();
+        assertThat(first.tryAcquire(JOB, Duration.ofMinutes(5))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Истёкшая аренда переходит к другой реплике")
+    void expiredLeaseCanBeTakenOver() {
+        assertThat(first.tryAcquire(JOB, Duration.ofMillis(-1))).isTrue();
+
+        assertThat(second.tryAcquire(JOB, Duration.ofMinutes(5))).isTrue();
+        assertThat(leaseRepository.findById(JOB)).get()
+                .extracting(lease -> lease.getOwner()).isEqualTo("replica-2");
+    }
+
+    @Test
+    @DisplayName("Сроки аренды при захвате, продлении и освобождении считаются по часам БД")
+    void leaseTimesUseDatabaseClock() {
+        Duration ttl = Duration.ofMinutes(5);
+        LocalDateTime before = leaseRepository.currentTime();
+        assertThat(first.tryAcquire(JOB, ttl)).isTrue();
+        assertThat(first.tryAcquire(JOB, ttl)).isTrue();
+        LocalDateTime after = leaseRepository.currentTime();
+
+        assertThat(leaseRepository.findById(JOB)).get()
+                .extracting(JobLease::getLockedUntil)
+                .satisfies(lockedUntil -> assertThat(lockedUntil).isBetween(before.plus(ttl), after.plus(ttl)));
+
+        first.release(JOB);
+
+        assertThat(leaseRepository.findById(JOB)).get()
+                .extracting(JobLease::getLockedUntil)
+                .satisfies(lockedUntil -> assertThat(lockedUntil).isBeforeOrEqualTo(leaseRepository.currentTime()));
+    }
+}
@@ -0,0 +1,151 @@
+package com.taskmanager.task.job;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanager.common.dto.NotificationDto;
+import com.taskmanager.task.config.OutboxRelayProperties;
+import com.taskmanager.task.entity.OutboxEvent;
+import com.taskmanager.task.repository.OutboxRepository;
+import com.taskmanager.task.service.KafkaProducerService;
+import com.taskmanager.task.service.OutboxService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Outbox пишется только в транзакции изменения, публикуется в порядке id и удаляется после подтверждения
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(OutboxService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxRelayTest {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final KafkaProducerService kafkaProducerService = mock(KafkaProducerService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TransactionTemplate transaction;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAllInBatch();
+        transaction = new TransactionTemplate(transactionManager);
+
+        OutboxRelayProperties properties = new OutboxRelayProperties();
+        properties.setBatchSize(2);
+        JobLeaseService leaseService = mock(JobLeaseService.class);
+        when(leaseService.tryAcquire(any(), any())).thenReturn(true);
+        relay = new OutboxRelay(outboxRepository, kafkaProducerService, leaseService,
+                properties, transactionManager, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Строка outbox фиксируется вместе с транзакцией и исчезает при её откате")
+    void enqueue_FollowsTransaction() throws Exception {
+        transaction.executeWithoutResult(status -> outboxService.enqueueNotification(notification(1)));
+        transaction.executeWithoutResult(status -> {
+            outboxService.enqueueNotification(notification(2));
+            status.setRollbackOnly();
+        });
+
+        List<OutboxEvent> events = outboxRepository.findAll();
+        assertThat(events).extracting(OutboxEvent::getMessageKey).containsExactly("1");
+        assertThat(events.get(0).getTopic()).isEqualTo("notification-events");
+        assertThat(objectMapper.readValue(events.get(0).getPayload(), NotificationDto.class).getId()).isEqualTo("n-1");
+
+        assertThatThrownBy(() -> outboxService.enqueueNotification(notification(3)))
+                .isInstanceOf(IllegalTransactionStateException.class);
+    }
+
+    @Test
+    @DisplayName("Пачки публикуются в порядке id и удаляются после подтверждения")
+    @SuppressWarnings("unchecked")
+    void relay_PublishesInOrderAndDeletes() {
+        enqueue(5);
+        when(kafkaProducerService.sendOutbox(anyList())).thenAnswer(inv -> acknowledged(inv.getArgument(0)));
+
+        assertThat(relay.relay()).isEqualTo(5);
+
+        ArgumentCaptor<List<OutboxEvent>> batches = ArgumentCaptor.forClass(List.class);
+        verify(kafkaProducerService, times(3)).sendOutbox(batches.capture());
+        assertThat(batches.getAllValues().stream().flatMap(List::stream).map(OutboxEvent::getMessageKey))
+                .containsExactly("0", "1", "2", "3", "4");
+        assertThat(outboxRepository.count()).isZero();
+        assertThat(meterRegistry.get("outbox.relay.published").counter().count()).isEqualTo(5);
+        assertThat(meterRegistry.get("outbox.relay.lag").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("После неудачной отправки остаются она и все следующие строки, повтор идёт в исходном порядке")
+    void relay_FailureKeepsOrderedSuffix() {
+        enqueue(2);
+        when(kafkaProducerService.sendOutbox(anyList()))
+                .thenReturn(List.of(CompletableFuture.failedFuture(new IllegalStateException("broker")),
+                        CompletableFuture.completedFuture(null)));
+
+        assertThat(relay.relay()).isZero();
+        assertThat(outboxRepository.findAll()).extracting(OutboxEvent::getMessageKey).containsExactly("0", "1");
+
+        reset(kafkaProducerService);
+        when(kafkaProducerService.sendOutbox(anyList())).thenAnswer(inv -> acknowledged(inv.getArgument(0)));
+        assertThat(relay.relay()).isEqualTo(2);
+        assertThat(outboxRepository.count()).isZero();
+    }
+
+    private void enqueue(int count) {
+        transaction.executeWithoutResult(status -> outboxService.enqueueNotifications(
+                IntStream.range(0, count).mapToObj(OutboxRelayTest::notification).toList()));
+    }
+
+    private static List<CompletableFuture<?>> acknowledged(List<OutboxEvent> events) {
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        events.forEach(event -> futures.add(CompletableFuture.completedFuture(null)));
+        return futures;
+    }
+
+    private static NotificationDto notification(long userId) {
+        return NotificationDto.builder()
+                .id("n-" + userId)
+                .userId(userId)
+                .type("TASK_ASSIGNED")
+                .title("Новая задача")
+                .channel("PUSH")
+                .build();
+    }
+}
@@ -0,0 +1,149 @@
+package com.taskmanager.task.job;
+
+import com.taskmanager.common.dto.NotificationDto;
+import com.taskmanager.task.cache.TaskListingCache;
+import com.taskmanager.task.config.OverdueScannerProperties;
+import com.taskmanager.task.dto.UpdateTaskRequest;
+import com.taskmanager.task.entity.Project;
+import com.taskmanager.task.entity.Task;
+import com.taskmanager.task.entity.TaskStatus;
+import com.taskmanager.task.repository.TaskRepository;
+import com.taskmanager.task.service.OutboxService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Поиск просроченных задач: пачки по (deadline, id) и однократное уведомление
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class OverdueTaskScannerTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final OutboxService outboxService = mock(OutboxService.class);
+    private final TaskListingCache taskListingCache = mock(TaskListingCache.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OverdueTaskScanner scanner;
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        OverdueScannerProperties properties = new OverdueScannerProperties();
+        properties.setBatchSize(2);
+        JobLeaseService leaseService = mock(JobLeaseService.class);
+        when(leaseService.tryAcquire(any(), any())).thenReturn(true);
+        scanner = new OverdueTaskScanner(taskRepository, taskListingCache, outboxService, leaseService,
+                properties, transactionManager, meterRegistry);
+
+        project = entityManager.persist(Project.builder().name("Проект").ownerId(1L).build());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= 5; i++) {
+            persistTask("Просрочена " + i, now.minusHours(i), TaskStatus.IN_PROGRESS, i == 5 ? null : 10L + i);
+        }
+        persistTask("Закрыта", now.minusDays(1), TaskStatus.DONE, 20L);
+        persistTask("В срок", now.plusDays(1), TaskStatus.TODO, 21L);
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Просроченные открытые задачи уведомляются пачками и только один раз")
+    @SuppressWarnings("unchecked")
+    void scan_NotifiesOncePerTaskInBatches() {
+        assertThat(scanner.scan()).isEqualTo(5);
+
+        ArgumentCaptor<List<NotificationDto>> batches = ArgumentCaptor.forClass(List.class);
+        verify(outboxService, times(3)).enqueueNotifications(batches.capture());
+        assertThat(batches.getAllValues()).extracting(List::size).containsExactly(2, 2, 1);
+        // Задача без исполнителя уведомляет автора
+        assertThat(batches.getAllValues().get(0)).extracting(NotificationDto::getUserId).containsExactly(1L, 14L);
+        assertThat(meterRegistry.get("overdue.scan.backlog").gauge().value()).isZero();
+
+        assertThat(scanner.scan()).isZero();
+        verify(outboxService, times(3)).enqueueNotifications(anyList());
+
+        // Отметка увеличила версии: записи задач и списки сброшены
+        verify(taskListingCache, times(5)).evictTaskEntry(any());
+        verify(taskListingCache, times(3)).invalidateProject(project.getId());
+        verify(taskListingCache).invalidateAssignee(11L);
+    }
+
+    @Test
+    @DisplayName("Изменение, загруженное до поиска, не сбрасывает отметку и не вызывает повторного уведомления")
+    void concurrentUpdate_DoesNotResendNotification() {
+        entityManager.clear();
+        Task stale = findByTitle("Просрочена 1");
+        entityManager.detach(stale);
+
+        assertThat(scanner.scan()).isEqualTo(5);
+        entityManager.clear();
+
+        // Изменение названия через сущность, загруженную до отметки, записало бы всю строку с overdue_notified_at = NULL
+        stale.setTitle("Переименована");
+        assertThatThrownBy(() -> {
+            entityManager.merge(stale);
+            entityManager.flush();
+        }).isInstanceOf(OptimisticLockException.class);
+        entityManager.clear();
+
+        assertThat(findByTitle("Просрочена 1").getOverdueNotifiedAt()).isNotNull();
+        assertThat(scanner.scan()).isZero();
+        verify(outboxService, times(3)).enqueueNotifications(anyList());
+    }
+
+    @Test
+    @DisplayName("Перенос дедлайна снимает отметку об уведомлении")
+    void deadlineChange_ResetsMarker() {
+        scanner.scan();
+        entityManager.clear();
+
+        Task notified = findByTitle("Просрочена 1");
+        assertThat(notified.getOverdueNotifiedAt()).isNotNull();
+
+        UpdateTaskRequest.builder().deadline(LocalDateTime.now().minusMinutes(1)).build().applyTo(notified);
+        assertThat(notified.getOverdueNotifiedAt()).isNull();
+    }
+
+    private Task findByTitle(String title) {
+        return entityManager.getEntityManager()
+                .createQuery("SELECT t FROM Task t WHERE t.title = :title", Task.class)
+                .setParameter("title", title)
+                .getSingleResult();
+    }
+
+    private void persistTask(String title, LocalDateTime deadline, TaskStatus status, Long assigneeId) {
+        entityManager.persist(Task.builder()
+                .title(title)
+                .project(project)
+                .status(status)
+                .deadline(deadline)
+                .assigneeId(assigneeId)
+                .creatorId(1L)
+                .build());
+    }
+}
@@ -0,0 +1,197 @@
+package com.taskmanager.task.job;
+
+import com.taskmanager.common.dto.TaskEvent;
+import com.taskmanager.common.dto.TaskEventType;
+import com.taskmanager.task.cache.ProjectEntityCache;
+import com.taskmanager.task.cache.TaskListingCache;
+import com.taskmanager.task.config.ProjectPurgeProperties;
+import com.taskmanager.task.dto.ProjectDeletionResponse;
+import com.taskmanager.task.entity.Project;
+import com.taskmanager.task.entity.Task;
+import com.taskmanager.task.repository.ProjectDeletionRepository;
+import com.taskmanager.task.repository.ProjectRepository;
+import com.taskmanager.task.repository.TaskRepository;
+import com.taskmanager.task.service.ProjectService;
+import com.taskmanager.task.service.OutboxService;
+import com.taskmanager.task.service.ProjectStatsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Мягкое удаление скрывает проект и задачи сразу, очистка удаляет их пачками
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ProjectService.class, ProjectStatsService.class, ProjectEntityCache.class})
+class ProjectPurgeJobTest {
+
+    private static final long OWNER_ID = 7L;
+
+    @MockBean
+    private TaskListingCache taskListingCache;
+
+    @MockBean
+    private OutboxService outboxService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ProjectDeletionRepository deletionRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ProjectPurgeJob job;
+    private Long projectId;
+    private Long otherProjectId;
+    private final List<Long> taskIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ProjectPurgeProperties properties = new ProjectPurgeProperties();
+        properties.setBatchSize(2);
+        JobLeaseService leaseService = mock(JobLeaseService.class);
+        when(leaseService.tryAcquire(any(), any())).thenReturn(true);
+        job = new ProjectPurgeJob(deletionRepository, projectRepository, taskRepository, taskListingCache,
+                outboxService, leaseService, properties, transactionManager, meterRegistry);
+
+        Project project = entityManager.persist(Project.builder()
+                .name("Удаляемый").ownerId(OWNER_ID).memberIds(Set.of(1L, 2L, 3L)).build());
+        Project other = entityManager.persist(Project.builder().name("Другой").ownerId(OWNER_ID).build());
+        projectId = project.getId();
+        otherProjectId = other.getId();
+        for (int i = 1; i <= 5; i++) {
+            taskIds.add(persistTask(project, 10L).getId());
+        }
+        persistTask(other, 10L);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Удалённый проект и его задачи сразу скрыты из запросов")
+    void deleteProject_HidesProjectAndTasks() {
+        ProjectDeletionResponse response = projectService.deleteProject(projectId);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(response.isCompleted()).isFalse();
+        assertThat(projectRepository.findById(projectId)).isEmpty();
+        assertThat(projectRepository.findAllIds()).containsExactly(otherProjectId);
+        assertThat(taskRepository.findById(taskIds.get(0))).isEmpty();
+        assertThat(taskRepository.findByIdIn(taskIds)).isEmpty();
+        assertThat(taskRepository.findByAssigneeId(10L, PageRequest.of(0, 20)).getContent())
+                .extracting(task -> task.getProject().getId())
+                .containsExactly(otherProjectId);
+        // Строки ещё не удалены
+        assertThat(count("tasks")).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Очистка удаляет задачи и участников пачками и затем сам проект")
+    @SuppressWarnings("unchecked")
+    void purge_RemovesInBatches() {
+        projectService.deleteProject(projectId);
+        entityManager.flush();
+        entityManager.clear();
+
+        // 3 пачки задач, 2 пачки участников, удаление проекта
+        assertThat(job.purge()).isEqualTo(6);
+        entityManager.clear();
+
+        ProjectDeletionResponse progress = projectService.getDeletion(projectId);
+        assertThat(progress.isCompleted()).isTrue();
+        assertThat(progress.getTasksTotal()).isEqualTo(5);
+        assertThat(progress.getTasksPurged()).isEqualTo(5);
+        assertThat(progress.getMembersPurged()).isEqualTo(3);
+        assertThat(count("tasks")).isEqualTo(1);
+        assertThat(count("project_members")).isZero();
+        assertThat(count("projects")).isEqualTo(1);
+
+        assertThat(meterRegistry.get("projects.purge.tasks").counter().count()).isEqualTo(5);
+        assertThat(meterRegistry.get("projects.purge.pending").gauge().value()).isZero();
+        taskIds.forEach(id -> verify(taskListingCache).evictTaskEntry(id));
+
+        ArgumentCaptor<List<TaskEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(outboxService, times(3)).enqueueTaskEvents(events.capture());
+        assertThat(events.getAllValues().stream().flatMap(List::stream))
+                .allMatch(event -> event.getType() == TaskEventType.DELETED && projectId.equals(event.getProjectId()))
+                .extracting(TaskEvent::getTaskId)
+                .containsExactlyElementsOf(taskIds);
+
+        assertThat(job.purge()).isZero();
+    }
+
+    @Test
+    @DisplayName("Запуск ограничен числом пачек, остаток продолжает следующий запуск")
+    void purge_ResumesAfterBatchLimit() {
+        projectService.deleteProject(projectId);
+        entityManager.flush();
+        entityManager.clear();
+
+        ProjectPurgeProperties properties = new ProjectPurgeProperties();
+        properties.setBatchSize(2);
+        properties.setMaxBatchesPerRun(2);
+        JobLeaseService leaseService = mock(JobLeaseService.class);
+        when(leaseService.tryAcquire(any(), any())).thenReturn(true);
+        ProjectPurgeJob limited = new ProjectPurgeJob(deletionRepository, projectRepository, taskRepository,
+                taskListingCache, outboxService, leaseService, properties, transactionManager,
+                new SimpleMeterRegistry());
+
+        assertThat(limited.purge()).isEqualTo(2);
+        entityManager.clear();
+        assertThat(projectService.getDeletion(projectId).getTasksPurged()).isEqualTo(4);
+
+        assertThat(limited.purge()).isEqualTo(2);
+        assertThat(limited.purge()).isEqualTo(2);
+        entityManager.clear();
+        assertThat(projectService.getDeletion(projectId).isCompleted()).isTrue();
+    }
+
+    private Task persistTask(Project project, Long assigneeId) {
+        return entityManager.persist(Task.builder()
+                .title("Задача")
+                .project(project)
+                .assigneeId(assigneeId)
+                .creatorId(OWNER_ID)
+                .build());
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}
@@ -0,0 +1,163 @@
+package com.taskmanager.task.job;
+
+import com.taskmanager.task.cache.TaskListingCache;
+import com.taskmanager.task.config.TaskArchivalProperties;
+import com.taskmanager.task.dto.TaskFilterCriteria;
+import com.taskmanager.task.dto.UpdateTaskRequest;
+import com.taskmanager.task.entity.Project;
+import com.taskmanager.task.entity.Task;
+import com.taskmanager.task.entity.TaskStatus;
+import com.taskmanager.task.repository.TaskRepository;
+import com.taskmanager.task.repository.TaskSpecifications;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Архивация закрытых задач: пачки, выпадение из выборок открытой работы и возврат при смене статуса
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class TaskArchivalJobTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final TaskListingCache taskListingCache = mock(TaskListingCache.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TaskArchivalJob job;
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        TaskArchivalProperties properties = new TaskArchivalProperties();
+        properties.setBatchSize(2);
+        JobLeaseService leaseService = mock(JobLeaseService.class);
+        when(leaseService.tryAcquire(any(), any())).thenReturn(true);
+        job = new TaskArchivalJob(taskRepository, taskListingCache, leaseService,
+                properties, transactionManager, meterRegistry);
+
+        project = entityManager.persist(Project.builder().name("Проект").ownerId(1L).build());
+        persistTask("Старая выполненная", TaskStatus.DONE, 10L, 120);
+        persistTask("Старая отменённая", TaskStatus.CANCELLED, null, 100);
+        persistTask("Старая выполненная 2", TaskStatus.DONE, 11L, 91);
+        persistTask("Свежая выполненная", TaskStatus.DONE, 12L, 10);
+        persistTask("Старая открытая", TaskStatus.IN_PROGRESS, 13L, 200);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Закрытые задачи старше срока хранения переносятся пачками, списки по-прежнему их возвращают")
+    void archive_MovesClosedTasksInBatches() {
+        assertThat(job.archive()).isEqualTo(3);
+        entityManager.clear();
+
+        // Архивация меняет только секцию: список проекта сходится с количеством задач
+        Page<Task> listing = taskRepository.findByProjectId(project.getId(), PageRequest.of(0, 20));
+        assertThat(listing.getTotalElements()).isEqualTo(taskRepository.countByProjectId(project.getId()));
+        assertThat(taskRepository.findByStatus(TaskStatus.DONE, PageRequest.of(0, 20)).getContent())
+                .extracting(Task::getTitle)
+                .containsExactlyInAnyOrder("Старая выполненная", "Старая выполненная 2", "Свежая выполненная");
+        // Только горячая секция — по явному флагу фильтра
+        assertThat(taskRepository.findAll(TaskSpecifications.matching(TaskFilterCriteria.builder()
+                        .projectId(project.getId()).includeArchived(false).build())))
+                .extracting(Task::getTitle)
+                .containsExactlyInAnyOrder("Свежая выполненная", "Старая открытая");
+
+        // Архивная задача доступна по id и учитывается в счётчиках проекта
+        Task archived = findByTitle("Старая отменённая");
+        assertThat(archived.isArchived()).isTrue();
+        assertThat(archived.getVersion()).isEqualTo(1);
+        assertThat(taskRepository.findById(archived.getId())).isPresent();
+        assertThat(taskRepository.countByProjectId(project.getId())).isEqualTo(5);
+
+        assertThat(meterRegistry.get("tasks.archived").counter().count()).isEqualTo(3);
+        verify(taskListingCache, times(2)).invalidateProject(project.getId());
+        verify(taskListingCache).invalidateAssignee(10L);
+        verify(taskListingCache).invalidateAssignee(11L);
+        verify(taskListingCache, never()).invalidateAssignee(null);
+        verify(taskListingCache).evictTaskEntry(archived.getId());
+        verify(taskListingCache, times(3)).evictTaskEntry(any());
+
+        assertThat(job.archive()).isZero();
+    }
+
+    @Test
+    @DisplayName("Смена статуса возвращает задачу из архива")
+    void statusChange_Unarchives() {
+        job.archive();
+        entityManager.clear();
+
+        Task archived = findByTitle("Старая выполненная");
+        UpdateTaskRequest.builder().status(TaskStatus.IN_PROGRESS).build().applyTo(archived);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(taskRepository.findByAssigneeIdAndStatusIn(10L, List.of(TaskStatus.IN_PROGRESS),
+                PageRequest.of(0, 20)).getContent()).extracting(Task::getTitle).containsExactly("Старая выполненная");
+    }
+
+    @Test
+    @DisplayName("Изменение через сущность, загруженную до архивации, отклоняется проверкой версии")
+    void staleEntityUpdate_RejectedAfterArchive() {
+        Task stale = findByTitle("Старая выполненная");
+        entityManager.detach(stale);
+
+        job.archive();
+        entityManager.clear();
+
+        stale.setTitle("Переименована");
+        assertThatThrownBy(() -> {
+            entityManager.merge(stale);
+            entityManager.flush();
+        }).isInstanceOf(OptimisticLockException.class);
+    }
+
+    private Task findByTitle(String title) {
+        return entityManager.getEntityManager()
+                .createQuery("SELECT t FROM Task t WHERE t.title = :title", Task.class)
+                .setParameter("title", title)
+                .getSingleResult();
+    }
+
+    private void persistTask(String title, TaskStatus status, Long assigneeId, int daysSinceUpdate) {
+        Task task = entityManager.persist(Task.builder()
+                .title(title)
+                .project(project)
+                .status(status)
+                .assigneeId(assigneeId)
+                .creatorId(1L)
+                .build());
+        entityManager.flush();
+        // updated_at выставляет Hibernate, поэтому возраст задаётся в обход сущности
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE tasks SET updated_at = :updatedAt WHERE id = :id")
+                .setParameter("updatedAt", LocalDateTime.now().minusDays(daysSinceUpdate))
+                .setParameter("id", task.getId())
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,136 @@
+package com.taskmanager.task.repository;
+
+import com.taskmanager.task.entity.Project;
+import com.taskmanager.task.entity.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keyset пагинация: обход всех страниц после курсора без пропусков и повторов,
+ * в том числе когда у нескольких строк одинаковый created_at
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class KeysetPaginationTest {
+
+    private static final long OWNER_ID = 7L;
+    private static final long ASSIGNEE_ID = 42L;
+    private static final int PAGE_SIZE = 7;
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        // 12 проектов и 25 задач; created_at повторяется группами, чтобы граница страницы проходила внутри группы
+        for (int i = 0; i < 12; i++) {
+            Project created = entityManager.persist(Project.builder()
+                    .name("Проект " + i)
+                    .ownerId(OWNER_ID)
+                    .memberIds(new LinkedHashSet<>())
+                    .build());
+            if (project == null) {
+                project = created;
+            }
+        }
+        for (int i = 0; i < 25; i++) {
+            entityManager.persist(Task.builder()
+                    .title("Задача " + i)
+                    .project(project)
+                    .assigneeId(ASSIGNEE_ID)
+                    .creatorId(OWNER_ID)
+                    .build());
+        }
+        entityManager.flush();
+        jdbcTemplate.update("UPDATE tasks SET created_at = DATEADD('MINUTE', MOD(id, 4), CAST(? AS TIMESTAMP))", BASE);
+        jdbcTemplate.update("UPDATE projects SET created_at = DATEADD('MINUTE', MOD(id, 3), CAST(? AS TIMESTAMP))", BASE);
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Задачи проекта: страницы после курсора покрывают все задачи в порядке (created_at, id) DESC")
+    void tasksByProject_AllPagesWithoutGapsOrDuplicates() {
+        List<Task> tasks = scrollAll(
+                pageable -> taskRepository.scrollByProjectId(project.getId(), pageable),
+                (last, pageable) -> taskRepository.scrollByProjectIdAfter(
+                        project.getId(), last.getCreatedAt(), last.getId(), pageable));
+
+        assertOrdered(tasks, Task::getCreatedAt, Task::getId, 25);
+    }
+
+    @Test
+    @DisplayName("Задачи исполнителя: страницы после курсора покрывают все задачи")
+    void tasksByAssignee_AllPagesWithoutGapsOrDuplicates() {
+        List<Task> tasks = scrollAll(
+                pageable -> taskRepository.scrollByAssigneeId(ASSIGNEE_ID, pageable),
+                (last, pageable) -> taskRepository.scrollByAssigneeIdAfter(
+                        ASSIGNEE_ID, last.getCreatedAt(), last.getId(), pageable));
+
+        assertOrdered(tasks, Task::getCreatedAt, Task::getId, 25);
+    }
+
+    @Test
+    @DisplayName("Проекты пользователя: страницы после курсора покрывают все проекты")
+    void projectsByUser_AllPagesWithoutGapsOrDuplicates() {
+        List<Project> projects = scrollAll(
+                pageable -> projectRepository.scrollByUserAccess(OWNER_ID, pageable),
+                (last, pageable) -> projectRepository.scrollByUserAccessAfter(
+                        OWNER_ID, last.getCreatedAt(), last.getId(), pageable));
+
+        assertOrdered(projects, Project::getCreatedAt, Project::getId, 12);
+    }
+
+    private static <T> List<T> scrollAll(Function<Pageable, Slice<T>> first,
+                                         BiFunction<T, Pageable, Slice<T>> after) {
+        Pageable pageable = PageRequest.of(0, PAGE_SIZE);
+        List<T> all = new ArrayList<>();
+        Slice<T> slice = first.apply(pageable);
+        all.addAll(slice.getContent());
+        while (slice.hasNext()) {
+            slice = after.apply(all.get(all.size() - 1), pageable);
+            all.addAll(slice.getContent());
+        }
+        return all;
+    }
+
+    private static <T> void assertOrdered(List<T> rows, Function<T, LocalDateTime> createdAt,
+                                          Function<T, Long> id, int expected) {
+        assertThat(rows).extracting(id).doesNotHaveDuplicates().hasSize(expected);
+        assertThat(rows).isSortedAccordingTo(Comparator.comparing(createdAt)
+                .thenComparing(id)
+                .reversed());
+        // Внутри страниц есть строки с одинаковым created_at
+        assertThat(rows.stream().map(createdAt).distinct().count()).isLessThan(expected);
+    }
+}
@@ -0,0 +1,340 @@
+package com.taskmanager.task.repository;
+
+import com.taskmanager.task.dto.SearchCursor;
+import com.taskmanager.task.dto.TaskFilterCriteria;
+import com.taskmanager.task.dto.TaskSearchCriteria;
+import com.taskmanager.task.entity.ProjectStatus;
+import com.taskmanager.task.entity.TaskPriority;
+import com.taskmanager.task.entity.TaskStatus;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Регрессия планов запросов: каждый запрос репозиториев на заполненной PostgreSQL схеме из Liquibase
+ * обходится ожидаемым индексом. Планировщик работает с настройками по умолчанию на данных после
+ * VACUUM ANALYZE, поэтому выбор индекса — его собственный, а не вынужденный. Индексы секций tasks
+ * в планах приводятся к именам индексов родительской таблицы из changelog.
+ * <p>
+ * Запросы только по статусу или приоритету (findByStatus, findByPriority, findOpenByStatus) не проверяются:
+ * у колонки четыре-пять значений, и обобщённый план обоснованно читает секцию подряд.
+ * <p>
+ * Без Docker тест пропускается локально; в CI (переменная окружения CI) он запускается всегда
+ * и падает, если контейнер не поднялся.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.taskmanager.task.repository.QueryPlanTest$SqlCapture")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIf("com.taskmanager.task.DockerRequirement#dockerAvailableOrRequired")
+@Testcontainers
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class QueryPlanTest {
+
+    private static final String TASK_PROJECT =
+            "idx_tasks_project_created_id|idx_tasks_project_status|idx_tasks_project_priority_deadline";
+    private static final String TASK_ASSIGNEE = "idx_tasks_assignee_created_id|idx_tasks_assignee_status";
+    private static final String PROJECT_OWNER = "idx_projects_owner_created_id|idx_projects_owner_status|idx_projects_owner_name";
+
+    /**
+     * Последовательное чтение основных таблиц; служебные таблицы вроде project_deletions малы и читаются подряд
+     */
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (tasks|tasks_hot|tasks_archive|projects|project_members)\\b");
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueriesUseIndexes() {
+        seed();
+
+        Pageable page = PageRequest.of(0, 20);
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Expectation> queries = new LinkedHashMap<>();
+
+        queries.put("TaskRepository.findById", uses(() -> taskRepository.findById(1L), "tasks_pkey"));
+        queries.put("TaskRepository.findByIdIn", uses(() -> taskRepository.findByIdIn(List.of(1L, 2L, 3L)), "tasks_pkey"));
+        queries.put("TaskRepository.findByProjectId", uses(() -> taskRepository.findByProjectId(1L, page), TASK_PROJECT));
+        queries.put("TaskRepository.findByAssigneeId",
+                uses(() -> taskRepository.findByAssigneeId(1L, page), TASK_ASSIGNEE));
+        queries.put("TaskRepository.findByCreatorId",
+                uses(() -> taskRepository.findByCreatorId(1L, page), "idx_tasks_creator_id"));
+        queries.put("TaskRepository.findByProjectIdAndStatus",
+                uses(() -> taskRepository.findByProjectIdAndStatus(1L, TaskStatus.TODO, page), TASK_PROJECT));
+        queries.put("TaskRepository.findByAssigneeIdAndStatusIn", uses(() -> taskRepository.findByAssigneeIdAndStatusIn(
+                1L, List.of(TaskStatus.TODO, TaskStatus.IN_PROGRESS), page), TASK_ASSIGNEE));
+        queries.put("TaskRepository.findOverdueBatch",
+                uses(() -> taskRepository.findOverdueBatch(now, page), "idx_tasks_overdue_pending"));
+        queries.put("TaskRepository.findOverdueBatchAfter", uses(
+                () -> taskRepository.findOverdueBatchAfter(now, now.minusDays(10), 100L, page), "idx_tasks_overdue_pending"));
+        queries.put("TaskRepository.countOverduePending",
+                uses(() -> taskRepository.countOverduePending(now), "idx_tasks_overdue_pending"));
+        queries.put("TaskRepository.countByProjectId", uses(() -> taskRepository.countByProjectId(1L), TASK_PROJECT));
+        queries.put("TaskRepository.countByProjectIdAndStatus",
+                uses(() -> taskRepository.countByProjectIdAndStatus(1L, TaskStatus.DONE), TASK_PROJECT));
+        queries.put("TaskRepository.countByProjectIds",
+                uses(() -> taskRepository.countByProjectIds(List.of(1L, 2L)), TASK_PROJECT));
+        queries.put("TaskRepository.countByProjectAndStatus",
+                uses(() -> taskRepository.countByProjectAndStatus(1L), TASK_PROJECT));
+        queries.put("TaskRepository.findByProjectIdOrderByPriorityAndDeadline",
+                uses(() -> taskRepository.findByProjectIdOrderByPriorityAndDeadline(1L), TASK_PROJECT));
+        queries.put("TaskRepository.scrollByProjectId", uses(() -> taskRepository.scrollByProjectId(1L, page), TASK_PROJECT));
+        queries.put("TaskRepository.scrollByProjectIdAfter",
+                uses(() -> taskRepository.scrollByProjectIdAfter(1L, now, 100L, page), TASK_PROJECT));
+        queries.put("TaskRepository.scrollByAssigneeId",
+                uses(() -> taskRepository.scrollByAssigneeId(1L, page), TASK_ASSIGNEE));
+        queries.put("TaskRepository.scrollByAssigneeIdAfter",
+                uses(() -> taskRepository.scrollByAssigneeIdAfter(1L, now, 100L, page), TASK_ASSIGNEE));
+        queries.put("TaskRepository.scrollByStatus",
+                uses(() -> taskRepository.scrollByStatus(TaskStatus.TODO, page), "idx_tasks_status_created_id"));
+        queries.put("TaskRepository.scrollByStatusAfter", uses(
+                () -> taskRepository.scrollByStatusAfter(TaskStatus.TODO, now, 100L, page), "idx_tasks_status_created_id"));
+        queries.put("TaskRepository.scrollOpenByStatus",
+                uses(() -> taskRepository.scrollOpenByStatus(TaskStatus.TODO, page), "idx_tasks_status_created_id"));
+        queries.put("TaskRepository.scrollOpenByStatusAfter", uses(
+                () -> taskRepository.scrollOpenByStatusAfter(TaskStatus.TODO, now, 100L, page), "idx_tasks_status_created_id"));
+        queries.put("TaskRepository.findArchivable",
+                uses(() -> taskRepository.findArchivable(now.minusDays(90), page), "idx_tasks_hot_archivable"));
+        queries.put("TaskRepository.findAll (фильтр: проект и статусы)", uses(() -> taskRepository.findAll(
+                TaskSpecifications.matching(TaskFilterCriteria.builder()
+                        .projectId(1L).statuses(EnumSet.of(TaskStatus.TODO, TaskStatus.IN_PROGRESS)).build()),
+                PageRequest.of(0, 20, Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")))), TASK_PROJECT));
+        queries.put("TaskRepository.findAll (фильтр: исполнитель и дедлайн)", uses(() -> taskRepository.findAll(
+                TaskSpecifications.matching(TaskFilterCriteria.builder()
+                        .assigneeId(1L).deadlineAfter(now).deadlineBefore(now.plusDays(7)).build()),
+                PageRequest.of(0, 20, Sort.by(Sort.Order.asc("deadline"), Sort.Order.asc("id")))),
+                TASK_ASSIGNEE + "|idx_tasks_deadline"));
+
+        queries.put("TaskRepository.search", uses(() -> taskRepository.search(
+                TaskSearchCriteria.builder().query("задача").build(), null, 20), "idx_tasks_search_vector"));
+        queries.put("TaskRepository.search (фильтры и курсор)", uses(() -> taskRepository.search(
+                TaskSearchCriteria.builder().query("задача 42").projectId(1L).status(TaskStatus.TODO).assigneeId(1L)
+                        .build(), new SearchCursor(0.5f, 100L), 20),
+                "idx_tasks_search_vector|" + TASK_PROJECT + "|" + TASK_ASSIGNEE));
+
+        queries.put("ProjectRepository.findById", uses(() -> projectRepository.findById(1L), "projects_pkey"));
+        queries.put("ProjectRepository.findByOwnerId",
+                uses(() -> projectRepository.findByOwnerId(1L, page), PROJECT_OWNER));
+        queries.put("ProjectRepository.findByOwnerIdAndStatus",
+                uses(() -> projectRepository.findByOwnerIdAndStatus(1L, ProjectStatus.ACTIVE), PROJECT_OWNER));
+        queries.put("ProjectRepository.existsByNameAndOwnerId",
+                uses(() -> projectRepository.existsByNameAndOwnerId("Проект 1", 1L), PROJECT_OWNER));
+
+        // Доступ пользователя: участие по индексу project_members, владение по индексу владельца
+        queries.put("ProjectRepository.findByUserAccess", uses(() -> projectRepository.findByUserAccess(1L, page),
+                "idx_project_members_user_project", PROJECT_OWNER));
+        queries.put("ProjectRepository.findByUserAccessAndStatus", uses(
+                () -> projectRepository.findByUserAccessAndStatus(1L, ProjectStatus.ACTIVE, page),
+                "idx_project_members_user_project", PROJECT_OWNER));
+        queries.put("ProjectRepository.scrollByUserAccess", uses(() -> projectRepository.scrollByUserAccess(1L, page),
+                "idx_project_members_user_project", PROJECT_OWNER));
+        queries.put("ProjectRepository.scrollByUserAccessAfter", uses(
+                () -> projectRepository.scrollByUserAccessAfter(1L, now, 100L, page),
+                "idx_project_members_user_project", PROJECT_OWNER));
+
+        return queries.entrySet().stream()
+                .map(query -> DynamicTest.dynamicTest(query.getKey(), () -> assertUsesIndexes(query.getValue())));
+    }
+
+    @TestFactory
+    Stream<DynamicTest> openWorkQueriesSkipArchivePartition() {
+        seed();
+
+        Pageable page = PageRequest.of(0, 20);
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+
+        queries.put("TaskRepository.findByAssigneeIdAndStatusIn", () -> taskRepository.findByAssigneeIdAndStatusIn(
+                1L, List.of(TaskStatus.TODO, TaskStatus.IN_PROGRESS), page));
+        queries.put("TaskRepository.findOpenByStatus", () -> taskRepository.findOpenByStatus(TaskStatus.TODO, page));
+        queries.put("TaskRepository.scrollOpenByStatusAfter",
+                () -> taskRepository.scrollOpenByStatusAfter(TaskStatus.TODO, now, 100L, page));
+        queries.put("TaskRepository.findOverdueBatch", () -> taskRepository.findOverdueBatch(now, page));
+        queries.put("TaskRepository.findArchivable", () -> taskRepository.findArchivable(now.minusDays(90), page));
+        queries.put("TaskRepository.findAll (фильтр: открытые статусы)", () -> taskRepository.findAll(
+                TaskSpecifications.matching(TaskFilterCriteria.builder()
+                        .projectId(1L).statuses(EnumSet.of(TaskStatus.TODO, TaskStatus.IN_PROGRESS)).build()), page));
+
+        return queries.entrySet().stream()
+                .map(query -> DynamicTest.dynamicTest(query.getKey(), () -> plans(query.getValue()).forEach(
+                        (sql, plan) -> assertThat(plan).as("План запроса: %s", sql).doesNotContain("tasks_archive"))));
+    }
+
+    /**
+     * Каждая группа индексов (варианты через |) встречается в планах запроса, основные таблицы подряд не читаются
+     */
+    private void assertUsesIndexes(Expectation expectation) {
+        Map<String, String> plans = plans(expectation.query());
+        plans.forEach((sql, plan) -> assertThat(SEQ_SCAN.matcher(plan).find())
+                .as("Последовательное чтение в плане запроса: %s%n%s", sql, plan).isFalse());
+
+        String combined = String.join("\n", plans.values());
+        for (String group : expectation.indexes()) {
+            assertThat(Stream.of(group.split("\\|")).anyMatch(combined::contains))
+                    .as("Ожидался индекс %s в планах:%n%s", group, combined).isTrue();
+        }
+    }
+
+    private Map<String, String> plans(Runnable query) {
+        SqlCapture.start();
+        try {
+            query.run();
+        } finally {
+            SqlCapture.stop();
+        }
+
+        List<String> statements = SqlCapture.statements();
+        assertThat(statements).isNotEmpty();
+        Map<String, String> plans = new LinkedHashMap<>();
+        statements.forEach(sql -> plans.put(sql, explain(sql)));
+        return plans;
+    }
+
+    /**
+     * Generic plan с параметрами $n соответствует плану подготовленного выражения
+     */
+    private String explain(String sql) {
+        StringBuilder numbered = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN (GENERIC_PLAN) " + numbered, String.class));
+        for (Map.Entry<String, String> index : partitionIndexes().entrySet()) {
+            plan = plan.replaceAll("\\b" + Pattern.quote(index.getKey()) + "\\b", index.getValue());
+        }
+        return plan;
+    }
+
+    /**
+     * Индексы секций tasks и соответствующие им индексы родительской таблицы
+     */
+    private Map<String, String> partitionIndexes() {
+        Map<String, String> indexes = new LinkedHashMap<>();
+        jdbcTemplate.query("""
+                SELECT child.relname AS child, parent.relname AS parent
+                FROM pg_inherits i
+                JOIN pg_class child ON child.oid = i.inhrelid
+                JOIN pg_class parent ON parent.oid = i.inhparent
+                WHERE child.relkind = 'i'""",
+                (RowCallbackHandler) rs -> indexes.put(rs.getString("child"), rs.getString("parent")));
+        return indexes;
+    }
+
+    /**
+     * Распределение близко к рабочему: у владельца и у участника около десяти проектов, у проекта десяток задач,
+     * у исполнителя сотня; закрытые задачи частично в архивной секции. VACUUM заполняет карту видимости,
+     * как это делает autovacuum на живой базе, ANALYZE — статистику планировщика
+     */
+    private void seed() {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM projects", Long.class) > 0) {
+            return;
+        }
+        jdbcTemplate.execute("""
+                INSERT INTO projects (id, name, status, owner_id, created_at, updated_at)
+                SELECT g, 'Проект ' || g, CASE WHEN g % 10 = 0 THEN 'ARCHIVED' ELSE 'ACTIVE' END, g % 2000,
+                       now() - g * interval '1 hour', now()
+                FROM generate_series(1, 20000) g""");
+        jdbcTemplate.execute("""
+                INSERT INTO project_members (project_id, user_id)
+                SELECT p.id, (p.id * 7 + u * 2003) % 10000
+                FROM projects p CROSS JOIN generate_series(1, 5) u""");
+        jdbcTemplate.execute("""
+                INSERT INTO tasks (id, title, status, priority, project_id, assignee_id, creator_id,
+                                   deadline, created_at, updated_at)
+                SELECT g, 'Задача ' || g,
+                       (ARRAY['TODO', 'IN_PROGRESS', 'IN_REVIEW', 'DONE', 'CANCELLED'])[g % 5 + 1],
+                       (ARRAY['LOW', 'MEDIUM', 'HIGH', 'CRITICAL'])[g % 4 + 1],
+                       g % 20000 + 1, g % 2000, g % 1000,
+                       now() + (g % 60 - 30) * interval '1 day', now() - g * interval '1 minute', now()
+                FROM generate_series(1, 200000) g""");
+        // Половина закрытых задач в архивной секции
+        jdbcTemplate.execute("UPDATE tasks SET archived = TRUE WHERE id % 10 IN (3, 4)");
+        jdbcTemplate.execute("VACUUM ANALYZE");
+    }
+
+    private static Expectation uses(Runnable query, String... indexes) {
+        return new Expectation(query, List.of(indexes));
+    }
+
+    private record Expectation(Runnable query, List<String> indexes) {
+    }
+
+    /**
+     * Перехват SQL, который Hibernate отправляет в БД
+     */
+    public static class SqlCapture implements StatementInspector {
+
+        private static final List<String> STATEMENTS = new ArrayList<>();
+        private static volatile boolean capturing;
+
+        static synchronized void start() {
+            STATEMENTS.clear();
+            capturing = true;
+        }
+
+        static void stop() {
+            capturing = false;
+        }
+
+        static synchronized List<String> statements() {
+            return List.copyOf(STATEMENTS);
+        }
+
+        @Override
+        public String inspect(String sql) {
+            if (capturing && sql.stripLeading().toLowerCase().startsWith("select")) {
+                synchronized (SqlCapture.class) {
+                    STATEMENTS.add(sql);
+                }
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.taskmanager.task.service;
+
+import com.taskmanager.task.cache.ProjectEntityCache;
+import com.taskmanager.task.cache.TaskListingCache;
+import com.taskmanager.task.entity.Project;
+import com.taskmanager.task.entity.Task;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Количество SQL запросов на листинг не зависит от размера страницы (нет N+1)
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({TaskService.class, ProjectService.class, ProjectStatsService.class, ProjectEntityCache.class})
+class ListingStatementCountTest {
+
+    private static final long OWNER_ID = 7L;
+    private static final long ASSIGNEE_ID = 42L;
+
+    @MockBean
+    private OutboxService outboxService;
+
+    @MockBean
+    private TaskListingCache taskListingCache;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(taskListingCache.byAssignee(any(), any(), any()))
+                .thenAnswer(inv -> inv.<Supplier<Page<?>>>getArgument(2).get());
+
+        // 30 проектов по 2 задачи, все задачи назначены одному исполнителю
+        for (int i = 0; i < 30; i++) {
+            Project project = entityManager.persist(Project.builder()
+                    .name("Проект " + i)
+                    .ownerId(OWNER_ID)
+                    .memberIds(new LinkedHashSet<>(List.of(1L, 2L, 3L)))
+                    .build());
+            for (int j = 0; j < 2; j++) {
+                entityManager.persist(Task.builder()
+                        .title("Задача " + i + "-" + j)
+                        .project(project)
+                        .assigneeId(ASSIGNEE_ID)
+                        .creatorId(OWNER_ID)
+                        .build());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Задачи исполнителя: проект загружается тем же запросом")
+    void tasksByAssignee_ConstantStatementCount() {
+        long small = statements(() -> taskService.getTasksByAssignee(ASSIGNEE_ID, PageRequest.of(0, 5))
+                .forEach(task -> assertThat(task.getProjectName()).isNotNull()));
+        long large = statements(() -> taskService.getTasksByAssignee(ASSIGNEE_ID, PageRequest.of(0, 25))
+                .forEach(task -> assertThat(task.getProjectName()).isNotNull()));
+
+        // Выборка страницы + COUNT
+        assertThat(small).isEqualTo(2);
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    @DisplayName("Проекты пользователя: количество задач одним группирующим запросом")
+    void projectsByUser_ConstantStatementCount() {
+        long small = statements(() -> projectService.getProjectsByUser(OWNER_ID, PageRequest.of(0, 5))
+                .forEach(project -> assertThat(project.getTaskCount()).isEqualTo(2)));
+        long large = statements(() -> projectService.getProjectsByUser(OWNER_ID, PageRequest.of(0, 25))
+                .forEach(project -> assertThat(project.getTaskCount()).isEqualTo(2)));
+
+        // Выборка страницы + COUNT + участники пачкой + количество задач
+        assertThat(small).isEqualTo(4);
+        assertThat(large).isEqualTo(small);
+    }
+
+    private long statements(Runnable listing) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        listing.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
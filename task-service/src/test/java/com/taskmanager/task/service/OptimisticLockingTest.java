@@ -0,0 +1,148 @@
+package com.taskmanager.task.service;
+
+import com.taskmanager.common.exception.PreconditionFailedException;
+import com.taskmanager.task.cache.ProjectEntityCache;
+import com.taskmanager.task.cache.TaskListingCache;
+import com.taskmanager.task.dto.CreateProjectRequest;
+import com.taskmanager.task.dto.CreateTaskRequest;
+import com.taskmanager.task.dto.ProjectResponse;
+import com.taskmanager.task.dto.TaskResponse;
+import com.taskmanager.task.dto.UpdateProjectRequest;
+import com.taskmanager.task.dto.UpdateTaskRequest;
+import com.taskmanager.task.entity.Task;
+import com.taskmanager.task.entity.TaskStatus;
+import com.taskmanager.task.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Версии задач и проектов: ETag меняется с каждой записью, устаревший If-Match и параллельная запись отклоняются
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({TaskService.class, ProjectService.class, ProjectStatsService.class, ProjectEntityCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OptimisticLockingTest {
+
+    private static final long OWNER_ID = 7L;
+
+    @MockBean
+    private OutboxService outboxService;
+
+    @MockBean
+    private TaskListingCache taskListingCache;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("DELETE FROM tasks");
+        jdbcTemplate.execute("DELETE FROM project_task_stats");
+        jdbcTemplate.execute("DELETE FROM project_members");
+        jdbcTemplate.execute("DELETE FROM projects");
+    }
+
+    @Test
+    @DisplayName("ETag задачи меняется после записи, старый If-Match получает отказ")
+    void taskETag_ChangesAndGuardsUpdates() {
+        TaskResponse created = taskService.createTask(createRequest(createProject().getId()), OWNER_ID);
+        String initial = created.eTag();
+
+        TaskResponse updated = taskService.updateTask(created.getId(), statusChange(TaskStatus.IN_PROGRESS), initial);
+
+        assertThat(updated.eTag()).isNotEqualTo(initial);
+        assertThatThrownBy(() -> taskService.updateTask(created.getId(), statusChange(TaskStatus.DONE), initial))
+                .isInstanceOf(PreconditionFailedException.class);
+        assertThat(taskService.updateTask(created.getId(), statusChange(TaskStatus.DONE), updated.eTag()).getStatus())
+                .isEqualTo(TaskStatus.DONE);
+    }
+
+    @Test
+    @DisplayName("Параллельная запись с прочитанной ранее версией отклоняется")
+    void concurrentWrite_LosesOnVersionCheck() {
+        TaskResponse created = taskService.createTask(createRequest(createProject().getId()), OWNER_ID);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        TransactionTemplate concurrent = new TransactionTemplate(transactionManager);
+        concurrent.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        assertThatThrownBy(() -> transaction.executeWithoutResult(status -> {
+            Task stale = taskRepository.findById(created.getId()).orElseThrow();
+            // Другой запрос успевает записать задачу между чтением и сбросом изменений
+            concurrent.executeWithoutResult(inner ->
+                    taskService.updateTask(created.getId(), statusChange(TaskStatus.IN_REVIEW), null));
+            stale.setStatus(TaskStatus.CANCELLED);
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(taskService.getTaskById(created.getId()).getStatus()).isEqualTo(TaskStatus.IN_REVIEW);
+    }
+
+    @Test
+    @DisplayName("Изменение участников меняет версию проекта, If-Match проверяется")
+    void projectETag_CoversMembers() {
+        ProjectResponse project = createProject();
+
+        ProjectResponse withMember = projectService.addMember(project.getId(), 42L);
+        assertThat(withMember.getVersion()).isGreaterThan(project.getVersion());
+
+        UpdateProjectRequest rename = new UpdateProjectRequest();
+        rename.setName("Новое название");
+        assertThatThrownBy(() -> projectService.updateProject(project.getId(), rename, project.eTag()))
+                .isInstanceOf(PreconditionFailedException.class);
+        assertThat(projectService.updateProject(project.getId(), rename, withMember.eTag()).getName())
+                .isEqualTo("Новое название");
+    }
+
+    private ProjectResponse createProject() {
+        CreateProjectRequest request = new CreateProjectRequest();
+        request.setName("Проект");
+        request.setMemberIds(List.of(1L));
+        return projectService.createProject(request, OWNER_ID);
+    }
+
+    private static CreateTaskRequest createRequest(Long projectId) {
+        CreateTaskRequest request = new CreateTaskRequest();
+        request.setTitle("Задача");
+        request.setProjectId(projectId);
+        return request;
+    }
+
+    private static UpdateTaskRequest statusChange(TaskStatus status) {
+        UpdateTaskRequest request = new UpdateTaskRequest();
+        request.setStatus(status);
+        return request;
+    }
+}
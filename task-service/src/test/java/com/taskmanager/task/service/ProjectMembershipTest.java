@@ -0,0 +1,109 @@
+package com.taskmanager.task.service;
+
+import com.taskmanager.task.cache.ProjectEntityCache;
+import com.taskmanager.task.cache.TaskListingCache;
+import com.taskmanager.task.entity.Project;
+import com.taskmanager.task.repository.ProjectRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Изменение состава участников пишется точечными INSERT/DELETE без пересоздания коллекции
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ProjectService.class, ProjectStatsService.class, ProjectEntityCache.class})
+class ProjectMembershipTest {
+
+    private static final long OWNER_ID = 7L;
+
+    @MockBean
+    private TaskListingCache taskListingCache;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    private Long projectId;
+
+    @BeforeEach
+    void setUp() {
+        Set<Long> members = LongStream.rangeClosed(1, 200).boxed().collect(Collectors.toSet());
+        projectId = entityManager.persist(Project.builder()
+                .name("Большой проект")
+                .ownerId(OWNER_ID)
+                .memberIds(members)
+                .build()).getId();
+        entityManager.persist(Project.builder().name("Чужой проект").ownerId(99L).build());
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+    }
+
+    @Test
+    @DisplayName("Добавление и удаление участника не пересоздаёт коллекцию")
+    void addAndRemoveMember_WritesDeltaOnly() {
+        projectService.addMember(projectId, 500L);
+        projectService.removeMember(projectId, 1L);
+        entityManager.flush();
+
+        assertThat(statistics().getCollectionRecreateCount()).isZero();
+        assertThat(statistics().getCollectionRemoveCount()).isZero();
+        assertThat(memberIds()).hasSize(200).contains(500L).doesNotContain(1L);
+    }
+
+    @Test
+    @DisplayName("Пакетное добавление и удаление учитывает только отсутствующих и присутствующих")
+    void bulkMembers_WritesDeltaOnly() {
+        assertThat(projectService.addMembers(projectId, List.of(200L, 201L, 202L)).getMemberIds()).hasSize(202);
+        assertThat(projectService.removeMembers(projectId, List.of(1L, 2L, 999L)).getMemberIds()).hasSize(200);
+        entityManager.flush();
+
+        assertThat(statistics().getCollectionRecreateCount()).isZero();
+        assertThat(memberIds()).contains(201L, 202L).doesNotContain(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Проекты участника находятся через обратный индекс")
+    void findByUserAccess_MatchesMembersAndOwner() {
+        assertThat(projectRepository.findByUserAccess(150L, PageRequest.of(0, 10)).getContent())
+                .extracting(Project::getId).containsExactly(projectId);
+        assertThat(projectRepository.findByUserAccess(OWNER_ID, PageRequest.of(0, 10)).getTotalElements()).isEqualTo(1);
+        assertThat(projectRepository.findByUserAccess(1000L, PageRequest.of(0, 10)).getContent()).isEmpty();
+    }
+
+    private Set<Long> memberIds() {
+        entityManager.clear();
+        return entityManager.find(Project.class, projectId).getMemberIds();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,133 @@
+package com.taskmanager.task.service;
+
+import com.taskmanager.task.cache.ProjectEntityCache;
+import com.taskmanager.task.cache.TaskListingCache;
+import com.taskmanager.task.dto.CreateProjectRequest;
+import com.taskmanager.task.dto.CreateTaskRequest;
+import com.taskmanager.task.entity.Project;
+import com.taskmanager.task.repository.ProjectRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проект читается из кэша второго уровня Hibernate, а мягкое удаление сбрасывает его запись.
+ * Каждый вызов сервиса идёт в своей транзакции, как запрос: запись, положенная в кэш позже
+ * начала транзакции, в ней не читается
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({TaskService.class, ProjectService.class, ProjectStatsService.class, ProjectEntityCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProjectSecondLevelCacheTest {
+
+    private static final long OWNER_ID = 7L;
+
+    @MockBean
+    private OutboxService outboxService;
+
+    @MockBean
+    private TaskListingCache taskListingCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("DELETE FROM tasks");
+        jdbcTemplate.execute("DELETE FROM project_task_stats");
+        jdbcTemplate.execute("DELETE FROM project_deletions");
+        jdbcTemplate.execute("DELETE FROM projects");
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    @DisplayName("Серия созданий задач в одном проекте читает проект из БД один раз")
+    void createTasks_LoadProjectOnce() {
+        Long projectId = createProject("Кэш");
+        // Созданный проект попадает в кэш при коммите; сбрасываем, чтобы начать с холодного кэша
+        entityManagerFactory.getCache().evict(Project.class, projectId);
+        statistics.clear();
+
+        for (int i = 0; i < 5; i++) {
+            taskService.createTask(createRequest(projectId, "Задача " + i), OWNER_ID);
+        }
+
+        assertThat(statistics.getEntityStatistics(Project.class.getName()).getLoadCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics(Project.CACHE_REGION).getHitCount()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Проверка уникальности названия повторно берётся из кэша запросов")
+    void existsByNameAndOwnerId_Cached() {
+        statistics.clear();
+
+        assertThat(projectRepository.existsByNameAndOwnerId("Нет такого", OWNER_ID)).isFalse();
+        assertThat(projectRepository.existsByNameAndOwnerId("Нет такого", OWNER_ID)).isFalse();
+
+        assertThat(statistics.getQueryCachePutCount()).isEqualTo(1);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Мягко удалённый проект не находится по ID, хотя до удаления был в кэше")
+    void deleteProject_EvictsCachedEntity() {
+        Long projectId = createProject("Удаляемый");
+        assertThat(projectRepository.findById(projectId)).isPresent();
+        assertThat(entityManagerFactory.getCache().contains(Project.class, projectId)).isTrue();
+
+        projectService.deleteProject(projectId);
+
+        assertThat(entityManagerFactory.getCache().contains(Project.class, projectId)).isFalse();
+        assertThat(projectRepository.findById(projectId)).isEmpty();
+    }
+
+    private Long createProject(String name) {
+        CreateProjectRequest request = new CreateProjectRequest();
+        request.setName(name);
+        return projectService.createProject(request, OWNER_ID).getId();
+    }
+
+    private static CreateTaskRequest createRequest(Long projectId, String title) {
+        CreateTaskRequest request = new CreateTaskRequest();
+        request.setTitle(title);
+        request.setProjectId(projectId);
+        return request;
+    }
+}
@@ -0,0 +1,172 @@
+package com.taskmanager.task.service;
+
+import com.taskmanager.task.cache.ProjectEntityCache;
+import com.taskmanager.task.cache.TaskListingCache;
+import com.taskmanager.task.dto.BulkUpdateTaskItem;
+import com.taskmanager.task.dto.CreateProjectRequest;
+import com.taskmanager.task.dto.CreateTaskRequest;
+import com.taskmanager.task.dto.ProjectStatsResponse;
+import com.taskmanager.task.dto.TaskResponse;
+import com.taskmanager.task.dto.UpdateTaskRequest;
+import com.taskmanager.task.entity.ProjectTaskStats;
+import com.taskmanager.task.entity.TaskStatus;
+import com.taskmanager.task.repository.ProjectTaskStatsRepository;
+import com.taskmanager.task.repository.TaskRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Счётчики задач совпадают с GROUP BY после любых записей и восстанавливаются пересчётом
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({TaskService.class, ProjectService.class, ProjectStatsService.class, ProjectEntityCache.class})
+class ProjectStatsServiceTest {
+
+    private static final long OWNER_ID = 7L;
+
+    @MockBean
+    private OutboxService outboxService;
+
+    @MockBean
+    private TaskListingCache taskListingCache;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProjectStatsService projectStatsService;
+
+    @Autowired
+    private ProjectTaskStatsRepository statsRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private Long projectId;
+
+    @BeforeEach
+    void setUp() {
+        CreateProjectRequest request = new CreateProjectRequest();
+        request.setName("Дашборд");
+        projectId = projectService.createProject(request, OWNER_ID).getId();
+    }
+
+    @Test
+    @DisplayName("Создание, смена статуса и удаление задач меняют счётчики")
+    void writes_KeepCountersInSync() {
+        TaskResponse first = taskService.createTask(createRequest("Первая"), OWNER_ID);
+        TaskResponse second = taskService.createTask(createRequest("Вторая"), OWNER_ID);
+        taskService.createTasks(List.of(createRequest("Третья"), createRequest("Четвёртая")), OWNER_ID);
+
+        taskService.updateTask(first.getId(), statusChange(TaskStatus.IN_PROGRESS), null);
+        taskService.updateTasks(List.of(
+                new BulkUpdateTaskItem(first.getId(), statusChange(TaskStatus.DONE), null),
+                new BulkUpdateTaskItem(second.getId(), statusChange(TaskStatus.IN_REVIEW), null)));
+        taskService.deleteTask(second.getId());
+
+        ProjectStatsResponse stats = readStats();
+        assertThat(stats.getTotalTasks()).isEqualTo(3);
+        assertThat(stats.getTasksByStatus())
+                .containsEntry(TaskStatus.TODO, 2L)
+                .containsEntry(TaskStatus.DONE, 1L)
+                .containsEntry(TaskStatus.IN_REVIEW, 0L);
+        assertThat(stats.getTasksByStatus()).isEqualTo(groupBy());
+    }
+
+    @Test
+    @DisplayName("Статистика читается одним запросом по первичному ключу")
+    void getStats_SingleStatement() {
+        taskService.createTask(createRequest("Задача"), OWNER_ID);
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        projectStatsService.getStats(projectId);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Пересчёт исправляет испорченные и создаёт недостающие счётчики")
+    void rebuildAll_RepairsDrift() {
+        taskService.createTask(createRequest("Первая"), OWNER_ID);
+        taskService.createTask(createRequest("Вторая"), OWNER_ID);
+        entityManager.flush();
+
+        ProjectTaskStats stats = statsRepository.findById(projectId).orElseThrow();
+        stats.setTodoCount(40);
+        stats.setDoneCount(3);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(projectStatsService.rebuildAll()).isEqualTo(1);
+        entityManager.flush();
+        assertThat(readStats().getTasksByStatus()).isEqualTo(groupBy());
+
+        statsRepository.deleteById(projectId);
+        entityManager.flush();
+        assertThat(projectStatsService.rebuildAll()).isEqualTo(1);
+        assertThat(readStats().getTotalTasks()).isEqualTo(2);
+
+        assertThat(projectStatsService.rebuildAll()).isZero();
+    }
+
+    private ProjectStatsResponse readStats() {
+        entityManager.flush();
+        entityManager.clear();
+        return projectStatsService.getStats(projectId);
+    }
+
+    private Map<TaskStatus, Long> groupBy() {
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            counts.put(status, 0L);
+        }
+        taskRepository.countByProjectAndStatus(projectId)
+                .forEach(row -> counts.put(row.getStatus(), row.getTaskCount()));
+        return counts;
+    }
+
+    private CreateTaskRequest createRequest(String title) {
+        CreateTaskRequest request = new CreateTaskRequest();
+        request.setTitle(title);
+        request.setProjectId(projectId);
+        return request;
+    }
+
+    private static UpdateTaskRequest statusChange(TaskStatus status) {
+        UpdateTaskRequest request = new UpdateTaskRequest();
+        request.setStatus(status);
+        return request;
+    }
+}
@@ -0,0 +1,161 @@
+package com.taskmanager.task.service;
+
+import com.taskmanager.task.cache.ProjectEntityCache;
+import com.taskmanager.task.cache.TaskListingCache;
+import com.taskmanager.task.dto.BulkItemError;
+import com.taskmanager.task.dto.BulkTaskResponse;
+import com.taskmanager.task.dto.BulkUpdateTaskItem;
+import com.taskmanager.task.dto.CreateProjectRequest;
+import com.taskmanager.task.dto.CreateTaskRequest;
+import com.taskmanager.task.dto.TaskResponse;
+import com.taskmanager.task.dto.UpdateTaskRequest;
+import com.taskmanager.task.entity.Task;
+import com.taskmanager.task.repository.TaskRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Пакетное обновление: ошибки отдельных элементов не мешают остальным,
+ * а успешные изменения уходят в базу пакетным UPDATE
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({TaskService.class, ProjectService.class, ProjectStatsService.class, ProjectEntityCache.class})
+class TaskBulkUpdateTest {
+
+    private static final long OWNER_ID = 7L;
+    private static final long MISSING_ID = 999_999L;
+
+    @MockBean
+    private OutboxService outboxService;
+
+    @MockBean
+    private TaskListingCache taskListingCache;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private List<TaskResponse> tasks;
+
+    @BeforeEach
+    void setUp() {
+        CreateProjectRequest project = new CreateProjectRequest();
+        project.setName("Пакеты");
+        Long projectId = projectService.createProject(project, OWNER_ID).getId();
+
+        List<CreateTaskRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            CreateTaskRequest request = new CreateTaskRequest();
+            request.setTitle("Задача " + i);
+            request.setProjectId(projectId);
+            requests.add(request);
+        }
+        tasks = taskService.createTasks(requests, OWNER_ID).getTasks();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Ошибки элементов возвращаются по индексам, остальные задачи обновляются")
+    void mixedBatch_ReportsPerItemErrors() {
+        BulkTaskResponse response = taskService.updateTasks(mixedBatch());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(response.getTasks())
+                .extracting(TaskResponse::getId)
+                .containsExactly(id(0), id(2), id(4), id(5));
+        assertThat(response.getTasks())
+                .extracting(TaskResponse::getTitle)
+                .containsExactly("Новая 0", "Новая 2", "Новая 4", "Новая 5");
+
+        assertThat(response.getErrors()).extracting(BulkItemError::getIndex).containsExactly(1, 3, 5, 6);
+        assertThat(response.getErrors()).extracting(BulkItemError::getId)
+                .containsExactly(MISSING_ID, id(3), id(1), null);
+        assertThat(response.getErrors().get(0).getErrors())
+                .containsExactly("Задача не найдена с id: '" + MISSING_ID + "'");
+        assertThat(response.getErrors().get(1).getErrors())
+                .containsExactly("Задача изменена, текущая версия: 0");
+        assertThat(response.getErrors().get(2).getErrors()).hasSize(1);
+        assertThat(response.getErrors().get(3).getErrors()).isNotEmpty();
+
+        // Отклонённые элементы не меняют задачи
+        assertThat(title(id(1))).isEqualTo("Задача 1");
+        assertThat(title(id(3))).isEqualTo("Задача 3");
+        assertThat(title(id(2))).isEqualTo("Новая 2");
+        assertThat(taskRepository.findById(id(2)).orElseThrow().getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Успешные элементы смешанного пакета сбрасываются одним пакетным UPDATE")
+    void mixedBatch_FlushedAsJdbcBatch() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        taskService.updateTasks(mixedBatch());
+
+        // Одна выборка задач и один подготовленный UPDATE на все четыре изменения
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(4);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    /**
+     * Успешны элементы 0, 2, 4 и 7; ошибки: несуществующий id, устаревшая версия,
+     * слишком короткое название и элемент без id
+     */
+    private List<BulkUpdateTaskItem> mixedBatch() {
+        return List.of(
+                new BulkUpdateTaskItem(id(0), rename("Новая 0"), null),
+                new BulkUpdateTaskItem(MISSING_ID, rename("Новая"), null),
+                new BulkUpdateTaskItem(id(2), rename("Новая 2"), 0L),
+                new BulkUpdateTaskItem(id(3), rename("Новая 3"), 5L),
+                new BulkUpdateTaskItem(id(4), rename("Новая 4"), null),
+                new BulkUpdateTaskItem(id(1), rename("ab"), null),
+                new BulkUpdateTaskItem(null, rename("Новая"), null),
+                new BulkUpdateTaskItem(id(5), rename("Новая 5"), null));
+    }
+
+    private Long id(int index) {
+        return tasks.get(index).getId();
+    }
+
+    private String title(Long taskId) {
+        return taskRepository.findById(taskId).map(Task::getTitle).orElseThrow();
+    }
+
+    private static UpdateTaskRequest rename(String title) {
+        UpdateTaskRequest request = new UpdateTaskRequest();
+        request.setTitle(title);
+        return request;
+    }
+}
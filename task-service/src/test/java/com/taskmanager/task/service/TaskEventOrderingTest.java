@@ -0,0 +1,219 @@
+package com.taskmanager.task.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanager.common.dto.TaskEvent;
+import com.taskmanager.common.dto.TaskEventType;
+import com.taskmanager.task.cache.ProjectEntityCache;
+import com.taskmanager.task.cache.TaskListingCache;
+import com.taskmanager.task.config.OutboxRelayProperties;
+import com.taskmanager.task.dto.CreateProjectRequest;
+import com.taskmanager.task.dto.CreateTaskRequest;
+import com.taskmanager.task.dto.UpdateTaskRequest;
+import com.taskmanager.task.job.JobLeaseService;
+import com.taskmanager.task.job.OutboxRelay;
+import com.taskmanager.task.repository.OutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * События задачи из параллельных обновлений приходят в Kafka в порядке версий: одна задача -
+ * один ключ - одна партиция, а outbox публикуется в порядке коммитов изменений задачи
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@EmbeddedKafka(partitions = 4, topics = "task-events")
+@TestPropertySource(properties = "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}")
+@ImportAutoConfiguration({KafkaAutoConfiguration.class, JacksonAutoConfiguration.class,
+        ValidationAutoConfiguration.class})
+@Import({TaskService.class, ProjectService.class, ProjectStatsService.class, ProjectEntityCache.class,
+        OutboxService.class, KafkaProducerService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskEventOrderingTest {
+
+    private static final long OWNER_ID = 7L;
+    private static final int TASKS = 10;
+    private static final int UPDATES = 1000;
+    private static final int THREADS = 8;
+
+    @MockBean
+    private TaskListingCache taskListingCache;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private KafkaProducerService kafkaProducerService;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${kafka.topics.task-events}")
+    private String taskEventsTopic;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("DELETE FROM outbox");
+        jdbcTemplate.execute("DELETE FROM tasks");
+        jdbcTemplate.execute("DELETE FROM project_task_stats");
+        jdbcTemplate.execute("DELETE FROM projects");
+    }
+
+    @Test
+    @DisplayName("1000 параллельных обновлений: события каждой задачи в одной партиции и по возрастанию версии")
+    void concurrentUpdates_OrderedPerTask() throws Exception {
+        CreateProjectRequest project = new CreateProjectRequest();
+        project.setName("События");
+        Long projectId = projectService.createProject(project, OWNER_ID).getId();
+        List<Long> taskIds = IntStream.range(0, TASKS)
+                .mapToObj(i -> taskService.createTask(createRequest(projectId, "Задача " + i), OWNER_ID).getId())
+                .toList();
+
+        // Каждый поток берёт следующий номер и повторяет обновление, пока оно не пройдёт проверку версии
+        AtomicInteger sequence = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(executor.submit(() -> {
+                    for (int n = sequence.getAndIncrement(); n < UPDATES; n = sequence.getAndIncrement()) {
+                        update(taskIds.get(n % TASKS), n);
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        JobLeaseService leaseService = mock(JobLeaseService.class);
+        when(leaseService.tryAcquire(any(), any())).thenReturn(true);
+        OutboxRelay relay = new OutboxRelay(outboxRepository, kafkaProducerService, leaseService,
+                new OutboxRelayProperties(), transactionManager, new SimpleMeterRegistry());
+        while (relay.relay() > 0) {
+            // публикуем, пока outbox не опустеет
+        }
+        assertThat(outboxRepository.count()).isZero();
+
+        List<ConsumerRecord<String, String>> records = consume(TASKS + UPDATES);
+        assertThat(records).hasSize(TASKS + UPDATES);
+
+        Map<String, Integer> partitions = new HashMap<>();
+        Map<String, List<TaskEvent>> eventsByTask = new HashMap<>();
+        for (ConsumerRecord<String, String> record : records) {
+            assertThat(partitions.computeIfAbsent(record.key(), key -> record.partition()))
+                    .as("партиция задачи %s", record.key())
+                    .isEqualTo(record.partition());
+            eventsByTask.computeIfAbsent(record.key(), key -> new ArrayList<>())
+                    .add(objectMapper.readValue(record.value(), TaskEvent.class));
+        }
+
+        assertThat(eventsByTask).hasSize(TASKS);
+        eventsByTask.forEach((key, events) -> {
+            assertThat(events.get(0).getType()).isEqualTo(TaskEventType.CREATED);
+            assertThat(events).allSatisfy(event -> {
+                assertThat(event.getTaskId()).hasToString(key);
+                assertThat(event.getSchemaVersion()).isEqualTo(TaskEvent.SCHEMA_VERSION);
+            });
+            assertThat(events.stream().skip(1)).allSatisfy(event -> {
+                assertThat(event.getType()).isEqualTo(TaskEventType.UPDATED);
+                assertThat(event.getChanges()).containsOnlyKeys("title");
+            });
+            assertThat(events).extracting(TaskEvent::getTaskVersion).isSorted().doesNotHaveDuplicates();
+        });
+    }
+
+    private void update(Long taskId, int n) {
+        UpdateTaskRequest request = UpdateTaskRequest.builder().title("Обновление " + n).build();
+        while (true) {
+            try {
+                taskService.updateTask(taskId, request, null);
+                return;
+            } catch (ConcurrencyFailureException e) {
+                // Параллельная запись той же задачи: перечитываем и повторяем
+            }
+        }
+    }
+
+    private List<ConsumerRecord<String, String>> consume(int expected) {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("task-events-ordering", "false", broker);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        try (Consumer<String, String> consumer = new KafkaConsumer<>(props)) {
+            broker.consumeFromAnEmbeddedTopic(consumer, taskEventsTopic);
+            long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+            while (records.size() < expected && System.nanoTime() < deadline) {
+                consumer.poll(Duration.ofMillis(500)).forEach(records::add);
+            }
+        }
+        return records;
+    }
+
+    private static CreateTaskRequest createRequest(Long projectId, String title) {
+        CreateTaskRequest request = new CreateTaskRequest();
+        request.setTitle(title);
+        request.setProjectId(projectId);
+        return request;
+    }
+}
@@ -0,0 +1,103 @@
+package com.taskmanager.task.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanager.task.dto.TaskExportFormat;
+import com.taskmanager.task.entity.Project;
+import com.taskmanager.task.entity.Task;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Потоковая выгрузка задач проекта в NDJSON и CSV
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(TaskExportService.class)
+class TaskExportServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskExportService taskExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long projectId;
+
+    @BeforeEach
+    void setUp() {
+        Project project = entityManager.persist(Project.builder().name("Экспорт").ownerId(1L).build());
+        Project other = entityManager.persist(Project.builder().name("Другой").ownerId(1L).build());
+        projectId = project.getId();
+        for (int i = 0; i < 3; i++) {
+            entityManager.persist(Task.builder()
+                    .title("Задача " + i)
+                    .description(i == 1 ? "Текст, с запятой и \"кавычками\"" : null)
+                    .project(project)
+                    .creatorId(1L)
+                    .build());
+        }
+        entityManager.persist(Task.builder().title("Чужая").project(other).creatorId(1L).build());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("NDJSON: одна задача проекта на строку, сущности отсоединяются")
+    void exportNdjson() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = taskExportService.export(projectId, TaskExportFormat.NDJSON, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(count).isEqualTo(3);
+        assertThat(lines).hasSize(3);
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertThat(first.get("title").asText()).isEqualTo("Задача 0");
+        assertThat(first.get("projectName").asText()).isEqualTo("Экспорт");
+
+        // В контексте остаётся только проект, задачи отсоединены по мере записи
+        Session session = entityManager.getEntityManager().unwrap(Session.class);
+        assertThat(session.getStatistics().getEntityCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("CSV: заголовок и экранирование значений")
+    void exportCsv() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        taskExportService.export(projectId, TaskExportFormat.CSV, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(4);
+        assertThat(lines.get(0)).startsWith("id,title,description,status");
+        assertThat(lines.get(2)).contains(",\"Текст, с запятой и \"\"кавычками\"\"\",TODO,MEDIUM,");
+    }
+
+    @Test
+    @DisplayName("CSV: значения без спецсимволов не кавычатся")
+    void csvEscaping() {
+        assertThat(TaskExportService.csv(null)).isEmpty();
+        assertThat(TaskExportService.csv("просто")).isEqualTo("просто");
+        assertThat(TaskExportService.csv("a\nb")).isEqualTo("\"a\nb\"");
+    }
+}
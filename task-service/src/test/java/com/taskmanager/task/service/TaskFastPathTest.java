@@ -0,0 +1,164 @@
+package com.taskmanager.task.service;
+
+import com.taskmanager.common.exception.PreconditionFailedException;
+import com.taskmanager.task.cache.ProjectEntityCache;
+import com.taskmanager.task.cache.TaskListingCache;
+import com.taskmanager.task.dto.BulkTaskResponse;
+import com.taskmanager.task.dto.CreateProjectRequest;
+import com.taskmanager.task.dto.CreateTaskRequest;
+import com.taskmanager.task.dto.TaskResponse;
+import com.taskmanager.task.dto.UpdateTaskRequest;
+import com.taskmanager.task.entity.TaskStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Быстрый путь PATCH статуса/исполнителя на PostgreSQL (UPDATE ... RETURNING) и сравнение
+ * с полным обновлением через сущность. Замер запускается с -Dbenchmark=true.
+ */
+@Slf4j
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIf("com.taskmanager.task.DockerRequirement#dockerAvailableOrRequired")
+@Testcontainers
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({TaskService.class, ProjectService.class, ProjectStatsService.class, ProjectEntityCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskFastPathTest {
+
+    private static final long OWNER_ID = 7L;
+    private static final TaskStatus[] BOARD = {TaskStatus.TODO, TaskStatus.IN_PROGRESS, TaskStatus.IN_REVIEW};
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @MockBean
+    private OutboxService outboxService;
+
+    @MockBean
+    private TaskListingCache taskListingCache;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProjectStatsService projectStatsService;
+
+    private Long projectId;
+    private int step = 1;
+
+    @BeforeEach
+    void setUp() {
+        CreateProjectRequest request = new CreateProjectRequest();
+        request.setName("Доска " + System.nanoTime());
+        projectId = projectService.createProject(request, OWNER_ID).getId();
+    }
+
+    @Test
+    @DisplayName("Смена статуса возвращает новую версию и обновляет счётчики")
+    void updateTaskStatus_ReturnsNewVersion() {
+        TaskResponse task = createTasks(1).get(0);
+
+        TaskResponse moved = taskService.updateTaskStatus(task.getId(), TaskStatus.IN_PROGRESS, task.eTag());
+
+        assertThat(moved.getStatus()).isEqualTo(TaskStatus.IN_PROGRESS);
+        assertThat(moved.getVersion()).isEqualTo(task.getVersion() + 1);
+        assertThat(moved.getProjectName()).startsWith("Доска");
+        assertThat(taskService.getTaskById(task.getId())).isEqualTo(moved);
+        assertThat(projectStatsService.getStats(projectId).getTasksByStatus())
+                .containsEntry(TaskStatus.TODO, 0L)
+                .containsEntry(TaskStatus.IN_PROGRESS, 1L);
+    }
+
+    @Test
+    @DisplayName("Устаревший If-Match и повторное назначение того же исполнителя")
+    void assignTask_ConditionalAndIdempotent() {
+        TaskResponse task = createTasks(1).get(0);
+        TaskResponse assigned = taskService.assignTask(task.getId(), 42L, null);
+
+        assertThatThrownBy(() -> taskService.assignTask(task.getId(), 43L, task.eTag()))
+                .isInstanceOf(PreconditionFailedException.class);
+        assertThat(taskService.assignTask(task.getId(), 42L, assigned.eTag())).isEqualTo(assigned);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Замер: быстрый путь против полного обновления")
+    void benchmark() {
+        List<Long> ids = createTasks(200).stream().map(TaskResponse::getId).toList();
+        int rounds = 10;
+
+        BiConsumer<Long, TaskStatus> legacy = (id, status) ->
+                taskService.updateTask(id, UpdateTaskRequest.builder().status(status).build(), null);
+        BiConsumer<Long, TaskStatus> fast = (id, status) -> taskService.updateTaskStatus(id, status, null);
+
+        // Прогрев обоих путей
+        measure(ids, 2, legacy);
+        measure(ids, 2, fast);
+
+        double legacyMicros = measure(ids, rounds, legacy);
+        double fastMicros = measure(ids, rounds, fast);
+        log.info("PATCH статуса, мкс/операция: полный путь {}, быстрый путь {}, ускорение x{}",
+                String.format("%.1f", legacyMicros), String.format("%.1f", fastMicros),
+                String.format("%.2f", legacyMicros / fastMicros));
+    }
+
+    /**
+     * Среднее время операции; статус сдвигается на каждом круге, чтобы каждая операция меняла строку
+     */
+    private double measure(List<Long> ids, int rounds, BiConsumer<Long, TaskStatus> operation) {
+        long started = System.nanoTime();
+        for (int round = 0; round < rounds; round++, step++) {
+            for (Long id : ids) {
+                operation.accept(id, BOARD[(int) ((id + step) % BOARD.length)]);
+            }
+        }
+        return (System.nanoTime() - started) / 1000.0 / (rounds * ids.size());
+    }
+
+    private List<TaskResponse> createTasks(int count) {
+        List<CreateTaskRequest> requests = IntStream.range(0, count).mapToObj(i -> {
+            CreateTaskRequest request = new CreateTaskRequest();
+            request.setTitle("Карточка " + i);
+            request.setProjectId(projectId);
+            return request;
+        }).toList();
+        BulkTaskResponse response = taskService.createTasks(requests, OWNER_ID);
+        return response.getTasks();
+    }
+}
@@ -0,0 +1,177 @@
+package com.taskmanager.task.service;
+
+import com.taskmanager.common.exception.BusinessException;
+import com.taskmanager.task.cache.TaskListingCache;
+import com.taskmanager.task.dto.TaskFilterCriteria;
+import com.taskmanager.task.dto.TaskResponse;
+import com.taskmanager.task.entity.Project;
+import com.taskmanager.task.entity.Task;
+import com.taskmanager.task.entity.TaskPriority;
+import com.taskmanager.task.entity.TaskStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Фильтр задач: комбинации условий, нормальная форма и отказ для неиндексируемых фильтров
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({TaskService.class, ProjectStatsService.class})
+class TaskFilterTest {
+
+    private static final long OWNER_ID = 7L;
+
+    @MockBean
+    private OutboxService outboxService;
+
+    @MockBean
+    private TaskListingCache taskListingCache;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TaskService taskService;
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private final Pageable pageable = PageRequest.of(0, 20);
+    private Long projectId;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(taskListingCache.byFilter(any(), any(), any()))
+                .thenAnswer(inv -> inv.<Supplier<Page<?>>>getArgument(2).get());
+
+        Project project = entityManager.persist(Project.builder().name("Проект").ownerId(OWNER_ID).build());
+        Project other = entityManager.persist(Project.builder().name("Другой").ownerId(OWNER_ID).build());
+        projectId = project.getId();
+        persistTask(project, "Срочная", TaskStatus.TODO, TaskPriority.CRITICAL, 10L, now.plusDays(1));
+        persistTask(project, "В работе", TaskStatus.IN_PROGRESS, TaskPriority.HIGH, 10L, now.plusDays(3));
+        persistTask(project, "Без срока", TaskStatus.TODO, TaskPriority.LOW, 11L, null);
+        persistTask(project, "Готова", TaskStatus.DONE, TaskPriority.HIGH, 10L, now.minusDays(1));
+        persistTask(other, "Чужая", TaskStatus.TODO, TaskPriority.CRITICAL, 10L, now.plusDays(1));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Условия объединяются через AND")
+    void filter_CombinesConditions() {
+        TaskFilterCriteria criteria = TaskFilterCriteria.builder()
+                .projectId(projectId)
+                .assigneeId(10L)
+                .statuses(EnumSet.of(TaskStatus.TODO, TaskStatus.IN_PROGRESS))
+                .deadlineBefore(now.plusDays(2))
+                .build();
+
+        assertThat(taskService.filterTasks(criteria, pageable).getContent())
+                .extracting(TaskResponse::getTitle)
+                .containsExactly("Срочная");
+
+        TaskFilterCriteria byPriority = TaskFilterCriteria.builder()
+                .priorities(EnumSet.of(TaskPriority.CRITICAL))
+                .deadlineAfter(now)
+                .build();
+        assertThat(taskService.filterTasks(byPriority, pageable).getContent())
+                .extracting(TaskResponse::getTitle)
+                .containsExactlyInAnyOrder("Срочная", "Чужая");
+    }
+
+    @Test
+    @DisplayName("Сортировка по разрешённому полю дополняется id, страница и проект читаются без N+1")
+    void filter_SortsAndLoadsProjectInOneQuery() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<TaskResponse> page = taskService.filterTasks(TaskFilterCriteria.builder().projectId(projectId).build(),
+                PageRequest.of(0, 2, Sort.by(Sort.Order.asc("createdAt"))));
+
+        assertThat(page.getTotalElements()).isEqualTo(4);
+        assertThat(page.getContent()).extracting(TaskResponse::getProjectName).containsOnly("Проект");
+        // Одинаковый created_at упорядочивается добавленным id
+        assertThat(page.getContent()).extracting(TaskResponse::getTitle).containsExactly("Срочная", "В работе");
+        // Страница и COUNT
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Нормальная форма: все статусы отбрасываются, порядок значений не влияет на ключ кэша")
+    void filter_NormalizesCriteria() {
+        taskService.filterTasks(TaskFilterCriteria.builder()
+                .projectId(projectId)
+                .statuses(EnumSet.allOf(TaskStatus.class))
+                .build(), pageable);
+        verify(taskListingCache).byFilter(argThat(criteria -> criteria.getStatuses() == null),
+                eq(PageRequest.of(0, 20, Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")))), any());
+
+        TaskFilterCriteria first = TaskFilterCriteria.builder()
+                .assigneeId(10L).statuses(Set.of(TaskStatus.TODO, TaskStatus.DONE)).build();
+        TaskFilterCriteria second = TaskFilterCriteria.builder()
+                .assigneeId(10L).statuses(Set.of(TaskStatus.DONE, TaskStatus.TODO)).build();
+        assertThat(first.cacheKey()).isEqualTo(second.cacheKey());
+    }
+
+    @Test
+    @DisplayName("Фильтры без индексируемого условия, пустой интервал и сортировка по неиндексированному полю отклоняются")
+    void filter_RejectsUnindexedCombinations() {
+        assertThatThrownBy(() -> taskService.filterTasks(new TaskFilterCriteria(), pageable))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> taskService.filterTasks(TaskFilterCriteria.builder()
+                .priorities(EnumSet.allOf(TaskPriority.class)).build(), pageable))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> taskService.filterTasks(TaskFilterCriteria.builder()
+                .deadlineAfter(now).deadlineBefore(now.minusDays(1)).build(), pageable))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> taskService.filterTasks(TaskFilterCriteria.builder().projectId(projectId).build(),
+                PageRequest.of(0, 20, Sort.by("priority"))))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("priority");
+    }
+
+    private void persistTask(Project project, String title, TaskStatus status, TaskPriority priority,
+                             Long assigneeId, LocalDateTime deadline) {
+        entityManager.persist(Task.builder()
+                .title(title)
+                .project(project)
+                .status(status)
+                .priority(priority)
+                .assigneeId(assigneeId)
+                .deadline(deadline)
+                .creatorId(OWNER_ID)
+                .build());
+    }
+}
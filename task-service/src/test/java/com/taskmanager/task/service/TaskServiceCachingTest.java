@@ -0,0 +1,165 @@
+package com.taskmanager.task.service;
+
+import com.taskmanager.task.cache.CacheGenerations;
+import com.taskmanager.task.cache.TaskListingCache;
+import com.taskmanager.task.dto.CreateTaskRequest;
+import com.taskmanager.task.dto.TaskFilterCriteria;
+import com.taskmanager.task.entity.Project;
+import com.taskmanager.task.entity.Task;
+import com.taskmanager.task.entity.TaskStatus;
+import com.taskmanager.task.repository.ProjectRepository;
+import com.taskmanager.task.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Проверка точечной инвалидации кэша при создании задачи
+ */
+@SpringJUnitConfig(TaskServiceCachingTest.Config.class)
+class TaskServiceCachingTest {
+
+    @Configuration
+    @EnableCaching
+    @Import({TaskService.class, TaskListingCache.class, CacheGenerations.class})
+    static class Config {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager("tasks", "projects", "taskLists");
+        }
+
+        @Bean
+        LocalValidatorFactoryBean validator() {
+            return new LocalValidatorFactoryBean();
+        }
+    }
+
+    @MockBean
+    private TaskRepository taskRepository;
+
+    @MockBean
+    private ProjectRepository projectRepository;
+
+    @MockBean
+    private OutboxService outboxService;
+
+    @MockBean
+    private StringRedisTemplate redisTemplate;
+
+    @MockBean
+    private ProjectStatsService projectStatsService;
+
+    @Autowired
+    private TaskService taskService;
+
+    private final Pageable pageable = PageRequest.of(0, 20);
+    private final Project projectA = Project.builder().id(1L).name("Проект A").build();
+    private final Project projectB = Project.builder().id(2L).name("Проект B").build();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        // Счётчики поколений в памяти вместо Redis
+        Map<String, Long> generations = new ConcurrentHashMap<>();
+        ValueOperations<String, String> ops = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(ops);
+        when(ops.get(anyString())).thenAnswer(inv -> {
+            Long value = generations.get(inv.<String>getArgument(0));
+            return value != null ? value.toString() : null;
+        });
+        when(ops.increment(anyString())).thenAnswer(inv -> generations.merge(inv.getArgument(0), 1L, Long::sum));
+
+        Task taskInB = task(10L, projectB);
+        when(taskRepository.findById(10L)).thenReturn(Optional.of(taskInB));
+        when(taskRepository.findByProjectId(eq(1L), any())).thenReturn(new PageImpl<>(List.of(task(11L, projectA))));
+        when(taskRepository.findByProjectId(eq(2L), any())).thenReturn(new PageImpl<>(List.of(taskInB)));
+        when(projectRepository.findById(1L)).thenReturn(Optional.of(projectA));
+        when(taskRepository.save(any(Task.class))).thenAnswer(inv -> {
+            Task saved = inv.getArgument(0);
+            saved.setId(12L);
+            return saved;
+        });
+    }
+
+    @Test
+    @DisplayName("Создание задачи не вытесняет записи несвязанных проектов")
+    void createTask_KeepsUnrelatedEntries() {
+        taskService.getTasksByProject(1L, pageable);
+        taskService.getTasksByProject(2L, pageable);
+        taskService.getTaskById(10L);
+
+        CreateTaskRequest request = new CreateTaskRequest();
+        request.setTitle("Новая задача");
+        request.setProjectId(1L);
+        taskService.createTask(request, 100L);
+
+        taskService.getTasksByProject(1L, pageable);
+        taskService.getTasksByProject(2L, pageable);
+        taskService.getTaskById(10L);
+
+        // Список проекта A перечитан, список проекта B и задача из B взяты из кэша
+        verify(taskRepository, times(2)).findByProjectId(eq(1L), any());
+        verify(taskRepository, times(1)).findByProjectId(eq(2L), any());
+        verify(taskRepository, times(1)).findById(10L);
+    }
+
+    @Test
+    @DisplayName("Одинаковые после нормализации фильтры читаются из кэша до изменения задач проекта")
+    @SuppressWarnings("unchecked")
+    void filterTasks_CachedByNormalizedCriteria() {
+        when(taskRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(task(11L, projectA))));
+
+        taskService.filterTasks(TaskFilterCriteria.builder()
+                .projectId(1L).statuses(Set.of(TaskStatus.TODO, TaskStatus.IN_PROGRESS)).build(), pageable);
+        taskService.filterTasks(TaskFilterCriteria.builder()
+                .projectId(1L).statuses(Set.of(TaskStatus.IN_PROGRESS, TaskStatus.TODO)).build(), pageable);
+        verify(taskRepository, times(1)).findAll(any(Specification.class), any(Pageable.class));
+
+        CreateTaskRequest request = new CreateTaskRequest();
+        request.setTitle("Новая задача");
+        request.setProjectId(1L);
+        taskService.createTask(request, 100L);
+
+        taskService.filterTasks(TaskFilterCriteria.builder()
+                .projectId(1L).statuses(Set.of(TaskStatus.TODO, TaskStatus.IN_PROGRESS)).build(), pageable);
+        verify(taskRepository, times(2)).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    private static Task task(Long id, Project project) {
+        return Task.builder()
+                .id(id)
+                .title("Задача " + id)
+                .project(project)
+                .creatorId(100L)
+                .build();
+    }
+}
@@ -1,6 +1,14 @@
 package com.taskmanager.task.service;
 
+import com.taskmanager.task.cache.TaskListingCache;
+import com.taskmanager.task.dto.BulkTaskResponse;
 import com.taskmanager.task.dto.CreateTaskRequest;
+import com.taskmanager.task.dto.CursorPage;
+import com.taskmanager.task.dto.SearchCursor;
+import com.taskmanager.task.dto.TaskPatchResult;
+import com.taskmanager.task.dto.TaskSearchCriteria;
+import com.taskmanager.task.dto.TaskSearchHit;
+import com.taskmanager.task.dto.UpdateTaskRequest;
 import com.taskmanager.task.dto.TaskResponse;
 import com.taskmanager.task.entity.Task;
 import com.taskmanager.task.entity.Project;
@@ -8,20 +16,33 @@ import com.taskmanager.task.entity.TaskStatus;
 import com.taskmanager.task.entity.TaskPriority;
 import com.taskmanager.task.repository.TaskRepository;
 import com.taskmanager.task.repository.ProjectRepository;
+import com.taskmanager.common.dto.TaskEventType;
+import com.taskmanager.common.exception.BusinessException;
+import com.taskmanager.common.exception.PreconditionFailedException;
 import com.taskmanager.common.exception.ResourceNotFoundException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 /**
@@ -37,7 +58,16 @@ class TaskServiceTest {
     private ProjectRepository projectRepository;
 
     @Mock
-    private KafkaProducerService kafkaProducerService;
+    private OutboxService outboxService;
+
+    @Mock
+    private TaskListingCache taskListingCache;
+
+    @Mock
+    private ProjectStatsService projectStatsService;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
 
     @InjectMocks
     private TaskService taskService;
@@ -98,6 +128,159 @@ class TaskServiceTest {
         verify(taskRepository, never()).save(any(Task.class));
     }
 
+    @Test
+    @DisplayName("Обновление задачи - If-Match с устаревшей версией")
+    void updateTask_StaleIfMatch() {
+        // Given
+        Project project = Project.builder().id(1L).name("Тестовый проект").build();
+        Task task = Task.builder().id(1L).title("Задача").project(project).version(3L).build();
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        UpdateTaskRequest request = UpdateTaskRequest.builder().status(TaskStatus.DONE).build();
+
+        // When & Then
+        assertThatThrownBy(() -> taskService.updateTask(1L, request, "\"2\""))
+                .isInstanceOf(PreconditionFailedException.class);
+
+        assertThat(task.getStatus()).isEqualTo(TaskStatus.TODO);
+        verify(taskRepository, never()).saveAndFlush(any(Task.class));
+    }
+
+    @Test
+    @DisplayName("Обновление задачи - If-Match с текущей версией")
+    void updateTask_MatchingIfMatch() {
+        // Given
+        Project project = Project.builder().id(1L).name("Тестовый проект").build();
+        Task task = Task.builder().id(1L).title("Задача").project(project).version(3L).build();
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.saveAndFlush(task)).thenAnswer(inv -> {
+            task.setVersion(4L);
+            return task;
+        });
+        UpdateTaskRequest request = UpdateTaskRequest.builder().status(TaskStatus.DONE).build();
+
+        // When
+        TaskResponse response = taskService.updateTask(1L, request, "W/\"9\", \"3\"");
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(TaskStatus.DONE);
+        assertThat(response.eTag()).isEqualTo("\"4\"");
+        verify(outboxService).enqueueTaskEvent(argThat(event -> event.getType() == TaskEventType.STATUS_CHANGED
+                && event.getTaskVersion() == 4L && event.getChanges().keySet().equals(Set.of("status"))));
+    }
+
+    @Test
+    @DisplayName("Быстрая смена статуса - без загрузки сущности, с уведомлением и счётчиками")
+    void updateTaskStatus_FastPath() {
+        // Given
+        TaskResponse patched = TaskResponse.builder()
+                .id(1L).title("Задача").projectId(1L).creatorId(100L).status(TaskStatus.DONE).version(5L).build();
+        when(taskRepository.patchStatus(1L, TaskStatus.DONE, List.of(4L)))
+                .thenReturn(Optional.of(new TaskPatchResult(patched, TaskStatus.IN_REVIEW, null)));
+
+        // When
+        TaskResponse response = taskService.updateTaskStatus(1L, TaskStatus.DONE, "\"4\"");
+
+        // Then
+        assertThat(response.eTag()).isEqualTo("\"5\"");
+        verify(taskRepository, never()).findById(any());
+        verify(taskRepository, never()).saveAndFlush(any(Task.class));
+        verify(projectStatsService).apply(any(TaskStatsDelta.class));
+        verify(taskListingCache).invalidateProject(1L);
+        verify(outboxService).enqueueNotification(argThat(n -> n.getType().equals("TASK_STATUS_CHANGED")));
+    }
+
+    @Test
+    @DisplayName("Быстрое назначение - тот же исполнитель ничего не меняет")
+    void assignTask_SameAssignee() {
+        // Given
+        Project project = Project.builder().id(1L).name("Тестовый проект").build();
+        Task task = Task.builder().id(1L).title("Задача").project(project).assigneeId(7L).version(2L).build();
+        when(taskRepository.patchAssignee(1L, 7L, null)).thenReturn(Optional.empty());
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+
+        // When
+        TaskResponse response = taskService.assignTask(1L, 7L, null);
+
+        // Then
+        assertThat(response.getAssigneeId()).isEqualTo(7L);
+        verify(outboxService, never()).enqueueNotification(any());
+        verifyNoInteractions(projectStatsService);
+    }
+
+    @Test
+    @DisplayName("Пакетное создание - ошибки возвращаются по элементам")
+    void createTasks_ReportsItemErrors() {
+        // Given
+        Project project = Project.builder().id(1L).name("Тестовый проект").build();
+        CreateTaskRequest valid = new CreateTaskRequest();
+        valid.setTitle("Корректная задача");
+        valid.setProjectId(1L);
+        valid.setAssigneeId(7L);
+        CreateTaskRequest shortTitle = new CreateTaskRequest();
+        shortTitle.setTitle("ab");
+        shortTitle.setProjectId(1L);
+        CreateTaskRequest unknownProject = new CreateTaskRequest();
+        unknownProject.setTitle("Задача без проекта");
+        unknownProject.setProjectId(999L);
+
+        when(projectRepository.findAllById(any())).thenReturn(List.of(project));
+        when(taskRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        // When
+        BulkTaskResponse response = taskService.createTasks(List.of(valid, shortTitle, unknownProject), 100L);
+
+        // Then
+        assertThat(response.getTasks()).hasSize(1);
+        assertThat(response.getErrors()).extracting("index").containsExactly(1, 2);
+        verify(projectRepository).findAllById(any());
+        verify(outboxService).enqueueNotifications(argThat(list -> list.size() == 1));
+        verify(outboxService, never()).enqueueNotification(any());
+    }
+
+    @Test
+    @DisplayName("Пакетное создание - превышен лимит элементов")
+    void createTasks_TooManyItems() {
+        List<CreateTaskRequest> requests = Collections.nCopies(TaskService.MAX_BULK_SIZE + 1, new CreateTaskRequest());
+
+        assertThatThrownBy(() -> taskService.createTasks(requests, 100L))
+                .isInstanceOf(BusinessException.class);
+
+        verify(taskRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Поиск - порядок по релевантности и курсор следующей страницы")
+    void searchTasks_RankedWithCursor() {
+        // Given
+        Project project = Project.builder().id(1L).name("Проект").build();
+        Task first = Task.builder().id(5L).title("Отчёт за квартал").project(project).build();
+        Task second = Task.builder().id(3L).title("Черновик отчёта").project(project).build();
+        when(taskRepository.search(any(), isNull(), eq(3))).thenReturn(List.of(
+                new TaskSearchHit(5L, 0.9f), new TaskSearchHit(3L, 0.4f), new TaskSearchHit(8L, 0.1f)));
+        when(taskRepository.findByIdIn(List.of(5L, 3L))).thenReturn(List.of(second, first));
+
+        // When
+        CursorPage<TaskResponse> page = taskService.searchTasks(
+                TaskSearchCriteria.builder().query("  отчёт ").build(), null, 2);
+
+        // Then
+        assertThat(page.getContent()).extracting(TaskResponse::getId).containsExactly(5L, 3L);
+        assertThat(page.isHasNext()).isTrue();
+        SearchCursor next = SearchCursor.decode(page.getNextCursor());
+        assertThat(next.getRank()).isEqualTo(0.4f);
+        assertThat(next.getId()).isEqualTo(3L);
+        verify(taskRepository).search(argThat(criteria -> criteria.getQuery().equals("отчёт")), isNull(), eq(3));
+    }
+
+    @Test
+    @DisplayName("Поиск - пустой запрос отклоняется")
+    void searchTasks_BlankQuery() {
+        assertThatThrownBy(() -> taskService.searchTasks(TaskSearchCriteria.builder().query(" ").build(), null, 20))
+                .isInstanceOf(BusinessException.class);
+
+        verify(taskRepository, never()).search(any(), any(), anyInt());
+    }
+
     @Test
     @DisplayName("Проверка что TaskService создаётся корректно")
     void taskService_IsNotNull() {